@@ -0,0 +1,125 @@
+package art.arcane.edict.benchmark;
+
+import art.arcane.edict.message.CompoundMessage;
+import art.arcane.edict.parser.Token;
+import art.arcane.edict.permission.Permission;
+import art.arcane.edict.user.User;
+import art.arcane.edict.util.BKTreeIndexer;
+import art.arcane.edict.virtual.VCommandable;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fuzzy search in {@link BKTreeIndexer}s of varying sizes, with queries that have a varying number of typos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BKTreeIndexerBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int size;
+
+    @Param({"0", "1", "2"})
+    public int typos;
+
+    private BKTreeIndexer indexer;
+    private String[] queries;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<VCommandable> commandables = new ArrayList<>(size);
+        Set<String> names = new HashSet<>();
+        while (commandables.size() < size) {
+            String name = word(random);
+            if (names.add(name)) {
+                commandables.add(new Named(name));
+            }
+        }
+        indexer = new BKTreeIndexer();
+        indexer.addAll(commandables);
+
+        queries = new String[1024];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = typo(commandables.get(random.nextInt(size)).name(), typos, random);
+        }
+    }
+
+    @Benchmark
+    public List<VCommandable> search() {
+        return indexer.search(queries[next++ & (queries.length - 1)], 0.6, c -> true);
+    }
+
+    /**
+     * Make a random command-like word.
+     */
+    static @NotNull String word(@NotNull Random random) {
+        StringBuilder builder = new StringBuilder();
+        int length = 4 + random.nextInt(9);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(26)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Replace random characters of a word (never the first, which the indexer does not compare).
+     */
+    static @NotNull String typo(@NotNull String word, int typos, @NotNull Random random) {
+        char[] chars = word.toCharArray();
+        for (int i = 0; i < typos; i++) {
+            chars[1 + random.nextInt(chars.length - 1)] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Commandable with only a name.
+     * @param name the name
+     */
+    record Named(@NotNull String name) implements VCommandable {
+
+        @Override
+        public @NotNull String @NotNull [] aliases() {
+            return new String[0];
+        }
+
+        @Override
+        public @NotNull VCommandable parent() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public @NotNull Permission permission() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public @NotNull CompoundMessage getHelpFor(@NotNull User user) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean run(@NotNull List<Token> input, @NotNull User user) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public @NotNull List<String> suggest(@NotNull List<Token> input, @NotNull User user, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void networkString(@NotNull StringBuilder builder, @NotNull String indent, @NotNull String currentIndent) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
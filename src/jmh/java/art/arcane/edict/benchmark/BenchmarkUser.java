@@ -0,0 +1,31 @@
+package art.arcane.edict.benchmark;
+
+import art.arcane.edict.message.Message;
+import art.arcane.edict.user.User;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * User that discards everything sent to it.
+ */
+public class BenchmarkUser implements User {
+
+    @Override
+    public boolean canUseContext() {
+        return false;
+    }
+
+    @Override
+    public boolean canUseClickable() {
+        return false;
+    }
+
+    @Override
+    public void send(@NotNull Message message) {
+
+    }
+
+    @Override
+    public void suggestCommand(String command) {
+
+    }
+}
@@ -0,0 +1,33 @@
+package art.arcane.edict.benchmark;
+
+import art.arcane.edict.Edict;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the generated {@link BenchmarkCommands} tree (40 categories of 30 commands) on a number of threads, eagerly or lazily.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstructionBenchmark {
+
+    @org.openjdk.jmh.annotations.Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @org.openjdk.jmh.annotations.Param({"false", "true"})
+    public boolean lazy;
+
+    @Benchmark
+    public Edict build() {
+        return Edict.builder(new BenchmarkCommands())
+                .systemUser(new QuietSystemUser())
+                .buildParallelism(parallelism)
+                .lazy(lazy)
+                .build();
+    }
+}
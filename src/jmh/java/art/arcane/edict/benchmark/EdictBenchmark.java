@@ -0,0 +1,53 @@
+package art.arcane.edict.benchmark;
+
+import art.arcane.edict.Edict;
+import art.arcane.edict.user.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end forced-sync commands and suggestions over the generated {@link BenchmarkCommands} tree (1200 commands).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EdictBenchmark {
+
+    private Edict edict;
+    private String[] commands;
+    private String[] partials;
+    private int next = 0;
+    private final User user = new BenchmarkUser();
+
+    @Setup
+    public void setup() {
+        edict = Edict.builder(new BenchmarkCommands()).systemUser(new QuietSystemUser()).build();
+        commands = new String[BenchmarkCommands.COMMANDS.length];
+        partials = new String[BenchmarkCommands.COMMANDS.length];
+        for (int i = 0; i < commands.length; i++) {
+            String command = BenchmarkCommands.COMMANDS[i];
+            commands[i] = command + " amount=" + i + " -verbose";
+            partials[i] = command.substring(0, command.length() - 2);
+        }
+    }
+
+    @Benchmark
+    public void command() {
+        edict.command(commands[next++ % commands.length], user, true);
+    }
+
+    @Benchmark
+    public void suggest(Blackhole blackhole) {
+        edict.suggest(partials[next++ % partials.length], user, blackhole::consume, true);
+    }
+
+    @Benchmark
+    public void suggestParameters(Blackhole blackhole) {
+        edict.suggest(BenchmarkCommands.COMMANDS[next++ % BenchmarkCommands.COMMANDS.length] + " ", user, blackhole::consume, true);
+    }
+}
@@ -0,0 +1,99 @@
+package art.arcane.edict.benchmark;
+
+import art.arcane.edict.exception.ParsingException;
+import art.arcane.edict.exception.WhichException;
+import art.arcane.edict.handler.ParameterHandler;
+import art.arcane.edict.handler.ParameterHandlers;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Looking up the handler for a type in {@link ParameterHandlers} holding many handlers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerLookupBenchmark {
+
+    /**
+     * Types to register handlers for.
+     */
+    private static final List<Class<?>> TYPES = List.of(
+            File.class, BigDecimal.class, BigInteger.class, URI.class, URL.class, Path.class, Pattern.class, UUID.class,
+            Duration.class, Instant.class, LocalDate.class, LocalTime.class, LocalDateTime.class, ZonedDateTime.class, ZoneId.class, Period.class,
+            Year.class, YearMonth.class, MonthDay.class, DayOfWeek.class, Month.class, OffsetTime.class, OffsetDateTime.class, Locale.class,
+            Currency.class, BitSet.class, Date.class, Calendar.class, TimeZone.class, Random.class, StringBuilder.class, Thread.class
+    );
+
+    @Param({"8", "32"})
+    public int handlers;
+
+    private ParameterHandlers registry;
+    private Class<?> last;
+
+    @Setup
+    public void setup() {
+        registry = new ParameterHandlers(List.of(new TypeHandler(Number.class)));
+        for (int i = 0; i < handlers; i++) {
+            registry.add(new TypeHandler(TYPES.get(i)));
+        }
+        last = TYPES.get(handlers - 1);
+    }
+
+    @Benchmark
+    public ParameterHandler<?> lastRegistered() {
+        return registry.getHandlerFor(last);
+    }
+
+    /**
+     * Integer is only supported through its supertype Number, registered first.
+     */
+    @Benchmark
+    public ParameterHandler<?> supertype() {
+        return registry.getHandlerFor(Integer.class);
+    }
+
+    /**
+     * Handler supporting a single type, that parses nothing.
+     */
+    private record TypeHandler(Class<?> type) implements ParameterHandler<Object> {
+
+        @Override
+        public String getRandomDefault() {
+            return null;
+        }
+
+        @Override
+        public boolean supports(Class<?> type) {
+            return this.type == type;
+        }
+
+        @Override
+        public String toString(Object o) {
+            return String.valueOf(o);
+        }
+
+        @Override
+        public Object parse(String in, boolean force, String parameterName) throws ParsingException, WhichException {
+            throw new ParsingException(type, parameterName, in, "Not parsed in benchmarks");
+        }
+
+        @Override
+        public List<Object> getPossibilities() {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package art.arcane.edict.benchmark;
+
+import art.arcane.edict.Edict;
+import art.arcane.edict.api.Command;
+import art.arcane.edict.api.Param;
+import art.arcane.edict.parser.ParameterParser;
+import art.arcane.edict.parser.Token;
+import art.arcane.edict.parser.Tokenizer;
+import art.arcane.edict.user.User;
+import art.arcane.edict.virtual.VMethod;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding and parsing parameters with keyed, keyless and flag inputs, and a mix of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterParserBenchmark {
+
+    @org.openjdk.jmh.annotations.Param({"keyed", "keyless", "flag", "mixed"})
+    public String inputs;
+
+    private Edict system;
+    private VMethod method;
+    private List<Token> tokens;
+    private final User user = new BenchmarkUser();
+
+    @Command(name = "give", description = "benchmark command")
+    public void give(
+            @Param(name = "amount", aliases = "count") int amount,
+            @Param(name = "target") String target,
+            @Param(name = "multiplier", defaultValue = "1.5") double multiplier,
+            @Param(name = "verbose", defaultValue = "false") boolean verbose,
+            @Param(name = "silent", defaultValue = "false") boolean silent
+    ) {}
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        system = Edict.builder(null).systemUser(new QuietSystemUser()).build();
+        method = (VMethod) VMethod.fromInstance(
+                ParameterParserBenchmark.class.getDeclaredMethod("give", int.class, String.class, double.class, boolean.class, boolean.class),
+                this,
+                system
+        );
+        tokens = List.of(Tokenizer.tokenize(switch (inputs) {
+            case "keyed" -> "amount=5 target=someone multiplier=2.5 verbose=true";
+            case "keyless" -> "2.5 true false 5 someone";
+            case "flag" -> "amount=5 target=someone -verbose -silent";
+            default -> "count=5 target=someone -verbose 2.5";
+        }));
+    }
+
+    @Benchmark
+    public Object[] parse() {
+        return new ParameterParser(tokens, method, user, system).parse().join();
+    }
+}
@@ -0,0 +1,85 @@
+package art.arcane.edict.benchmark;
+
+import art.arcane.edict.exception.ParsingException;
+import art.arcane.edict.exception.WhichException;
+import art.arcane.edict.handler.ParameterHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtering the possibilities of a handler with many of them (like player names) by partial input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PossibilitiesBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int possibilities;
+
+    @Param({"", "ab", "abcdef"})
+    public String input;
+
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private ParameterHandler<String> handler;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        List<String> names = new ArrayList<>(possibilities);
+        for (int i = 0; i < possibilities; i++) {
+            names.add(BKTreeIndexerBenchmark.word(random));
+        }
+        handler = new NamesHandler(List.copyOf(names), indexed ? 0 : -1);
+    }
+
+    @Benchmark
+    public List<String> getPossibilities() {
+        return handler.getPossibilities(input);
+    }
+
+    /**
+     * Handler with a fixed list of names as its possibilities, indexed if the version is not negative.
+     */
+    private record NamesHandler(List<String> names, long version) implements ParameterHandler<String> {
+
+        @Override
+        public String getRandomDefault() {
+            return names.get(0);
+        }
+
+        @Override
+        public boolean supports(Class<?> type) {
+            return type == String.class;
+        }
+
+        @Override
+        public String toString(String s) {
+            return s;
+        }
+
+        @Override
+        public String parse(String in, boolean force, String parameterName) throws ParsingException, WhichException {
+            return in;
+        }
+
+        @Override
+        public List<String> getPossibilities() {
+            return names;
+        }
+
+        @Override
+        public long possibilitiesVersion() {
+            return version;
+        }
+    }
+}
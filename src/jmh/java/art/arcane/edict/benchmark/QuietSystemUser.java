@@ -0,0 +1,13 @@
+package art.arcane.edict.benchmark;
+
+import art.arcane.edict.user.SystemUser;
+
+/**
+ * System user that sends no messages, so benchmarks do not measure console output.
+ */
+public class QuietSystemUser extends SystemUser {
+
+    public QuietSystemUser() {
+        super(Level.OFF, line -> {});
+    }
+}
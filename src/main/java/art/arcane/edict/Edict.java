@@ -2,21 +2,40 @@ package art.arcane.edict;
 
 import art.arcane.edict.api.Command;
 import art.arcane.edict.completables.CompletableCommandsRegistry;
+import art.arcane.edict.context.Context;
+import art.arcane.edict.context.SuggestionContext;
 import art.arcane.edict.context.SystemContext;
 import art.arcane.edict.context.UserContext;
 import art.arcane.edict.handler.ContextHandler;
+import art.arcane.edict.jfr.CommandEvent;
+import art.arcane.edict.jfr.SearchEvent;
+import art.arcane.edict.jfr.SuggestEvent;
 import art.arcane.edict.handler.ContextHandlers;
 import art.arcane.edict.handler.ParameterHandler;
 import art.arcane.edict.handler.ParameterHandlers;
 import art.arcane.edict.handler.handlers.*;
 import art.arcane.edict.message.Message;
 import art.arcane.edict.message.StringMessage;
+import art.arcane.edict.metrics.Counter;
+import art.arcane.edict.metrics.HistogramMetrics;
+import art.arcane.edict.metrics.Metrics;
+import art.arcane.edict.metrics.Stage;
 import art.arcane.edict.permission.Permission;
+import art.arcane.edict.permission.PermissionCache;
+import art.arcane.edict.permission.PermissionNode;
+import art.arcane.edict.snapshot.TreeSnapshot;
+import art.arcane.edict.suggestion.SuggestionRequest;
+import art.arcane.edict.suggestion.SuggestionSession;
+import art.arcane.edict.suggestion.Suggestions;
+import art.arcane.edict.suggestion.SuggestionSessions;
 import art.arcane.edict.user.SystemUser;
 import art.arcane.edict.user.User;
 import art.arcane.edict.util.BKTreeIndexer;
+import art.arcane.edict.util.BuildLog;
 import art.arcane.edict.util.EDictionary;
-import art.arcane.edict.parser.ParameterParser;
+import art.arcane.edict.util.EdictExecutors;
+import art.arcane.edict.parser.Token;
+import art.arcane.edict.parser.Tokenizer;
 import art.arcane.edict.virtual.VClass;
 import art.arcane.edict.virtual.VCommandable;
 import art.arcane.edict.virtual.VMethod;
@@ -26,12 +45,25 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.MissingResourceException;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /*
     TODO: Command structure in README.
@@ -66,20 +98,38 @@ import java.util.function.Consumer;
  * <i>Not all options may be mentioned here</i><br>
  * <ul>
  *  <li>{@link EdictBuilder#settings(EDictionary)} the settings instance<br>
- *      By default, uses {@link EDictionary#EDictionary()}</li>
+ *      By default, uses {@link EDictionary#EDictionary()}.
+ *      Permission decisions are only cached if {@link EDictionary#permissionCacheSize} is set, after which permission changes
+ *      must be reported to the {@link #getPermissionCache() permission cache}, or revoked permissions stay granted</li>
  *  <li>{@link EdictBuilder#syncRunner(Consumer)} how to run commands sync<br>
  *      By default, uses {@link Runnable#run()} (async)</li>
+ *  <li>{@link EdictBuilder#executor(Executor)} / {@link EdictBuilder#virtualThreads()} where to run commands and suggestions off the calling thread<br>
+ *      By default, uses {@link EdictExecutors#bounded()} (bounded pool, rejects when saturated)</li>
  *  <li>{@link EdictBuilder#systemUser(SystemUser)} system user to write debug/info/warnings to<br>
- *      By default, uses {@link SystemUser#SystemUser()} (System.out)</li>
- *  <li>{@link EdictBuilder#permissionFactory(BiFunction)} permission factory to create permissions<br>
+ *      By default, uses {@link SystemUser#SystemUser()} (info and warnings to System.out, written asynchronously)</li>
+ *  <li>{@link EdictBuilder#permissionFactory(BiFunction)} permission factory to create permissions.
+ *      Must be thread-safe if {@link EdictBuilder#buildParallelism(int)} is above 1<br>
  *      By default, uses {@link #defaultPermissionFactory}</li>
  *  <li>{@link EdictBuilder#parameterHandler(ParameterHandler)} / {@link EdictBuilder#parameterHandlers(ParameterHandlers)} handlers for custom parameter types<br>
  *      By default, features all parameter handlers in {@link #defaultParameterHandlers} (standard Java types)</li>
  *  <li>{@link EdictBuilder#contextHandler(ContextHandler)} / {@link EdictBuilder#contextHandlers(ContextHandlers)} handlers for custom context types<br>
  *      By default, there are no context handlers</li>
+ *  <li>{@link EdictBuilder#metrics(Metrics)} where to record timings and counts of the command pipeline, e.g. {@link HistogramMetrics}<br>
+ *      By default, uses {@link Metrics#NONE} (disabled)</li>
+ *  <li>{@link EdictBuilder#buildParallelism(int)} the number of threads building the command tree.
+ *      Above 1, the {@link #permissionFactory} and the parsing of cached default values must be thread-safe<br>
+ *      By default, 1 (built on the constructing thread)</li>
+ *  <li>{@link EdictBuilder#snapshotDirectory(Path)} where to keep a {@link TreeSnapshot} of the command tree, restored instead of building it while the command classes are unchanged.
+ *      Not used for {@link #isLazy() lazy} trees<br>
+ *      By default, {@code null} (no snapshots)</li>
+ *  <li>{@link EdictBuilder#lazy(boolean)} whether to build the children of categories when they are first used, instead of all at once<br>
+ *      By default, {@code false} (the whole tree is built by the constructor)</li>
+ *  <li>{@link EdictBuilder#prewarm(boolean)} whether to build a lazy tree in the background (see {@link #prewarm()}) right after construction<br>
+ *      By default, {@code false}</li>
  * </ul>
  * <h2>Running</h2>
  * To parse commands through the system after initializing it, use {@link #command(String, User)}.
+ * To add or remove command roots while it is running (e.g. when plugins load or unload), use {@link #register(Object)} and {@link #unregister(Object)}.
  */
 @SuppressWarnings("unused")
 @Builder(builderMethodName = "")
@@ -100,19 +150,9 @@ public class Edict {
     ));
 
     /**
-     * The default permission factory. Simply sets the parent as the parent and the toString method as the input string.
+     * The default permission factory. Makes a {@link PermissionNode} with the parent as the parent and the input string as the name.
      */
-    private static BiFunction<Permission, String, Permission> defaultPermissionFactory = (parent, s) -> new Permission() {
-        @Override
-        public Permission getParent() {
-            return parent;
-        }
-
-        @Override
-        public String toString() {
-            return s;
-        }
-    };
+    private static BiFunction<Permission, String, Permission> defaultPermissionFactory = PermissionNode::new;
 
     /**
      * Command root instances.
@@ -132,6 +172,12 @@ public class Edict {
     @Builder.Default
     private Consumer<Runnable> syncRunner = Runnable::run;
 
+    /**
+     * Executor for commands and suggestions that are not forced sync.
+     */
+    @Builder.Default
+    private Executor executor = EdictExecutors.bounded();
+
     /**
      * Settings.
      */
@@ -139,7 +185,7 @@ public class Edict {
     private EDictionary settings = new EDictionary();
 
     /**
-     * Permission factory
+     * Permission factory. Called from several threads at once if the {@link #buildParallelism} is above 1.
      */
     @Builder.Default
     private BiFunction<@Nullable Permission, @NotNull String, @NotNull Permission> permissionFactory = defaultPermissionFactory;
@@ -157,26 +203,69 @@ public class Edict {
     private ContextHandlers contextHandlers = new ContextHandlers();
 
     /**
-     * Indent for {@link #networkString()}.
+     * Metrics of the command pipeline.
      */
     @Builder.Default
-    private String networkStringIndent = "  ";
+    private Metrics metrics = Metrics.NONE;
 
     /**
-     * Root commands
+     * Get the root commands of the system.
+     * @return the root commandables registered at the time of the call, which cannot be modified
      */
-    private final List<VCommandable> rootCommands = new ArrayList<>();
+    final public @NotNull List<VCommandable> getRootCommands() {
+        return registered.get().commands();
+    }
 
     /**
-     * System indexer.
+     * Number of threads building the command tree at construction.
      */
-    private final BKTreeIndexer indexer = new BKTreeIndexer();
+    @Builder.Default
+    private int buildParallelism = 1;
+
+    /**
+     * Directory of command tree snapshots, or {@code null} to not use them.
+     */
+    @Builder.Default
+    private Path snapshotDirectory = null;
+
+    /**
+     * Whether categories build their children when first used.
+     */
+    @Builder.Default
+    private boolean lazy = false;
+
+    /**
+     * Whether to {@link #prewarm()} a lazy tree right after construction.
+     */
+    @Builder.Default
+    private boolean prewarm = false;
+
+    /**
+     * Indent for {@link #networkString()}.
+     */
+    @Builder.Default
+    private String networkStringIndent = "  ";
+
+    /**
+     * Registered roots and their index. Replaced as a whole when roots are (un)registered.
+     */
+    private final AtomicReference<Roots> registered = new AtomicReference<>(Roots.of(List.of(), List.of()));
 
     /**
      * Completable commands' registry.
      */
     private final CompletableCommandsRegistry completableCommandsRegistry = new CompletableCommandsRegistry();
 
+    /**
+     * Suggestion sessions' registry.
+     */
+    private final SuggestionSessions suggestionSessions = new SuggestionSessions(() -> Duration.ofSeconds(settings.suggestionSessionTimeout));
+
+    /**
+     * Cache of users' permission decisions.
+     */
+    private final PermissionCache permissionCache = new PermissionCache(() -> settings.permissionCacheSize, () -> Duration.ofSeconds(settings.permissionCacheTimeout));
+
     /**
      * Build Edict.
      * @param mainRoot the main command root of the system. Can be {@code null}, in which case none are registered.
@@ -221,6 +310,15 @@ public class Edict {
             contextHandlers$value.add(handler);
             return this;
         }
+
+        /**
+         * Run commands and suggestions on a virtual thread each, instead of the default bounded pool. Requires Java 21+.
+         * @return this
+         * @throws UnsupportedOperationException if the JVM does not support virtual threads
+         */
+        public EdictBuilder virtualThreads() throws UnsupportedOperationException {
+            return executor(EdictExecutors.virtual());
+        }
     }
 
     /**
@@ -228,10 +326,17 @@ public class Edict {
      * @param roots the root command classes
      * @param systemUser the user to send system messages to
      * @param syncRunner the consumer that takes runnable objects that must be run sync
+     * @param executor the executor that runs commands and suggestions that are not forced sync
      * @param settings the settings
-     * @param permissionFactory factory to make permissions
+     * @param permissionFactory factory to make permissions, which must be thread-safe if the {@code buildParallelism} is above 1
      * @param parameterHandlers parameter handlers
      * @param contextHandlers context handlers
+     * @param metrics metrics of the command pipeline
+     * @param buildParallelism the number of threads building the command tree, 1 to build it on this thread
+     * @param snapshotDirectory the directory of command tree snapshots, {@code null} to always build the tree
+     * @param lazy whether categories build their children when first used, instead of all in this constructor
+     * @param prewarm whether to {@link #prewarm()} a lazy tree right after construction
+     * @param networkStringIndent indent for the network string
      * @throws NullPointerException if the {@link ParameterHandler} for any of the parameters of any methods of the {@link #roots} or any of its children is not registered
      * or if the {@link ContextHandler} for any of the contextual parameter of any methods of the {@link #roots} or any of its children is not registered
      */
@@ -240,36 +345,190 @@ public class Edict {
             @NotNull List<Object> roots,
             @NotNull SystemUser systemUser,
             @NotNull Consumer<Runnable> syncRunner,
+            @NotNull Executor executor,
             @NotNull EDictionary settings,
             @NotNull BiFunction<@Nullable Permission, @NotNull String, @NotNull Permission> permissionFactory,
             @NotNull ParameterHandlers parameterHandlers,
             @NotNull ContextHandlers contextHandlers,
+            @NotNull Metrics metrics,
+            int buildParallelism,
+            @Nullable Path snapshotDirectory,
+            boolean lazy,
+            boolean prewarm,
             @NotNull String networkStringIndent
     ) throws NullPointerException {
         this.roots = roots;
         this.systemUser = systemUser;
         this.syncRunner = syncRunner;
+        this.executor = executor;
         this.settings = settings;
         this.permissionFactory = permissionFactory;
         this.parameterHandlers = parameterHandlers;
         this.contextHandlers = contextHandlers;
+        this.metrics = metrics;
+        this.buildParallelism = buildParallelism;
+        this.snapshotDirectory = snapshotDirectory;
+        this.lazy = lazy;
+        this.prewarm = prewarm;
         this.networkStringIndent = networkStringIndent;
 
-        // Command Roots
-        for (Object root : roots) {
-            VCommandable vRoot = VClass.fromInstance(root, null, this);
+        // Command Roots, restored from a matching snapshot if there is one
+        Path snapshot = snapshotDirectory == null || lazy ? null : TreeSnapshot.fileFor(snapshotDirectory, roots);
+        List<@Nullable VCommandable> vRoots = snapshot == null ? null : TreeSnapshot.load(snapshot, roots, this);
+        if (vRoots == null) {
+            vRoots = buildRoots();
+            if (snapshot != null) {
+                TreeSnapshot.save(snapshot, roots, vRoots, this);
+            }
+        } else {
+            d(() -> new StringMessage("Restored the command tree from snapshot " + snapshot));
+        }
+        List<Object> instances = new ArrayList<>();
+        List<VCommandable> rootCommands = new ArrayList<>();
+        for (int i = 0; i < roots.size(); i++) {
+            VCommandable vRoot = vRoots.get(i);
             if (vRoot == null) {
-                w(new StringMessage("Could not register root category: " + root.getClass().getSimpleName() + " due to circular reference!"));
+                w(new StringMessage("Could not register root category: " + roots.get(i).getClass().getSimpleName() + " due to circular reference!"));
                 continue;
             }
+            instances.add(roots.get(i));
             rootCommands.add(vRoot);
         }
 
         // Indexer
-        indexer.addAll(rootCommands);
+        registered.set(Roots.of(instances, rootCommands));
 
         // Print
-        i(new StringMessage(networkString()));
+        i(() -> new StringMessage(networkString()));
+
+        // Warm up
+        if (lazy && prewarm) {
+            prewarm();
+        }
+    }
+
+    /**
+     * Build the root categories, and their subcategories unless the system is {@link #isLazy() lazy}.
+     * With a {@link #buildParallelism} above 1, every root and subcategory is built in a task of its own on a temporary {@link ForkJoinPool}.
+     * System messages sent meanwhile are buffered in a {@link BuildLog}, and sent in order once all are built.
+     * @return the roots, in the order of {@link #roots}, with {@code null} for roots that could not be built
+     * @throws NullPointerException if the {@link ParameterHandler} or {@link ContextHandler} for any parameter of any command is not registered
+     */
+    private @NotNull List<@Nullable VCommandable> buildRoots() throws NullPointerException {
+        if (buildParallelism <= 1) {
+            return VClass.fromInstances(roots, null, this);
+        }
+        ForkJoinPool pool = new ForkJoinPool(buildParallelism, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("Edict-Build-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        BuildLog log = new BuildLog();
+        long start = System.nanoTime();
+        try {
+            return pool.invoke(ForkJoinTask.adapt(() -> log.run(() -> VClass.fromInstances(roots, null, this))));
+        } finally {
+            pool.shutdown();
+            log.replay(systemUser);
+            d(() -> new StringMessage("Built " + roots.size() + " roots on " + buildParallelism + " threads in " + (System.nanoTime() - start) / 1_000_000 + "ms"));
+        }
+    }
+
+    /**
+     * Register a command root at runtime. Its tree is built on the calling thread (lazily if the system {@link #isLazy() is}),
+     * and only then published together with a new root index. Commands and suggestions running meanwhile keep using the roots they started with.
+     * @param root the root instance, an instance of a class annotated by @{@link Command}
+     * @return true if it was registered, false if it was already registered or could not be built
+     * @throws MissingResourceException if the class of the root is not annotated by @{@link Command}
+     * @throws NullPointerException if the {@link ParameterHandler} or {@link ContextHandler} for any parameter of any command of the root is not registered
+     */
+    final public boolean register(@NotNull Object root) throws MissingResourceException, NullPointerException {
+        if (registered.get().indexOf(root) >= 0) {
+            return false;
+        }
+        VCommandable vRoot = VClass.fromInstance(root, null, this);
+        if (vRoot == null) {
+            w(new StringMessage("Could not register root category: " + root.getClass().getSimpleName()));
+            return false;
+        }
+        Roots current;
+        do {
+            current = registered.get();
+            if (current.indexOf(root) >= 0) {
+                return false;
+            }
+        } while (!registered.compareAndSet(current, current.with(root, vRoot)));
+        treeChanged();
+        i(() -> new StringMessage("Registered root " + vRoot.name()));
+        return true;
+    }
+
+    /**
+     * Unregister a command root at runtime. Commands and suggestions running meanwhile keep using the roots they started with.
+     * @param root the root instance, as it was passed to the builder or {@link #register(Object)}
+     * @return true if it was unregistered, false if it was not registered
+     */
+    final public boolean unregister(@NotNull Object root) {
+        Roots current;
+        int index;
+        do {
+            current = registered.get();
+            index = current.indexOf(root);
+            if (index < 0) {
+                return false;
+            }
+        } while (!registered.compareAndSet(current, current.without(index)));
+        treeChanged();
+        String name = current.commands().get(index).name();
+        i(() -> new StringMessage("Unregistered root " + name));
+        return true;
+    }
+
+    /**
+     * Drop everything that holds on to parts of the command tree, after it changed.
+     * Suggestion sessions would resolve again for the new roots by themselves, but would keep the old tree reachable until then.
+     * Cached permission decisions stay, since they are made per permission node, not per part of the tree.
+     */
+    private void treeChanged() {
+        suggestionSessions.reset();
+    }
+
+    /**
+     * Build all categories that are not built yet, in the background on the {@link #executor}, breadth-first from the roots.
+     * Only useful if the system is {@link #isLazy() lazy}: commands that are run meanwhile build what they need themselves.
+     * Categories that fail to build (e.g. because of a missing handler) are reported as warnings, and left to be built when they are used.
+     * @return a future completed with the number of categories it built once all categories are built,
+     * or completed exceptionally if the executor rejected the task
+     */
+    final public @NotNull CompletableFuture<Integer> prewarm() {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        Runnable r = () -> {
+            long start = System.nanoTime();
+            int built = 0;
+            Deque<VCommandable> queue = new ArrayDeque<>(registered.get().commands());
+            while (!queue.isEmpty()) {
+                if (!(queue.poll() instanceof VClass category)) {
+                    continue;
+                }
+                boolean wasBuilt = category.subtree().isBuilt();
+                try {
+                    queue.addAll(category.children());
+                } catch (RuntimeException e) {
+                    w(new StringMessage("Could not build " + category.path() + " in advance due to " + e));
+                    continue;
+                }
+                if (!wasBuilt) {
+                    built++;
+                }
+            }
+            int fBuilt = built;
+            d(() -> new StringMessage("Prewarmed " + fBuilt + " categories in " + (System.nanoTime() - start) / 1_000_000 + "ms"));
+            future.complete(built);
+        };
+        if (!dispatch(r)) {
+            future.completeExceptionally(new RejectedExecutionException("The executor rejected prewarming"));
+        }
+        return future;
     }
 
     /**
@@ -283,126 +542,265 @@ public class Edict {
 
     /**
      * Run a command through the system.
+     * If running it fails unexpectedly (like when a category of a {@link #isLazy() lazy} tree cannot be built), the user is told so.
      * @param command the command to run
      * @param user the user that ran the command
      * @param forceSync force the execution of this command in sync (testing)
      */
     final public void command(@NotNull String command, @NotNull User user, boolean forceSync) {
-        i(new StringMessage(user.name() + " sent command: " +  command));
-        Runnable r = () -> {
-
-            final String fCommand = ParameterParser.cleanCommand(command.strip());
+        i(() -> new StringMessage(user.name() + " sent command: " +  command));
+        Runnable r = inContext(user, () -> {
+            CommandEvent event = CommandEvent.start();
+            List<Token> input = List.of();
+            String outcome = "failed";
+            try {
+                long start = metrics.start();
+                input = List.of(Tokenizer.tokenize(command));
+                metrics.stop(Stage.TOKENIZE, null, start);
+                outcome = run(command, input, user);
+            } catch (RuntimeException e) {
+                // E.g. a category of a lazy tree that cannot be built, because a handler of one of its commands is not registered
+                w(new StringMessage("Could not run command " + command + " for " + user.name() + " due to " + e));
+                user.send(new StringMessage("Something went wrong while running your command. Please contact an administrator."));
+            } finally {
+                event.finish(user, command, input.size(), outcome);
+            }
+        });
 
-            i(new StringMessage(user.name() + " sent command: " + fCommand));
+        if (forceSync) {
+            d(() -> new StringMessage("Running command in forced sync. Likely for testing purposes."));
+            r.run();
+        } else if (!dispatch(r)) {
+            user.send(new StringMessage("The command system is busy. Please try again in a moment."));
+        }
+    }
 
-            List<String> input = List.of(fCommand.split(" "));
 
-            // Blank check
-            if (input.isEmpty()) {
-                for (VCommandable root : rootCommands) {
-                    user.send(root.getHelpFor(user));
-                }
-                return;
+    /**
+     * Run tokenized command input.
+     * @param command the command to run
+     * @param input the input tokens of the command
+     * @param user the user that ran the command
+     * @return the outcome, for the {@link CommandEvent}
+     */
+    private @NotNull String run(@NotNull String command, @NotNull List<Token> input, @NotNull User user) {
+        d(() -> new StringMessage(user.name() + " sent command (cleaned): " + cleaned(input)));
+        Roots current = registered.get();
+
+        // Blank check
+        if (input.isEmpty()) {
+            for (VCommandable root : current.commands()) {
+                user.send(root.getHelpFor(user));
             }
+            return "help";
+        }
 
-            d(new StringMessage("Running command: " + fCommand));
+        d(() -> new StringMessage("Running command: " + cleaned(input)));
 
-            // Loop over roots
-            new UserContext().post(user);
-            new SystemContext().post(this);
+        // Future
+        CompletableFuture<String> future = completableCommandsRegistry.getCompletableFor(user);
+        if (future != null) {
+            d(() -> new StringMessage(user.name() + " completed command with " + cleaned(input)));
+            future.complete(command);
+            return "picked option";
+        }
 
-            // Future
-            CompletableFuture<String> future = completableCommandsRegistry.getCompletableFor(user);
-            if (future != null) {
-                d(new StringMessage(user.name() + " completed command with " + String.join(" ", input)));
-                future.complete(command);
-                return;
+        long start = metrics.start();
+        SearchEvent search = SearchEvent.start();
+        List<VCommandable> roots = searchPermitted(current.indexer(), input.get(0).text(), user);
+        search.finish(null, input.get(0).text(), roots.size());
+        metrics.stop(Stage.ROOT_SEARCH, null, start);
+        for (VCommandable root : roots) {
+            d(() -> new StringMessage("Running root: " + root.name()));
+            if (root.run(input.subList(1, input.size()), user)) {
+                return "handled";
             }
+        }
 
-            for (VCommandable root : indexer.search(input.get(0), getSettings().matchThreshold, (vCommandable -> user.hasPermission(vCommandable.permission())))) {
-                d(new StringMessage("Running root: " + root.name()));
-                if (root.run(input.subList(1, input.size()), user)) {
-                    return;
-                }
-            }
+        d(() -> new StringMessage("Could not find suitable command for input: " + cleaned(input)));
+        metrics.increment(Counter.NOT_FOUND, null);
+        user.send(new StringMessage("Failed to run any commands for your input. Please try (one of): " + String.join(", ", current.commands().stream().map(VCommandable::name).toList())));
+        return "not found";
+    }
 
-            d(new StringMessage("Could not find suitable command for input: " + fCommand));
-            user.send(new StringMessage("Failed to run any commands for your input. Please try (one of): " + String.join(", ", rootCommands.stream().map(VCommandable::name).toList())));
+    /**
+     * Join tokenized command input back into a cleaned command, for debug messages.
+     * @param input the input tokens of the command
+     * @return the cleaned command
+     */
+    private static @NotNull String cleaned(@NotNull List<Token> input) {
+        return String.join(" ", input.stream().map(Token::text).toList());
+    }
 
-        };
+    /**
+     * Get suggestions for a command.<br>
+     * A newer request of the same user cancels this one: it then stops as soon as it can, and never calls the {@code suggestionOutput}.
+     * If getting the suggestions fails unexpectedly (like when a category of a {@link #isLazy() lazy} tree cannot be built), the output is {@code <error>}.
+     * @param command the input to get suggestions for
+     * @param user the user that wants the suggestions
+     * @param suggestionOutput the consumer to send the output to when it is done
+     * @param forceSync force the execution of suggestion retrieval in sync (testing)
+     * @return the handle of the request, which can be used to cancel it
+     */
+    final public @NotNull SuggestionRequest suggest(@NotNull String command, @NotNull User user, @NotNull Consumer<List<String>> suggestionOutput, boolean forceSync) {
+        d(() -> new StringMessage(user.name() + " wants suggestions for command: " +  command));
+        SuggestionRequest request = new SuggestionRequest();
+        // The same session tracks the request and resolves it, even if the user's session is replaced meanwhile
+        SuggestionSession session = suggestionSessions.get(user);
+        session.supersede(request);
+        Runnable r = inContext(user, () -> {
+            SuggestEvent event = SuggestEvent.start();
+            List<Token> input = List.of(Tokenizer.tokenize(command, true));
+            try (Context.Scope ignored = SuggestionContext.INSTANCE.bind(request)) {
+                SuggestionRequest.checkCurrent();
+                List<String> suggestions = suggestions(input, user, session);
+                if (request.complete()) {
+                    suggestionOutput.accept(suggestions);
+                    event.finish(user, command, input.size(), suggestions.size(), "done");
+                } else {
+                    event.finish(user, command, input.size(), 0, "cancelled");
+                }
+            } catch (CancellationException e) {
+                d(() -> new StringMessage("Cancelled suggestions for " + user.name() + ": " + command));
+                event.finish(user, command, input.size(), 0, "cancelled");
+            } catch (RuntimeException e) {
+                w(new StringMessage("Could not suggest for " + user.name() + ": " + command + " due to " + e));
+                if (request.complete()) {
+                    suggestionOutput.accept(Collections.singletonList("<error>"));
+                }
+                event.finish(user, command, input.size(), 0, "failed");
+            }
+        });
 
         if (forceSync) {
-            d(new StringMessage("Running command in forced sync. Likely for testing purposes."));
+            d(() -> new StringMessage("Running suggestion in forced sync. Likely for testing purposes."));
             r.run();
-        } else {
-            new Thread(r).start();
+        } else if (!dispatch(r) && request.complete()) {
+            suggestionOutput.accept(Collections.singletonList("<busy>"));
         }
+        return request;
     }
 
-
     /**
-     * Get suggestions for a command.
-     * @param command the input to get suggestions for
+     * Compute suggestions for a command.
+     * @param input the input tokens to get suggestions for
      * @param user the user that wants the suggestions
-     * @param suggestionOutput the consumer to send the output to when it is done
-     * @param forceSync force the execution of suggestion retrieval in sync (testing)
+     * @param session the suggestion session of the user, which tracks the current {@link SuggestionRequest}
+     * @return the suggestions
+     * @throws CancellationException if the current {@link SuggestionRequest} is cancelled
      */
-    final public void suggest(@NotNull String command, @NotNull User user, @NotNull Consumer<List<String>> suggestionOutput, boolean forceSync) {
-        i(new StringMessage(user.name() + " wants suggestions for command: " +  command));
-        Runnable r = () -> {
+    private @NotNull List<String> suggestions(@NotNull List<Token> input, @NotNull User user, @NotNull SuggestionSession session) throws CancellationException {
+        Roots current = registered.get();
+
+        // Blank check
+        if (input.isEmpty()) {
+            Suggestions suggestions = new Suggestions("", getSettings().suggestionLimit);
+            for (VCommandable root : current.commands()) {
+                suggestions.add(root.name());
+                suggestions.addAll(root.getAliases());
+            }
+            return suggestions.toList();
+        }
 
-            final String fCommand = ParameterParser.cleanCommand(command);
+        d(() -> new StringMessage("Suggesting for command: " + String.join(" ", input.stream().map(Token::text).toList())));
 
-            List<String> input = List.of(fCommand.split(" "));
+        // Resolve all but the last word, reusing what the user's previous input resolved
+        List<SuggestionSession.Step> steps = session.resolve(
+                input,
+                current.indexer(),
+                text -> current.indexer().search(text, getSettings().matchThreshold, (vCommandable -> hasPermission(user, vCommandable))),
+                user,
+                permissionCache
+        );
 
-            // Blank check
-            if (input.isEmpty()) {
-                List<String> primarySuggestions = new ArrayList<>();
-                List<String> secondarySuggestions = new ArrayList<>();
-                for (VCommandable root : rootCommands) {
-                    primarySuggestions.add(root.name());
-                    secondarySuggestions.addAll(root.getAliases());
-                }
-                primarySuggestions.addAll(secondarySuggestions);
-                suggestionOutput.accept(primarySuggestions);
-                return;
-            }
+        if (steps.isEmpty()) {
+            return Collections.singletonList("<invalid>");
+        }
 
-            d(new StringMessage("Suggesting for command: " + fCommand));
+        // Loop over the resolved commandables
+        Suggestions suggestions = new Suggestions(input.get(input.size() - 1).value(), getSettings().suggestionLimit);
+        for (SuggestionSession.Step step : steps) {
+            SuggestionRequest.checkCurrent();
+            d(() -> new StringMessage("Running suggestions: " + step.commandable().name()));
+            suggestions.addAll(step.commandable().suggest(input.subList(step.consumed(), input.size()), user, getSettings().suggestionLimit));
+        }
 
-            // Loop over roots
-            new UserContext().post(user);
-            new SystemContext().post(this);
+        if (suggestions.isEmpty()) {
+            return Collections.singletonList("<none>");
+        }
 
-            List<String> suggestions = new ArrayList<>();
-            List<VCommandable> roots = indexer.search(input.get(0), getSettings().matchThreshold, (vCommandable -> user.hasPermission(vCommandable.permission())));
+        return suggestions.toList();
+    }
 
-            if (roots.isEmpty()) {
-                suggestionOutput.accept(Collections.singletonList("<invalid>"));
-                return;
-            }
 
-            for (VCommandable root : roots) {
-                d(new StringMessage("Running root suggestions: " + ((VClass) root).instance().getClass().getSimpleName()));
-                suggestions.addAll(root.suggest(input.subList(1, input.size()), user));
+    /**
+     * Wrap a runnable so it runs with the user and this system bound to the {@link UserContext} and {@link SystemContext}.
+     * @param user the user
+     * @param runnable the runnable to wrap
+     * @return the wrapped runnable
+     */
+    private @NotNull Runnable inContext(@NotNull User user, @NotNull Runnable runnable) {
+        return () -> {
+            try (Context.Scope ignoredUser = UserContext.INSTANCE.bind(user); Context.Scope ignoredSystem = SystemContext.INSTANCE.bind(this)) {
+                runnable.run();
             }
+        };
+    }
 
-            if (suggestions.isEmpty()) {
-                suggestionOutput.accept(Collections.singletonList("<none>"));
-                return;
-            }
+    /**
+     * Hand a runnable to the {@link #executor}.
+     * @param runnable the runnable to run
+     * @return false if the executor is saturated and rejected the runnable
+     */
+    private boolean dispatch(@NotNull Runnable runnable) {
+        try {
+            executor.execute(runnable);
+            return true;
+        } catch (RejectedExecutionException e) {
+            w(new StringMessage("Executor rejected a task because it is saturated: " + e.getMessage()));
+            return false;
+        }
+    }
 
-            suggestionOutput.accept(suggestions);
-        };
+    /**
+     * Search the commandables of an indexer the user has permission to run, and count a denial in the {@link #metrics}
+     * if the input matched commandables but the user has permission for none of them.
+     * @param indexer the indexer to search
+     * @param key the input to search for
+     * @param user the user
+     * @return the best matching commandables the user has permission to run
+     */
+    final public @NotNull List<VCommandable> searchPermitted(@NotNull BKTreeIndexer indexer, @NotNull String key, @NotNull User user) {
+        if (!metrics.enabled()) {
+            return indexer.search(key, getSettings().matchThreshold, vCommandable -> hasPermission(user, vCommandable));
+        }
 
-        if (forceSync) {
-            d(new StringMessage("Running suggestion in forced sync. Likely for testing purposes."));
-            r.run();
-        } else {
-            new Thread(r).start();
+        // Remember a denied match while searching, so the search is not repeated to find one
+        VCommandable[] denied = new VCommandable[1];
+        List<VCommandable> permitted = indexer.search(key, getSettings().matchThreshold, vCommandable -> {
+            if (hasPermission(user, vCommandable)) {
+                return true;
+            }
+            if (denied[0] == null) {
+                denied[0] = vCommandable;
+            }
+            return false;
+        });
+        if (permitted.isEmpty() && denied[0] != null) {
+            metrics.increment(Counter.PERMISSION_DENIED, denied[0]);
         }
+        return permitted;
     }
 
+    /**
+     * Check whether a user has permission to run a commandable, through the {@link PermissionCache}.
+     * @param user the user
+     * @param commandable the commandable
+     * @return true if the user has permission
+     */
+    final public boolean hasPermission(@NotNull User user, @NotNull VCommandable commandable) {
+        return permissionCache.check(user, commandable.permission());
+    }
 
     /**
      * Make a {@link Permission} node.
@@ -417,21 +815,72 @@ public class Edict {
      * Send an information message to the system.
      */
     final public void i(Message message) {
-        systemUser.i(message);
+        BuildLog log = BuildLog.current();
+        if (log == null) {
+            systemUser.i(message);
+        } else if (systemUser.isEnabled(SystemUser.Level.INFO)) {
+            log.add(SystemUser.Level.INFO, message);
+        }
+    }
+
+    /**
+     * Send an information message to the system. The message is only built if the {@link SystemUser} sends info messages.
+     */
+    final public void i(Supplier<Message> message) {
+        BuildLog log = BuildLog.current();
+        if (log == null) {
+            systemUser.i(message);
+        } else if (systemUser.isEnabled(SystemUser.Level.INFO)) {
+            log.add(SystemUser.Level.INFO, message.get());
+        }
     }
 
     /**
      * Send a warning message to the system.
      */
     final public void w(Message message) {
-        systemUser.w(message);
+        BuildLog log = BuildLog.current();
+        if (log == null) {
+            systemUser.w(message);
+        } else if (systemUser.isEnabled(SystemUser.Level.WARNING)) {
+            log.add(SystemUser.Level.WARNING, message);
+        }
+    }
+
+    /**
+     * Send a warning message to the system. The message is only built if the {@link SystemUser} sends warnings.
+     */
+    final public void w(Supplier<Message> message) {
+        BuildLog log = BuildLog.current();
+        if (log == null) {
+            systemUser.w(message);
+        } else if (systemUser.isEnabled(SystemUser.Level.WARNING)) {
+            log.add(SystemUser.Level.WARNING, message.get());
+        }
     }
 
     /**
      * Send a debug message to the system.
      */
     final public void d(Message message) {
-        systemUser.d(message);
+        BuildLog log = BuildLog.current();
+        if (log == null) {
+            systemUser.d(message);
+        } else if (systemUser.isEnabled(SystemUser.Level.DEBUG)) {
+            log.add(SystemUser.Level.DEBUG, message);
+        }
+    }
+
+    /**
+     * Send a debug message to the system. The message is only built if the {@link SystemUser} sends debug messages.
+     */
+    final public void d(Supplier<Message> message) {
+        BuildLog log = BuildLog.current();
+        if (log == null) {
+            systemUser.d(message);
+        } else if (systemUser.isEnabled(SystemUser.Level.DEBUG)) {
+            log.add(SystemUser.Level.DEBUG, message.get());
+        }
     }
 
     /**
@@ -458,6 +907,14 @@ public class Edict {
         return contextHandlers;
     }
 
+    /**
+     * Get the {@link Executor} that runs commands, suggestions and command continuations.
+     * @return the {@link Executor}
+     */
+    final public Executor getExecutor() {
+        return executor;
+    }
+
     /**
      * Get the {@link CompletableCommandsRegistry}.
      * @return the {@link CompletableCommandsRegistry}
@@ -466,6 +923,39 @@ public class Edict {
         return completableCommandsRegistry;
     }
 
+    /**
+     * Whether categories build their children when first used, instead of all at construction.
+     * @return true if the command tree is built lazily
+     */
+    final public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Get the {@link Metrics} of the command pipeline.
+     * @return the {@link Metrics}
+     */
+    final public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get the {@link PermissionCache}. Bump its epochs when permissions change.
+     * Decisions are only cached if {@link EDictionary#permissionCacheSize} is above 0, but suggestion sessions are invalidated by the epochs either way.
+     * @return the {@link PermissionCache}
+     */
+    final public PermissionCache getPermissionCache() {
+        return permissionCache;
+    }
+
+    /**
+     * Get the {@link SuggestionSessions}.
+     * @return the {@link SuggestionSessions}
+     */
+    final public SuggestionSessions getSuggestionSessions() {
+        return suggestionSessions;
+    }
+
     /**
      * Run a runnable in sync, using the {@link #syncRunner}.
      * @param runnable the runnable to run
@@ -480,6 +970,7 @@ public class Edict {
      */
     final public @NotNull String networkString() {
         StringBuilder builder = new StringBuilder();
+        List<VCommandable> rootCommands = registered.get().commands();
         int rootCats = 0;
         int rootComs = 0;
         for (VCommandable rootCommand : rootCommands) {
@@ -497,4 +988,66 @@ public class Edict {
         }
         return builder.toString();
     }
+
+    /**
+     * Registered roots and their index. Never modified: (un)registering makes a new one, so readers need no locks.
+     * @param instances the root instances, in registration order
+     * @param commands the roots built from the instances, in the same order
+     * @param indexer the index of the roots
+     */
+    private record Roots(@NotNull List<Object> instances, @NotNull List<VCommandable> commands, @NotNull BKTreeIndexer indexer) {
+
+        /**
+         * Make the roots and their index.
+         * @param instances the root instances
+         * @param commands the roots built from the instances
+         * @return the roots
+         */
+        static @NotNull Roots of(@NotNull List<Object> instances, @NotNull List<VCommandable> commands) {
+            BKTreeIndexer indexer = new BKTreeIndexer();
+            indexer.addAll(commands);
+            return new Roots(List.copyOf(instances), List.copyOf(commands), indexer);
+        }
+
+        /**
+         * Get the index of a root instance.
+         * @param instance the instance
+         * @return the index, or {@code -1} if it is not registered
+         */
+        int indexOf(@NotNull Object instance) {
+            for (int i = 0; i < instances.size(); i++) {
+                if (instances.get(i) == instance) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Make new roots, with one more.
+         * @param instance the root instance
+         * @param command the root built from it
+         * @return the new roots
+         */
+        @NotNull Roots with(@NotNull Object instance, @NotNull VCommandable command) {
+            List<Object> newInstances = new ArrayList<>(instances);
+            List<VCommandable> newCommands = new ArrayList<>(commands);
+            newInstances.add(instance);
+            newCommands.add(command);
+            return of(newInstances, newCommands);
+        }
+
+        /**
+         * Make new roots, without one.
+         * @param index the index of the root to leave out
+         * @return the new roots
+         */
+        @NotNull Roots without(int index) {
+            List<Object> newInstances = new ArrayList<>(instances);
+            List<VCommandable> newCommands = new ArrayList<>(commands);
+            newInstances.remove(index);
+            newCommands.remove(index);
+            return of(newInstances, newCommands);
+        }
+    }
 }
@@ -15,7 +15,7 @@ public interface Edicted {
      * @return the user
      */
     default User user() {
-        return new UserContext().get();
+        return UserContext.INSTANCE.get();
     }
 
     /**
@@ -23,7 +23,7 @@ public interface Edicted {
      * @return the system
      */
     default Edict system() {
-        return new SystemContext().get();
+        return SystemContext.INSTANCE.get();
     }
 
 }
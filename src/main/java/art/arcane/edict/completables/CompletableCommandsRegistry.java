@@ -1,27 +1,97 @@
 package art.arcane.edict.completables;
 
 import art.arcane.edict.user.User;
+import art.arcane.edict.util.EdictExecutors;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Registry for commands that need to be completed.
+ * Registry for commands that need to be completed.<br>
+ * Completable commands are kept per {@link User#id() user id}, and are removed as soon as they complete or expire.
  */
 public class CompletableCommandsRegistry {
 
     /**
-     * The list of completable commands registered.
+     * Time to live of completable commands registered without one.
      */
-    private final ConcurrentHashMap<User, CompletableFuture<String>> commands = new ConcurrentHashMap<>();
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(60);
 
     /**
-     * Register a new completable command. Adding a new completable command for the same user overwrites any existing completable command.
+     * The list of completable commands registered, by user id.
+     */
+    private final ConcurrentHashMap<Object, CompletableFuture<String>> commands = new ConcurrentHashMap<>();
+
+    /**
+     * The timer that expires completable commands.
+     */
+    private final @NotNull ScheduledExecutorService timer;
+
+    /**
+     * Number of completable commands registered, completed with input, and expired.
+     */
+    private final LongAdder registered = new LongAdder(), completed = new LongAdder(), expired = new LongAdder();
+
+    /**
+     * Create a new registry, expiring commands on the shared {@link EdictExecutors#timer() timer}.
+     */
+    public CompletableCommandsRegistry() {
+        this(EdictExecutors.timer());
+    }
+
+    /**
+     * Create a new registry.
+     * @param timer the timer that expires completable commands
+     */
+    public CompletableCommandsRegistry(@NotNull ScheduledExecutorService timer) {
+        this.timer = timer;
+    }
+
+    /**
+     * Register a new completable command, which expires after the {@link #DEFAULT_TTL}.
+     * @param user the user that must complete the command
      * @param command the completable command to register
+     * @see #register(User, CompletableFuture, Duration)
      */
     public void register(@NotNull User user, @NotNull CompletableFuture<String> command) {
-        commands.put(user, command);
+        register(user, command, DEFAULT_TTL);
+    }
+
+    /**
+     * Register a new completable command. Adding a new completable command for the same user overwrites any existing completable command,
+     * which is then {@link CompletableFuture#cancel(boolean) cancelled}.<br>
+     * The completable command is removed once it completes, be it with the user's input or exceptionally.
+     * If it is not completed within the {@code ttl}, it is completed exceptionally with a {@link TimeoutException}.
+     * @param user the user that must complete the command
+     * @param command the completable command to register
+     * @param ttl the time the user has to complete the command
+     */
+    public void register(@NotNull User user, @NotNull CompletableFuture<String> command, @NotNull Duration ttl) {
+        Object id = user.id();
+        CompletableFuture<String> previous = commands.put(id, command);
+        registered.increment();
+        if (previous != null && previous != command) {
+            // Superseded, so whoever waits on it stops instead of expiring later and registering again
+            previous.cancel(false);
+        }
+        ScheduledFuture<?> expiry = timer.schedule(() -> {
+            // Clean up before completing, so anything waiting on the command sees the registry without it
+            commands.remove(id, command);
+            expired.increment();
+            if (!command.completeExceptionally(new TimeoutException("Completable command expired after " + ttl))) {
+                expired.decrement();
+            }
+        }, ttl.toMillis(), TimeUnit.MILLISECONDS);
+        command.whenComplete((input, throwable) -> {
+            expiry.cancel(false);
+            commands.remove(id, command);
+            if (throwable == null) {
+                completed.increment();
+            }
+        });
     }
 
     /**
@@ -29,7 +99,39 @@ public class CompletableCommandsRegistry {
      * @param user the user to get the completable command for
      * @return the requested completable command or {@code null} if there is no completable command registered for the specified {@code user}
      */
-    public CompletableFuture<String> getCompletableFor(User user) throws NullPointerException {
-        return commands.get(user);
+    public @Nullable CompletableFuture<String> getCompletableFor(@NotNull User user) {
+        return commands.get(user.id());
+    }
+
+    /**
+     * Get the number of completable commands waiting to be completed.
+     * @return the number of outstanding completable commands
+     */
+    public int getOutstanding() {
+        return commands.size();
+    }
+
+    /**
+     * Get the number of completable commands registered since this registry was created.
+     * @return the number of registered completable commands
+     */
+    public long getRegistered() {
+        return registered.sum();
+    }
+
+    /**
+     * Get the number of completable commands completed with input since this registry was created.
+     * @return the number of completed completable commands
+     */
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * Get the number of completable commands that expired since this registry was created.
+     * @return the number of expired completable commands
+     */
+    public long getExpired() {
+        return expired.sum();
     }
 }
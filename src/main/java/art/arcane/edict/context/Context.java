@@ -3,52 +3,72 @@ package art.arcane.edict.context;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
- * Context handler. Stores global state for threads to be able to find some context {@link Object}.
- * It is indexed by Thread, so after the {@link #post(Object)} has been called, only this thread can access it in the context.
+ * Context handler. Stores state for the running thread to be able to find some context {@link Object}.
+ * It is thread-local, so after {@link #post(Object)} or {@link #bind(Object)} has been called, only this thread can access it in the context.
+ * Nothing is kept for other (or dead) threads, so there is nothing to clean up, and it works the same on pooled and virtual threads.
  * @param <T> the type of the context
  */
 public interface Context<T> {
 
     /**
-     * The context map. Don't use this for anything else. Use {@link #post(Object)} to add objects.
-     * @return the concurrent hash map for this context
+     * The context carrier. Don't use this for anything else. Use {@link #post(Object)} or {@link #bind(Object)} to add objects.
+     * @return the thread-local carrier for this context
      */
-    ConcurrentHashMap<@NotNull Thread, @Nullable T> context();
+    @NotNull ThreadLocal<@Nullable T> context();
 
     /**
-     * Post a new element to this global context map.
+     * Post a new element to this context, for the current thread, until it is {@link #delete() deleted}.
+     * Prefer {@link #bind(Object)} on threads that are reused (like pooled threads).
      * @param element the element to post to this context
      */
     default void post(@NotNull T element) {
-        clean();
-        context().put(Thread.currentThread(), element);
+        context().set(element);
     }
 
     /**
-     * Remove dead threads from the context map.
+     * Bind an element to this context, for the current thread, until the returned scope is closed.
+     * Closing the scope restores the element that was in the context before.
+     * @param element the element to bind to this context
+     * @return the scope, to be closed (try-with-resources) when the element is out of scope
      */
-    default void clean() {
-        context().keys().asIterator().forEachRemaining(thread -> {
-            if (!thread.isAlive()) {
-                context().remove(thread);
+    default @NotNull Scope bind(@NotNull T element) {
+        ThreadLocal<T> context = context();
+        T previous = context.get();
+        context.set(element);
+        return () -> {
+            if (previous == null) {
+                context.remove();
+            } else {
+                context.set(previous);
             }
-        });
+        };
     }
 
     /**
      * Get the element from the context.
      */
     default @Nullable T get() {
-        return context().get(Thread.currentThread());
+        return context().get();
     }
 
     /**
      * Delete the current context.
      */
     default void delete() {
-        context().remove(Thread.currentThread());
+        context().remove();
+    }
+
+    /**
+     * Scope of an element bound to a context. See {@link #bind(Object)}.
+     */
+    @FunctionalInterface
+    interface Scope extends AutoCloseable {
+
+        /**
+         * Remove the element from the context, restoring the previous element.
+         */
+        @Override
+        void close();
     }
 }
@@ -0,0 +1,24 @@
+package art.arcane.edict.context;
+
+import art.arcane.edict.suggestion.SuggestionRequest;
+
+/**
+ * Context for the {@link SuggestionRequest} being handled.
+ */
+public class SuggestionContext implements Context<SuggestionRequest> {
+
+    /**
+     * Shared instance. All instances use the same context carrier.
+     */
+    public static final SuggestionContext INSTANCE = new SuggestionContext();
+
+    /**
+     * Context carrier.
+     */
+    private static final ThreadLocal<SuggestionRequest> context = new ThreadLocal<>();
+
+    @Override
+    public ThreadLocal<SuggestionRequest> context() {
+        return context;
+    }
+}
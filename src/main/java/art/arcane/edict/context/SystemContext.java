@@ -2,20 +2,23 @@ package art.arcane.edict.context;
 
 import art.arcane.edict.Edict;
 
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
  * Context for {@link Edict}s.
  */
 public class SystemContext implements Context<Edict> {
 
     /**
-     * Context map.
+     * Shared instance. All instances use the same context carrier.
+     */
+    public static final SystemContext INSTANCE = new SystemContext();
+
+    /**
+     * Context carrier.
      */
-    private static final ConcurrentHashMap<Thread, Edict> context = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Edict> context = new ThreadLocal<>();
 
     @Override
-    public ConcurrentHashMap<Thread, Edict> context() {
+    public ThreadLocal<Edict> context() {
         return context;
     }
 }
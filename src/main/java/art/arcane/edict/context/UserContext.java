@@ -2,20 +2,23 @@ package art.arcane.edict.context;
 
 import art.arcane.edict.user.User;
 
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
  * Context for {@link User}s.
  */
 public class UserContext implements Context<User> {
 
     /**
-     * Context map.
+     * Shared instance. All instances use the same context carrier.
+     */
+    public static final UserContext INSTANCE = new UserContext();
+
+    /**
+     * Context carrier.
      */
-    private static final ConcurrentHashMap<Thread, User> context = new ConcurrentHashMap<>();
+    private static final ThreadLocal<User> context = new ThreadLocal<>();
 
     @Override
-    public ConcurrentHashMap<Thread, User> context() {
+    public ThreadLocal<User> context() {
         return context;
     }
 }
@@ -0,0 +1,38 @@
+package art.arcane.edict.descriptor;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Descriptor of a {@link art.arcane.edict.api.Command @Command} class, generated at compile time by the {@link art.arcane.edict.processor.CommandProcessor}.<br>
+ * Lists the commands and subcategories of the class, so building the command tree does not have to scan the class,
+ * and invokes commands and reads subcategory fields directly instead of through reflection where the class allows it.
+ * @param <T> the command class
+ */
+public interface CommandDescriptor<T> {
+
+    /**
+     * Suffix of the name of generated descriptors.
+     * The descriptor of {@code com.example.Outer.Inner} is {@code com.example.Outer_Inner_EdictDescriptor}.
+     */
+    String SUFFIX = "_EdictDescriptor";
+
+    /**
+     * The command class.
+     * @return the command class
+     */
+    @NotNull Class<T> type();
+
+    /**
+     * The {@link art.arcane.edict.api.Command @Command} methods of the class, in declaration order.
+     * @return the command methods
+     */
+    @NotNull List<MethodDescriptor<T>> methods();
+
+    /**
+     * The fields of the class with a {@link art.arcane.edict.api.Command @Command} type, in declaration order.
+     * @return the subcategory fields
+     */
+    @NotNull List<FieldDescriptor<T>> fields();
+}
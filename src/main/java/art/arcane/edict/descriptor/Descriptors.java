@@ -0,0 +1,64 @@
+package art.arcane.edict.descriptor;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Finds the generated {@link CommandDescriptor}s of command classes. Every class is looked up once.
+ */
+public final class Descriptors {
+
+    /**
+     * Descriptor of each class, or {@code null} if it has none.
+     */
+    private static final ClassValue<CommandDescriptor<?>> DESCRIPTORS = new ClassValue<>() {
+        @Override
+        protected CommandDescriptor<?> computeValue(@NotNull Class<?> type) {
+            return load(type);
+        }
+    };
+
+    private Descriptors() {}
+
+    /**
+     * Get the generated descriptor of a command class.
+     * @param type the command class
+     * @param <T> the command class
+     * @return the descriptor, or {@code null} if none was generated for the class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> @Nullable CommandDescriptor<T> of(@NotNull Class<T> type) {
+        return (CommandDescriptor<T>) DESCRIPTORS.get(type);
+    }
+
+    /**
+     * Get the name of the descriptor generated for a command class.
+     * @param binaryName the binary name of the class (see {@link Class#getName()})
+     * @param packageName the package of the class
+     * @return the name of the descriptor
+     */
+    public static @NotNull String nameFor(@NotNull String binaryName, @NotNull String packageName) {
+        String simple = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        return (packageName.isEmpty() ? "" : packageName + ".") + simple.replace('$', '_') + CommandDescriptor.SUFFIX;
+    }
+
+    /**
+     * Load the descriptor of a command class.
+     * @param type the command class
+     * @return the descriptor, or {@code null} if there is none (or it cannot be loaded)
+     */
+    private static @Nullable CommandDescriptor<?> load(@NotNull Class<?> type) {
+        try {
+            Class<?> descriptor = Class.forName(nameFor(type.getName(), type.getPackageName()), true, type.getClassLoader());
+            if (!CommandDescriptor.class.isAssignableFrom(descriptor)) {
+                return null;
+            }
+            CommandDescriptor<?> instance = (CommandDescriptor<?>) descriptor.getDeclaredConstructor().newInstance();
+            return instance.type() == type ? instance : null;
+        } catch (ClassNotFoundException | LinkageError | NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            return null;
+        }
+    }
+}
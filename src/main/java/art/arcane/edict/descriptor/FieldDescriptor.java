@@ -0,0 +1,17 @@
+package art.arcane.edict.descriptor;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Descriptor of a field holding a subcategory: a field with a {@link art.arcane.edict.api.Command @Command} type.
+ * @param name the name of the field
+ * @param getter reads the field directly from an instance of the class, or {@code null} if the field is private and must be read reflectively
+ * @param constructor makes a new instance of the field type if the field is {@code null},
+ *                    or {@code null} if the type has no public constructor without parameters
+ * @param <T> the command class
+ */
+public record FieldDescriptor<T>(@NotNull String name, @Nullable Function<T, Object> getter, @Nullable Supplier<Object> constructor) {}
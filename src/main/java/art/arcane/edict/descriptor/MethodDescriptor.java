@@ -0,0 +1,17 @@
+package art.arcane.edict.descriptor;
+
+import art.arcane.edict.virtual.VInvoker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * Descriptor of a {@link art.arcane.edict.api.Command @Command} method.
+ * @param name the name of the method
+ * @param parameterTypes the (erased) parameter types of the method
+ * @param invoker makes an invoker calling the method directly on an instance of the class,
+ *                or {@code null} if the method is private and must be invoked through a {@link java.lang.invoke.MethodHandle}
+ * @param <T> the command class
+ */
+public record MethodDescriptor<T>(@NotNull String name, @NotNull Class<?> @NotNull [] parameterTypes, @Nullable Function<T, VInvoker> invoker) {}
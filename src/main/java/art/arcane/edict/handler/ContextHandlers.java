@@ -1,33 +1,25 @@
 package art.arcane.edict.handler;
 
-import java.util.ArrayList;
+import org.jetbrains.annotations.NotNull;
+
 import java.util.List;
 
 /**
  * Registry for type context handlers.
  */
-public class ContextHandlers extends ArrayList<ContextHandler<?>> {
+public class ContextHandlers extends HandlerRegistry<ContextHandler<?>> {
 
     /**
      * Initialize context handler with some handlers.
      * @param handlers the handlers
      */
     public ContextHandlers(ContextHandler<?>... handlers) {
+        super("ContextHandler");
         addAll(List.of(handlers));
     }
 
-    /**
-     * Get the handler for a certain type. No caching.
-     * @param type the type to get the handler for
-     * @return the requested handler
-     * @throws NullPointerException if no {@link ContextHandler} is registered for the {@code type}
-     */
-    public ContextHandler<?> getHandlerFor(Class<?> type) throws NullPointerException {
-        for (ContextHandler<?> handler : this) {
-            if (handler.supports(type)) {
-                return handler;
-            }
-        }
-        throw new NullPointerException("Cannot find ContextHandler for: " + type.getSimpleName());
+    @Override
+    protected boolean supports(@NotNull ContextHandler<?> handler, @NotNull Class<?> type) {
+        return handler.supports(type);
     }
 }
@@ -0,0 +1,139 @@
+package art.arcane.edict.handler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry for handlers of types. Lookups are cached per type, and the cache is dropped whenever the registry is modified.
+ * @param <H> the type of the handlers
+ */
+public abstract class HandlerRegistry<H> extends ArrayList<H> {
+
+    /**
+     * Primitive types mapped to their wrapper types and the other way around.
+     */
+    private static final Map<Class<?>, Class<?>> BOXING = Map.ofEntries(
+            Map.entry(boolean.class, Boolean.class), Map.entry(Boolean.class, boolean.class),
+            Map.entry(byte.class, Byte.class), Map.entry(Byte.class, byte.class),
+            Map.entry(char.class, Character.class), Map.entry(Character.class, char.class),
+            Map.entry(short.class, Short.class), Map.entry(Short.class, short.class),
+            Map.entry(int.class, Integer.class), Map.entry(Integer.class, int.class),
+            Map.entry(long.class, Long.class), Map.entry(Long.class, long.class),
+            Map.entry(float.class, Float.class), Map.entry(Float.class, float.class),
+            Map.entry(double.class, Double.class), Map.entry(Double.class, double.class)
+    );
+
+    /**
+     * Name of the handler type, for error messages.
+     */
+    private final @NotNull String handlerName;
+
+    /**
+     * Handlers found per type.
+     */
+    private final ConcurrentHashMap<Class<?>, H> cache = new ConcurrentHashMap<>();
+
+    /**
+     * The {@link #modCount} the {@link #cache} was built for.
+     */
+    private volatile int cachedModCount;
+
+    /**
+     * Create a new registry.
+     * @param handlerName name of the handler type, for error messages
+     */
+    protected HandlerRegistry(@NotNull String handlerName) {
+        this.handlerName = handlerName;
+    }
+
+    /**
+     * Whether a handler supports a type.
+     * @param handler the handler
+     * @param type the type
+     * @return true if the handler supports the type
+     */
+    protected abstract boolean supports(@NotNull H handler, @NotNull Class<?> type);
+
+    /**
+     * Get the handler for a certain type. The first registered handler that supports the type wins.
+     * If none does, the primitive or wrapper counterpart of the type is tried, and then its supertypes (nearest first).
+     * @param type the type to get the handler for
+     * @return the requested handler
+     * @throws NullPointerException if no handler is registered for the {@code type}
+     */
+    public @NotNull H getHandlerFor(@NotNull Class<?> type) throws NullPointerException {
+        if (cachedModCount != modCount) {
+            cache.clear();
+            cachedModCount = modCount;
+        }
+        H handler = cache.get(type);
+        if (handler == null) {
+            handler = resolve(type);
+            if (handler == null) {
+                throw new NullPointerException("Cannot find " + handlerName + " for: " + type.getSimpleName());
+            }
+            cache.put(type, handler);
+        }
+        return handler;
+    }
+
+    /**
+     * Find the handler for a type, without the cache.
+     * @param type the type
+     * @return the handler, or {@code null} if there is none
+     */
+    private @Nullable H resolve(@NotNull Class<?> type) {
+        H handler = firstSupporting(type);
+        if (handler != null) {
+            return handler;
+        }
+        Class<?> boxed = BOXING.get(type);
+        if (boxed != null && (handler = firstSupporting(boxed)) != null) {
+            return handler;
+        }
+
+        // Supertypes, breadth first
+        Set<Class<?>> seen = new HashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            Class<?> current = queue.poll();
+            if (current.getSuperclass() != null && seen.add(current.getSuperclass())) {
+                queue.add(current.getSuperclass());
+            }
+            for (Class<?> anInterface : current.getInterfaces()) {
+                if (seen.add(anInterface)) {
+                    queue.add(anInterface);
+                }
+            }
+            if (current != type && (handler = firstSupporting(current)) != null) {
+                return handler;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the first registered handler that supports a type.
+     * @param type the type
+     * @return the handler, or {@code null} if there is none
+     */
+    private @Nullable H firstSupporting(@NotNull Class<?> type) {
+        for (H handler : this) {
+            if (supports(handler, type)) {
+                return handler;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public H set(int index, H element) {
+        // Does not count as a structural modification for modCount
+        cache.clear();
+        return super.set(index, element);
+    }
+}
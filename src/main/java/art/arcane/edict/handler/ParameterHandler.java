@@ -7,6 +7,7 @@ import org.jetbrains.annotations.NotNull;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 /**
  * Parameter handler.
@@ -60,6 +61,18 @@ public interface ParameterHandler<T> {
         return parse(in, false, parameterName);
     }
 
+    /**
+     * Whether {@code @Param} default values may be parsed by this handler once, when the command tree is built,
+     * and the resulting value reused for every command run.<br>
+     * Off by default: the default is then parsed on every run, with the user's context.
+     * Only return true if parsing is thread-safe (trees may be built in parallel, see {@code buildParallelism} on the {@link art.arcane.edict.Edict} builder),
+     * needs no user context, and the parsed value is immutable and does not depend on time.
+     * @return true if parsed default values can be cached
+     */
+    default boolean cacheDefaults() {
+        return false;
+    }
+
     /**
      * Should return the possible values for this type
      *
@@ -68,7 +81,28 @@ public interface ParameterHandler<T> {
     List<T> getPossibilities();
 
     /**
-     * The possible entries for the inputted string (support for autocomplete on partial entries)
+     * The version of the {@link #getPossibilities() possibilities} of this handler.<br>
+     * Return a non-negative version, and change it whenever the possibilities change, to have {@link #getPossibilities(String)}
+     * filter a cached {@link PossibilityIndex} instead of every possibility. By default, possibilities are not versioned (-1) and never indexed.
+     * @return the version of the possibilities, or a negative number if they are not versioned
+     */
+    default long possibilitiesVersion() {
+        return -1;
+    }
+
+    /**
+     * The index of the {@link #getPossibilities() possibilities} of this handler.<br>
+     * By default, the {@link PossibilityIndex#of(ParameterHandler) cached} index for the current {@link #possibilitiesVersion() version}.
+     * Override this to expose an index the handler maintains itself.
+     * @return the index, or {@code null} if the possibilities are not indexed
+     */
+    default PossibilityIndex<T> possibilityIndex() {
+        return PossibilityIndex.of(this);
+    }
+
+    /**
+     * The possible entries for the inputted string (support for autocomplete on partial entries)<br>
+     * Uses the {@link #possibilityIndex() index} of the possibilities if there is one.
      *
      * @param input the inputted string to check against
      * @return a {@link List} of possibilities
@@ -79,6 +113,11 @@ public interface ParameterHandler<T> {
         }
 
         input = input.trim();
+        PossibilityIndex<T> index = possibilityIndex();
+        if (index != null) {
+            return index.matching(input);
+        }
+
         List<T> possible = getPossibilities();
         List<T> matches = new ArrayList<>();
 
@@ -110,6 +149,19 @@ public interface ParameterHandler<T> {
         return matches;
     }
 
+    /**
+     * Stream the possible entries for the inputted string, for suggestions.<br>
+     * By default, streams {@link #getPossibilities(String)}. Override this to produce possibilities lazily
+     * when there are many, as suggestions only keep the best few and stop consuming the stream when cancelled.
+     *
+     * @param input the inputted string to check against
+     * @return a {@link Stream} of possibilities. Empty if there are none
+     */
+    default @NotNull Stream<T> streamPossibilities(@NotNull String input) {
+        List<T> possibilities = getPossibilities(input);
+        return possibilities == null ? Stream.empty() : possibilities.stream();
+    }
+
     /**
      * Forces conversion to the designated type before converting to a string using {@link #toString(T t)}
      *
@@ -0,0 +1,317 @@
+package art.arcane.edict.handler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Index of the possibilities of a {@link ParameterHandler}, to filter them by partial input without converting
+ * and lowercasing every possibility on every keystroke.<br>
+ * Holds the normalized (trimmed, lowercase) string of every possibility, the distinct normalized strings in a sorted array,
+ * and a trigram index from every substring of three characters to the possibilities containing it.<br>
+ * An index is built for a {@link #getVersion() version} of the possibilities: handlers return a new version from
+ * {@link ParameterHandler#possibilitiesVersion()} whenever their possibilities change, which rebuilds the {@link #of(ParameterHandler) cached} index.
+ * @param <T> the type of the possibilities
+ */
+public class PossibilityIndex<T> {
+
+    /**
+     * Length of the substrings in the n-gram index.
+     */
+    private static final int GRAM = 3;
+
+    /**
+     * Cached index of each handler with versioned possibilities, by handler identity.
+     */
+    private static final Map<HandlerKey, PossibilityIndex<?>> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Queue of handlers that were garbage collected, to remove their indices from the {@link #CACHE}.
+     */
+    private static final ReferenceQueue<ParameterHandler<?>> COLLECTED = new ReferenceQueue<>();
+
+    /**
+     * The version of the possibilities this index was built for.
+     */
+    private final long version;
+
+    /**
+     * The possibilities, in the order of the handler.
+     */
+    private final @NotNull List<T> values;
+
+    /**
+     * The normalized string of each possibility, by position.
+     */
+    private final String @NotNull [] normalized;
+
+    /**
+     * The distinct normalized strings, sorted.
+     */
+    private final String @NotNull [] sorted;
+
+    /**
+     * The positions of the possibilities with each string in {@link #sorted}, in ascending order.
+     */
+    private final int @NotNull [] @NotNull [] sortedPositions;
+
+    /**
+     * The positions of the possibilities containing each trigram, in ascending order. Keyed by {@link #gram(String, int)}.
+     */
+    private final @NotNull Map<Long, int[]> grams;
+
+    /**
+     * The length of the longest normalized string.
+     */
+    private final int longest;
+
+    /**
+     * Create a new index.
+     * @param values the possibilities
+     * @param toString converts a possibility to a string (like {@link ParameterHandler#toString(Object)})
+     * @param version the version of the possibilities
+     */
+    public PossibilityIndex(@NotNull List<T> values, @NotNull Function<T, String> toString, long version) {
+        this.version = version;
+        this.values = new ArrayList<>(values);
+        this.normalized = new String[this.values.size()];
+
+        TreeMap<String, List<Integer>> byString = new TreeMap<>();
+        Map<Long, List<Integer>> byGram = new HashMap<>();
+        int longest = 0;
+        for (int i = 0; i < normalized.length; i++) {
+            String string = normalize(toString.apply(this.values.get(i)));
+            normalized[i] = string;
+            longest = Math.max(longest, string.length());
+            byString.computeIfAbsent(string, k -> new ArrayList<>()).add(i);
+            for (int start = 0; start + GRAM <= string.length(); start++) {
+                List<Integer> positions = byGram.computeIfAbsent(gram(string, start), k -> new ArrayList<>());
+                if (positions.isEmpty() || positions.get(positions.size() - 1) != i) {
+                    positions.add(i);
+                }
+            }
+        }
+        this.longest = longest;
+
+        this.sorted = byString.keySet().toArray(String[]::new);
+        this.sortedPositions = byString.values().stream().map(PossibilityIndex::toArray).toArray(int[][]::new);
+        this.grams = new HashMap<>(byGram.size() * 2);
+        byGram.forEach((gram, positions) -> grams.put(gram, toArray(positions)));
+    }
+
+    /**
+     * Get the cached index of a handler, building it if the handler's possibilities changed since.
+     * @param handler the handler
+     * @param <T> the type of the possibilities
+     * @return the index, or {@code null} if the handler's possibilities are not versioned
+     * (see {@link ParameterHandler#possibilitiesVersion()}) or if it has none
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> @Nullable PossibilityIndex<T> of(@NotNull ParameterHandler<T> handler) {
+        long version = handler.possibilitiesVersion();
+        if (version < 0) {
+            return null;
+        }
+        purge();
+        HandlerKey key = new HandlerKey(handler, null);
+        PossibilityIndex<T> index = (PossibilityIndex<T>) CACHE.get(key);
+        if (index != null && index.version == version) {
+            return index;
+        }
+        List<T> possibilities = handler.getPossibilities();
+        if (possibilities == null) {
+            CACHE.remove(key);
+            return null;
+        }
+        index = new PossibilityIndex<>(possibilities, handler::toString, version);
+        CACHE.put(new HandlerKey(handler, COLLECTED), index);
+        return index;
+    }
+
+    /**
+     * Get the possibilities matching an input: those equal to the input, containing it, or contained in it, ignoring case.
+     * @param input the input
+     * @return the matching possibilities, in the order of the handler
+     */
+    public @NotNull List<T> matching(@NotNull String input) {
+        String query = normalize(input);
+        BitSet matches = new BitSet(values.size());
+
+        // Possibilities containing the input (including those equal to it)
+        if (query.length() < GRAM) {
+            for (int i = 0; i < normalized.length; i++) {
+                if (normalized[i].contains(query)) {
+                    matches.set(i);
+                }
+            }
+        } else {
+            int[] candidates = candidates(query);
+            for (int candidate : candidates) {
+                if (normalized[candidate].contains(query)) {
+                    matches.set(candidate);
+                }
+            }
+        }
+
+        // Possibilities contained in the input, looked up by every substring of the input
+        for (int start = 0; start <= query.length(); start++) {
+            int end = Math.min(query.length(), start + longest);
+            for (int stop = start; stop <= end; stop++) {
+                int found = Arrays.binarySearch(sorted, query.substring(start, stop));
+                if (found >= 0) {
+                    for (int position : sortedPositions[found]) {
+                        matches.set(position);
+                    }
+                }
+            }
+        }
+
+        List<T> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(values.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Get the version of the possibilities this index was built for.
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the number of possibilities in this index.
+     * @return the number of possibilities
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Get the positions of the possibilities containing all trigrams of a query, by intersecting their posting lists.
+     * @param query the normalized query, at least {@link #GRAM} characters long
+     * @return the candidate positions, in ascending order
+     */
+    private int @NotNull [] candidates(@NotNull String query) {
+        List<int[]> lists = new ArrayList<>();
+        for (int start = 0; start + GRAM <= query.length(); start++) {
+            int[] positions = grams.get(gram(query, start));
+            if (positions == null) {
+                return new int[0];
+            }
+            lists.add(positions);
+        }
+        lists.sort(Comparator.comparingInt(positions -> positions.length));
+
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Intersect two ascending arrays of positions.
+     * @param a the first array
+     * @param b the second array
+     * @return the positions in both, in ascending order
+     */
+    private static int @NotNull [] intersect(int @NotNull [] a, int @NotNull [] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int size = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Pack the trigram of a string at a position into a key.
+     * @param string the string
+     * @param start the start of the trigram
+     * @return the key
+     */
+    private static long gram(@NotNull String string, int start) {
+        return (long) string.charAt(start) << 32 | (long) string.charAt(start + 1) << 16 | string.charAt(start + 2);
+    }
+
+    /**
+     * Normalize a string for matching.
+     * @param string the string
+     * @return the trimmed, lowercase string
+     */
+    private static @NotNull String normalize(@NotNull String string) {
+        return string.trim().toLowerCase();
+    }
+
+    /**
+     * Convert a list of positions to an array.
+     * @param positions the positions
+     * @return the array
+     */
+    private static int @NotNull [] toArray(@NotNull List<Integer> positions) {
+        return positions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Remove the indices of garbage collected handlers from the cache.
+     */
+    private static void purge() {
+        for (Object collected; (collected = COLLECTED.poll()) != null; ) {
+            CACHE.remove(collected);
+        }
+    }
+
+    /**
+     * Weak key of a handler in the {@link #CACHE}, by identity.
+     */
+    private static class HandlerKey extends WeakReference<ParameterHandler<?>> {
+
+        /**
+         * The identity hash of the handler, kept after it is collected.
+         */
+        private final int hash;
+
+        /**
+         * Create a new key.
+         * @param handler the handler
+         * @param queue the queue to enqueue the key on once the handler is collected, or {@code null} for lookups
+         */
+        private HandlerKey(@NotNull ParameterHandler<?> handler, @Nullable ReferenceQueue<ParameterHandler<?>> queue) {
+            super(handler, queue);
+            this.hash = System.identityHashCode(handler);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof HandlerKey key)) {
+                return false;
+            }
+            Object handler = get();
+            return handler != null && handler == key.get();
+        }
+    }
+}
@@ -37,6 +37,11 @@ public class BooleanHandler implements ParameterHandler<Boolean> {
 
     private static final List<String> defaults = List.of("true", "false", "other", "flip", "toggle");
 
+    @Override
+    public boolean cacheDefaults() {
+        return true;
+    }
+
     @Override
     public String getRandomDefault() {
         return defaults.get(randomInt(0, defaults.size()));
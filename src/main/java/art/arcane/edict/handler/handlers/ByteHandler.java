@@ -32,6 +32,11 @@ public class ByteHandler implements ParameterHandler<Byte> {
         return type.equals(Byte.class) || type.equals(byte.class);
     }
 
+    @Override
+    public boolean cacheDefaults() {
+        return true;
+    }
+
     @Override
     public String getRandomDefault() {
         return String.valueOf(randomInt(Byte.MIN_VALUE, Byte.MAX_VALUE));
@@ -34,6 +34,11 @@ public class DoubleHandler implements ParameterHandler<Double> {
         return f.toString();
     }
 
+    @Override
+    public boolean cacheDefaults() {
+        return true;
+    }
+
     @Override
     public String getRandomDefault() {
         return String.valueOf(randomDouble(0, 99.99));
@@ -35,6 +35,11 @@ public class FloatHandler implements ParameterHandler<Float> {
         return f.toString();
     }
 
+    @Override
+    public boolean cacheDefaults() {
+        return true;
+    }
+
     @Override
     public String getRandomDefault() {
         return String.valueOf(randomFloat(0, 99.99f));
@@ -35,6 +35,11 @@ public class LongHandler implements ParameterHandler<Long> {
         return f.toString();
     }
 
+    @Override
+    public boolean cacheDefaults() {
+        return true;
+    }
+
     @Override
     public String getRandomDefault() {
         return String.valueOf(randomInt(0, 99));
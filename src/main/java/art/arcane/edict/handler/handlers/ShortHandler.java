@@ -34,6 +34,11 @@ public class ShortHandler implements ParameterHandler<Short> {
         return f.toString();
     }
 
+    @Override
+    public boolean cacheDefaults() {
+        return true;
+    }
+
     @Override
     public String getRandomDefault() {
         return String.valueOf(randomInt(0, 99));
@@ -41,6 +41,11 @@ public class StringHandler implements ParameterHandler<String> {
             "yolo"
     );
 
+    @Override
+    public boolean cacheDefaults() {
+        return true;
+    }
+
     @Override
     public String getRandomDefault() {
         return defaults.get(randomInt(0, defaults.size()));
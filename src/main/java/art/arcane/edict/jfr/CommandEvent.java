@@ -0,0 +1,91 @@
+package art.arcane.edict.jfr;
+
+import art.arcane.edict.user.User;
+import art.arcane.edict.virtual.VCommandable;
+import jdk.jfr.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Flight recorder event covering a command from input to result, including its {@link SearchEvent}s, {@link ParseEvent} and {@link InvokeEvent}.
+ */
+@Name("art.arcane.edict.Command")
+@Label("Command")
+@Category("Edict")
+@Description("Dispatching a command, from input to result")
+@StackTrace(false)
+public class CommandEvent extends Event {
+
+    /**
+     * The event of the command being dispatched on this thread, if the event is enabled.
+     */
+    static final ThreadLocal<CommandEvent> CURRENT = new ThreadLocal<>();
+
+    @Label("User")
+    String user;
+
+    @Label("Input")
+    String input;
+
+    @Label("Command Path")
+    @Description("Path of the command that was run, if any")
+    String path;
+
+    @Label("Token Count")
+    int tokens;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * The command that runs, whose {@link #path} is only resolved once the event is committed. Not recorded itself.
+     */
+    transient VCommandable commandable;
+
+    /**
+     * Start the event of a command dispatched on this thread.
+     * @return the started event
+     */
+    public static @NotNull CommandEvent start() {
+        CommandEvent event = new CommandEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            CURRENT.set(event);
+        }
+        return event;
+    }
+
+    /**
+     * Set the command that runs for the command being dispatched on this thread, if any.
+     * @param commandable the command
+     */
+    public static void reached(@NotNull VCommandable commandable) {
+        CommandEvent event = CURRENT.get();
+        if (event != null) {
+            event.commandable = commandable;
+        }
+    }
+
+    /**
+     * End the event and commit it if it is recorded. Always releases the event of this thread, even if recording was disabled since it started.
+     * @param user the user that ran the command
+     * @param input the input
+     * @param tokens the number of input tokens
+     * @param outcome the outcome
+     */
+    public void finish(@NotNull User user, @NotNull String input, int tokens, @Nullable String outcome) {
+        CURRENT.remove();
+        if (!isEnabled()) {
+            return;
+        }
+        end();
+        if (shouldCommit()) {
+            this.user = user.name();
+            this.input = input;
+            this.tokens = tokens;
+            this.outcome = outcome;
+            this.path = commandable == null ? null : commandable.path();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package art.arcane.edict.jfr;
+
+import art.arcane.edict.user.User;
+import art.arcane.edict.virtual.VCommandable;
+import jdk.jfr.*;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flight recorder event for invoking a command method.
+ */
+@Name("art.arcane.edict.Invoke")
+@Label("Command Invocation")
+@Category("Edict")
+@Description("Invoking the method of a command")
+@StackTrace(false)
+public class InvokeEvent extends Event {
+
+    @Label("User")
+    String user;
+
+    @Label("Command Path")
+    String path;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Start an invoke event.
+     * @return the started event
+     */
+    public static @NotNull InvokeEvent start() {
+        InvokeEvent event = new InvokeEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the event and commit it if it is recorded.
+     * @param user the user that ran the command
+     * @param command the command
+     * @param outcome the outcome
+     */
+    public void finish(@NotNull User user, @NotNull VCommandable command, @NotNull String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.user = user.name();
+            this.path = command.path();
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package art.arcane.edict.jfr;
+
+import art.arcane.edict.user.User;
+import art.arcane.edict.virtual.VParam;
+import jdk.jfr.*;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flight recorder event for waiting on a user to pick an option for an ambiguous input.
+ */
+@Name("art.arcane.edict.OptionPick")
+@Label("Option Pick")
+@Category("Edict")
+@Description("Waiting for a user to pick an option for an ambiguous input")
+@StackTrace(false)
+public class OptionPickEvent extends Event {
+
+    @Label("User")
+    String user;
+
+    @Label("Command Path")
+    String path;
+
+    @Label("Parameter")
+    String parameter;
+
+    @Label("Options")
+    int options;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Start an option pick event.
+     * @return the started event
+     */
+    public static @NotNull OptionPickEvent start() {
+        OptionPickEvent event = new OptionPickEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the event and commit it if it is recorded.
+     * @param user the user picking
+     * @param param the parameter the option is for
+     * @param options the number of options
+     * @param outcome the outcome
+     */
+    public void finish(@NotNull User user, @NotNull VParam param, int options, @NotNull String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.user = user.name();
+            this.path = param.parent().path();
+            this.parameter = param.name();
+            this.options = options;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
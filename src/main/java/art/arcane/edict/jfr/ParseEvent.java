@@ -0,0 +1,57 @@
+package art.arcane.edict.jfr;
+
+import art.arcane.edict.user.User;
+import art.arcane.edict.virtual.VCommandable;
+import jdk.jfr.*;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flight recorder event for parsing the parameters of a command. Excludes the time the user takes to pick options, see {@link OptionPickEvent}.
+ */
+@Name("art.arcane.edict.Parse")
+@Label("Parameter Parsing")
+@Category("Edict")
+@Description("Binding and parsing the input tokens of a command to its parameters")
+@StackTrace(false)
+public class ParseEvent extends Event {
+
+    @Label("User")
+    String user;
+
+    @Label("Command Path")
+    String path;
+
+    @Label("Token Count")
+    int tokens;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Start a parse event.
+     * @return the started event
+     */
+    public static @NotNull ParseEvent start() {
+        ParseEvent event = new ParseEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the event and commit it if it is recorded.
+     * @param user the user that ran the command
+     * @param command the command
+     * @param tokens the number of input tokens
+     * @param outcome the outcome
+     */
+    public void finish(@NotNull User user, @NotNull VCommandable command, int tokens, @NotNull String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.user = user.name();
+            this.path = command.path();
+            this.tokens = tokens;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
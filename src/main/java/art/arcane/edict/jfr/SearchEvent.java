@@ -0,0 +1,53 @@
+package art.arcane.edict.jfr;
+
+import art.arcane.edict.virtual.VCommandable;
+import jdk.jfr.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Flight recorder event for a fuzzy search through the root commands or the children of a category.
+ */
+@Name("art.arcane.edict.Search")
+@Label("Command Search")
+@Category("Edict")
+@Description("Fuzzy search for the commands matching an input token")
+@StackTrace(false)
+public class SearchEvent extends Event {
+
+    @Label("Command Path")
+    @Description("Path of the category searched, empty for the root commands")
+    String path;
+
+    @Label("Key")
+    String key;
+
+    @Label("Matches")
+    int matches;
+
+    /**
+     * Start a search event.
+     * @return the started event
+     */
+    public static @NotNull SearchEvent start() {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the event and commit it if it is recorded.
+     * @param category the category searched, or {@code null} for the root commands
+     * @param key the key searched for
+     * @param matches the number of matches
+     */
+    public void finish(@Nullable VCommandable category, @NotNull String key, int matches) {
+        end();
+        if (shouldCommit()) {
+            this.path = category == null ? "" : category.path();
+            this.key = key;
+            this.matches = matches;
+            commit();
+        }
+    }
+}
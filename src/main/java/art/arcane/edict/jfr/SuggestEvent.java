@@ -0,0 +1,61 @@
+package art.arcane.edict.jfr;
+
+import art.arcane.edict.user.User;
+import jdk.jfr.*;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Flight recorder event for computing the suggestions for an input.
+ */
+@Name("art.arcane.edict.Suggest")
+@Label("Suggestion")
+@Category("Edict")
+@Description("Computing the suggestions for an input")
+@StackTrace(false)
+public class SuggestEvent extends Event {
+
+    @Label("User")
+    String user;
+
+    @Label("Input")
+    String input;
+
+    @Label("Token Count")
+    int tokens;
+
+    @Label("Suggestions")
+    int suggestions;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Start a suggest event.
+     * @return the started event
+     */
+    public static @NotNull SuggestEvent start() {
+        SuggestEvent event = new SuggestEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End the event and commit it if it is recorded.
+     * @param user the user that wants the suggestions
+     * @param input the input
+     * @param tokens the number of input tokens
+     * @param suggestions the number of suggestions
+     * @param outcome the outcome
+     */
+    public void finish(@NotNull User user, @NotNull String input, int tokens, int suggestions, @NotNull String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.user = user.name();
+            this.input = input;
+            this.tokens = tokens;
+            this.suggestions = suggestions;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package art.arcane.edict.metrics;
+
+/**
+ * Counted events of the command pipeline.
+ */
+public enum Counter {
+
+    /**
+     * No command matched the input.
+     */
+    NOT_FOUND,
+
+    /**
+     * Some parameters of the command did not get a value.
+     */
+    MISSING_PARAMETERS,
+
+    /**
+     * The command method threw.
+     */
+    INVOCATION_FAILED,
+
+    /**
+     * An input was ambiguous, and the user was asked to pick an option.
+     */
+    AMBIGUOUS_PICK,
+
+    /**
+     * A command matched the input, but the user did not have permission for it.
+     */
+    PERMISSION_DENIED
+}
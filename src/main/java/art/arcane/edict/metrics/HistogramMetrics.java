@@ -0,0 +1,129 @@
+package art.arcane.edict.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-memory {@link Metrics}, with a {@link Histogram} per stage and a count per event, for every command path.<br>
+ * Histograms are only created for stages that are recorded, so paths that are never run cost nothing.
+ */
+public class HistogramMetrics implements Metrics {
+
+    /**
+     * Measurements by command path.
+     */
+    private final Map<String, PathMetrics> paths = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean enabled() {
+        return true;
+    }
+
+    @Override
+    public void record(@NotNull Stage stage, @NotNull String path, long nanos) {
+        paths.computeIfAbsent(path, p -> new PathMetrics()).histogram(stage).record(nanos);
+    }
+
+    @Override
+    public void count(@NotNull Counter counter, @NotNull String path) {
+        paths.computeIfAbsent(path, p -> new PathMetrics()).counters.incrementAndGet(counter.ordinal());
+    }
+
+    /**
+     * Get the histogram of a stage.
+     * @param stage the stage
+     * @param path the command path
+     * @return the histogram, or {@code null} if the stage was never recorded for the path
+     */
+    public @Nullable Histogram getHistogram(@NotNull Stage stage, @NotNull String path) {
+        PathMetrics metrics = paths.get(path);
+        return metrics == null ? null : metrics.histograms.get(stage.ordinal());
+    }
+
+    /**
+     * Get the count of an event.
+     * @param counter the event
+     * @param path the command path
+     * @return the count
+     */
+    public long getCount(@NotNull Counter counter, @NotNull String path) {
+        PathMetrics metrics = paths.get(path);
+        return metrics == null ? 0 : metrics.counters.get(counter.ordinal());
+    }
+
+    /**
+     * Get the command paths that have any measurements.
+     * @return the paths
+     */
+    public @NotNull Set<String> getPaths() {
+        return Set.copyOf(paths.keySet());
+    }
+
+    /**
+     * Discard all measurements.
+     */
+    public void clear() {
+        paths.clear();
+    }
+
+    /**
+     * Make a report of all measurements, with a line per stage and a line of counts per command path.
+     * @return the report
+     */
+    public @NotNull String report() {
+        StringBuilder builder = new StringBuilder();
+        new TreeMap<>(paths).forEach((path, metrics) -> {
+            builder.append(path.isEmpty() ? "<root>" : path).append("\n");
+            for (Stage stage : Stage.values()) {
+                Histogram histogram = metrics.histograms.get(stage.ordinal());
+                if (histogram != null) {
+                    builder.append("  ").append(stage).append(": ").append(histogram).append("\n");
+                }
+            }
+            for (Counter counter : Counter.values()) {
+                long count = metrics.counters.get(counter.ordinal());
+                if (count != 0) {
+                    builder.append("  ").append(counter).append(": ").append(count).append("\n");
+                }
+            }
+        });
+        return builder.toString();
+    }
+
+    /**
+     * Measurements of a single command path.
+     */
+    private static class PathMetrics {
+
+        /**
+         * Histograms by {@link Stage#ordinal()}, created on first use.
+         */
+        private final AtomicReferenceArray<Histogram> histograms = new AtomicReferenceArray<>(Stage.values().length);
+
+        /**
+         * Counts by {@link Counter#ordinal()}.
+         */
+        private final AtomicLongArray counters = new AtomicLongArray(Counter.values().length);
+
+        /**
+         * Get the histogram of a stage, creating it if there is none yet.
+         * @param stage the stage
+         * @return the histogram
+         */
+        private @NotNull Histogram histogram(@NotNull Stage stage) {
+            Histogram histogram = histograms.get(stage.ordinal());
+            if (histogram == null) {
+                histograms.compareAndSet(stage.ordinal(), null, new Histogram());
+                histogram = histograms.get(stage.ordinal());
+            }
+            return histogram;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package art.arcane.edict.metrics;
+
+import art.arcane.edict.virtual.VCommandable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Receives timings and counts from the command pipeline. Implement this to forward them to a metrics library,
+ * or use {@link HistogramMetrics} to keep them in memory.<br>
+ * Every measurement is tagged with the command path it applies to (see {@link VCommandable#path()}).
+ * Measurements taken before any command is found (tokenizing, root search) are tagged with the empty path.<br>
+ * Implementations are called concurrently from every thread running commands, and must be thread-safe.
+ */
+public interface Metrics {
+
+    /**
+     * Metrics that are disabled. Nothing is timed, and no paths are computed.
+     */
+    Metrics NONE = new Metrics() {
+        @Override
+        public boolean enabled() {
+            return false;
+        }
+
+        @Override
+        public void record(@NotNull Stage stage, @NotNull String path, long nanos) {
+
+        }
+
+        @Override
+        public void count(@NotNull Counter counter, @NotNull String path) {
+
+        }
+    };
+
+    /**
+     * Whether measurements should be taken. If false, {@link #record} and {@link #count} are never called.
+     * @return true if enabled
+     */
+    boolean enabled();
+
+    /**
+     * Record the duration of a stage.
+     * @param stage the stage
+     * @param path the command path
+     * @param nanos the duration in nanoseconds
+     */
+    void record(@NotNull Stage stage, @NotNull String path, long nanos);
+
+    /**
+     * Count an event.
+     * @param counter the event
+     * @param path the command path
+     */
+    void count(@NotNull Counter counter, @NotNull String path);
+
+    /**
+     * Start timing a stage.
+     * @return the start time to pass to {@link #stop}, or {@code 0} if disabled
+     */
+    default long start() {
+        return enabled() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Stop timing a stage, and record it.
+     * @param stage the stage
+     * @param commandable the commandable the stage applies to, or {@code null} if none is found yet
+     * @param start the start time from {@link #start()}
+     */
+    default void stop(@NotNull Stage stage, @Nullable VCommandable commandable, long start) {
+        if (enabled()) {
+            record(stage, commandable == null ? "" : commandable.path(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Count an event.
+     * @param counter the event
+     * @param commandable the commandable the event applies to, or {@code null} if none is found
+     */
+    default void increment(@NotNull Counter counter, @Nullable VCommandable commandable) {
+        if (enabled()) {
+            count(counter, commandable == null ? "" : commandable.path());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package art.arcane.edict.metrics;
+
+/**
+ * Timed stages of the command pipeline, in the order a command passes through them.
+ */
+public enum Stage {
+
+    /**
+     * Tokenizing and cleaning the input line.
+     */
+    TOKENIZE,
+
+    /**
+     * Searching the root commands for the first word.
+     */
+    ROOT_SEARCH,
+
+    /**
+     * Searching the children of a category for the next word. Recorded for every category level passed.
+     */
+    CLASS_SEARCH,
+
+    /**
+     * {@link art.arcane.edict.parser.ParameterParser} assigning keyed and flag tokens.
+     */
+    ASSIGN_TOKENS,
+
+    /**
+     * {@link art.arcane.edict.parser.ParameterParser} assigning keyless tokens.
+     */
+    ASSIGN_KEYLESS,
+
+    /**
+     * {@link art.arcane.edict.parser.ParameterParser} assigning default values.
+     */
+    ASSIGN_DEFAULTS,
+
+    /**
+     * {@link art.arcane.edict.parser.ParameterParser} checking that sufficient input was given.
+     */
+    CHECK_SUFFICIENT_INPUT,
+
+    /**
+     * {@link art.arcane.edict.parser.ParameterParser} resolving contextual parameters through their context handlers.
+     */
+    PARSE_CONTEXTUAL,
+
+    /**
+     * {@link art.arcane.edict.parser.ParameterParser} parsing inputs through their parameter handlers.
+     */
+    PARSE_INPUTS,
+
+    /**
+     * {@link art.arcane.edict.parser.ParameterParser} waiting for the user to pick options for ambiguous inputs.
+     * Only recorded if there was anything to pick.
+     */
+    PICK_OPTIONS,
+
+    /**
+     * Waiting for the sync runner to start a {@link art.arcane.edict.api.Command#sync()} command.
+     */
+    SYNC_WAIT,
+
+    /**
+     * Invoking the command method.
+     */
+    INVOKE
+}
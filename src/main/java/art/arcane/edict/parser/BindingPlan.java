@@ -0,0 +1,286 @@
+package art.arcane.edict.parser;
+
+import art.arcane.edict.virtual.VMethod;
+import art.arcane.edict.virtual.VParam;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.*;
+
+/**
+ * Parameter binding plan of a {@link VMethod}, compiled once when the command tree is built.
+ * Parameters are referred to by their index in {@link VMethod#params()} (positional order).
+ * Holds everything the {@link ParameterParser} would otherwise have to look up for every command.<br>
+ * Plans are immutable, so every parse can share the plan of its method.
+ */
+public final class BindingPlan {
+
+    /**
+     * No candidates.
+     */
+    private static final int[] NONE = new int[0];
+
+    /**
+     * Primitive types mapped to their wrapper types.
+     */
+    private static final Map<Class<?>, Class<?>> WRAPPERS = Map.of(
+            boolean.class, Boolean.class,
+            byte.class, Byte.class,
+            char.class, Character.class,
+            short.class, Short.class,
+            int.class, Integer.class,
+            long.class, Long.class,
+            float.class, Float.class,
+            double.class, Double.class
+    );
+
+    /**
+     * Position of each parameter in the method signature.
+     */
+    private final int @NotNull [] slots;
+
+    /**
+     * Type of each parameter in the method signature, with primitives as their wrapper type.
+     */
+    private final Class<?> @NotNull [] types;
+
+    /**
+     * Names of each parameter (name and aliases).
+     */
+    private final String @NotNull [] @NotNull [] names;
+
+    /**
+     * Parameters with a name or alias, by that name or alias.
+     */
+    private final @NotNull Map<String, int[]> exact;
+
+    /**
+     * Parameters with a name or alias containing a string, by that string.
+     */
+    private final @NotNull Map<String, int[]> substrings;
+
+    /**
+     * Whether each parameter is a boolean, and can be set by a flag.
+     */
+    private final boolean @NotNull [] flags;
+
+    /**
+     * Whether each parameter is contextual.
+     */
+    private final boolean @NotNull [] contextual;
+
+    /**
+     * Default value of each parameter, or {@code null} if it has none.
+     */
+    private final String @NotNull [] defaults;
+
+    /**
+     * Default value of each parameter parsed ahead of time, or {@code null} if it must be parsed on every run.
+     */
+    private final VParam.ParsedDefault @NotNull [] parsedDefaults;
+
+    /**
+     * Number of parameters without a default, and the number of those that are not contextual either.
+     */
+    private final int required, requiredWithContext;
+
+    /**
+     * Compile the plan for the parameters of a method.
+     * @param method the method
+     * @param params the parameters of the method, in positional order. Only their annotations, types and parsed defaults are read
+     */
+    private BindingPlan(@NotNull Method method, @NotNull List<VParam> params) {
+        int size = params.size();
+        Map<String, List<Integer>> exact = new HashMap<>();
+        Map<String, List<Integer>> substrings = new HashMap<>();
+        List<Parameter> signature = List.of(method.getParameters());
+
+        this.slots = new int[size];
+        this.types = new Class<?>[size];
+        this.names = new String[size][];
+        this.flags = new boolean[size];
+        this.contextual = new boolean[size];
+        this.defaults = new String[size];
+        this.parsedDefaults = new VParam.ParsedDefault[size];
+        int required = 0;
+        int requiredWithContext = 0;
+
+        for (int i = 0; i < size; i++) {
+            VParam param = params.get(i);
+            Class<?> type = param.parameter().getType();
+            slots[i] = signature.indexOf(param.parameter());
+            types[i] = WRAPPERS.getOrDefault(type, type);
+            names[i] = param.allNames().toArray(new String[0]);
+            flags[i] = types[i] == Boolean.class;
+            contextual[i] = param.param().contextual();
+            defaults[i] = param.param().defaultValue().isBlank() ? null : param.param().defaultValue();
+            parsedDefaults[i] = param.parsedDefault();
+            if (defaults[i] == null) {
+                required++;
+                if (!contextual[i]) {
+                    requiredWithContext++;
+                }
+            }
+
+            for (String name : names[i]) {
+                add(exact, name, i);
+                for (int from = 0; from < name.length(); from++) {
+                    for (int to = from + 1; to <= name.length(); to++) {
+                        add(substrings, name.substring(from, to), i);
+                    }
+                }
+            }
+        }
+
+        this.required = required;
+        this.requiredWithContext = requiredWithContext;
+        this.exact = freeze(exact);
+        this.substrings = freeze(substrings);
+    }
+
+    /**
+     * Compile the plan for the parameters of a method.<br>
+     * The plan does not keep the parameters: index {@code i} of the plan refers to index {@code i} of the list.
+     * @param method the method
+     * @param params the parameters of the method, in positional order. Only their annotations, types and parsed defaults are read
+     * @return the plan
+     */
+    public static @NotNull BindingPlan of(@NotNull Method method, @NotNull List<VParam> params) {
+        return new BindingPlan(method, params);
+    }
+
+    /**
+     * Find the parameter a key refers to. In order of preference, the first unassigned parameter:<br>
+     *  - with the key as its name or alias<br>
+     *  - with a name or alias containing the key<br>
+     *  - with a name or alias contained in the key
+     * @param key the key
+     * @param assigned which parameters are already assigned
+     * @param flag whether the key is a flag, and only boolean parameters can be matched
+     * @return the parameter index, or {@code -1} if no parameter matches
+     */
+    public int match(@NotNull String key, boolean @NotNull [] assigned, boolean flag) {
+        int index = first(exact.getOrDefault(key, NONE), assigned, flag);
+        if (index == -1) {
+            index = first(substrings.getOrDefault(key, NONE), assigned, flag);
+        }
+        if (index == -1) {
+            for (int i = 0; i < names.length && index == -1; i++) {
+                if (assigned[i] || (flag && !flags[i])) {
+                    continue;
+                }
+                for (String name : names[i]) {
+                    if (key.contains(name)) {
+                        index = i;
+                        break;
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Get the first unassigned candidate.
+     * @param candidates the candidate parameter indices
+     * @param assigned which parameters are already assigned
+     * @param flag whether only boolean parameters can be matched
+     * @return the parameter index, or {@code -1} if there is none
+     */
+    private int first(int @NotNull [] candidates, boolean @NotNull [] assigned, boolean flag) {
+        for (int candidate : candidates) {
+            if (!assigned[candidate] && (!flag || flags[candidate])) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Number of parameters.
+     * @return the number of parameters
+     */
+    public int size() {
+        return slots.length;
+    }
+
+    /**
+     * Position of a parameter in the method signature.
+     * @param index the parameter index
+     * @return the position
+     */
+    public int slot(int index) {
+        return slots[index];
+    }
+
+    /**
+     * Type of a parameter in the method signature, with primitives as their wrapper type.
+     * @param index the parameter index
+     * @return the type
+     */
+    public @NotNull Class<?> type(int index) {
+        return types[index];
+    }
+
+    /**
+     * Whether a parameter is contextual.
+     * @param index the parameter index
+     * @return true if it is contextual
+     */
+    public boolean contextual(int index) {
+        return contextual[index];
+    }
+
+    /**
+     * Default value of a parameter.
+     * @param index the parameter index
+     * @return the default value, or {@code null} if it has none
+     */
+    public @Nullable String defaultValue(int index) {
+        return defaults[index];
+    }
+
+    /**
+     * Default value of a parameter, parsed ahead of time.
+     * @param index the parameter index
+     * @return the parsed default value, or {@code null} if it has none or it must be parsed on every run
+     */
+    public @Nullable VParam.ParsedDefault parsedDefault(int index) {
+        return parsedDefaults[index];
+    }
+
+    /**
+     * Number of parameters that must be entered.
+     * @param canUseContext whether contextual parameters can be filled in from context
+     * @return the number of required parameters
+     */
+    public int required(boolean canUseContext) {
+        return canUseContext ? requiredWithContext : required;
+    }
+
+    /**
+     * Add a parameter index to the candidates of a key, unless it is already the last one.
+     * @param map the map of candidates
+     * @param key the key
+     * @param index the parameter index
+     */
+    private static void add(@NotNull Map<String, List<Integer>> map, @NotNull String key, int index) {
+        List<Integer> candidates = map.computeIfAbsent(key, k -> new ArrayList<>());
+        if (candidates.isEmpty() || candidates.get(candidates.size() - 1) != index) {
+            candidates.add(index);
+        }
+    }
+
+    /**
+     * Turn candidate lists into an immutable map of arrays.
+     * @param map the map of candidates
+     * @return the frozen map
+     */
+    private static @NotNull Map<String, int[]> freeze(@NotNull Map<String, List<Integer>> map) {
+        Map<String, int[]> frozen = new HashMap<>();
+        map.forEach((key, candidates) -> frozen.put(key, candidates.stream().mapToInt(Integer::intValue).toArray()));
+        return Collections.unmodifiableMap(frozen);
+    }
+}
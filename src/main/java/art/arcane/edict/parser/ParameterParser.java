@@ -4,42 +4,57 @@ import art.arcane.edict.Edict;
 import art.arcane.edict.exception.ContextMissingException;
 import art.arcane.edict.exception.ParsingException;
 import art.arcane.edict.exception.WhichException;
+import art.arcane.edict.jfr.OptionPickEvent;
 import art.arcane.edict.message.ClickableMessage;
 import art.arcane.edict.message.StringMessage;
+import art.arcane.edict.metrics.Counter;
+import art.arcane.edict.metrics.Metrics;
+import art.arcane.edict.metrics.Stage;
 import art.arcane.edict.user.User;
+import art.arcane.edict.virtual.VMethod;
 import art.arcane.edict.virtual.VParam;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.*;
 
 /**
- * Parameter parser.
+ * Parameter parser. Binds input tokens to parameters following a {@link BindingPlan}.
  */
 public class ParameterParser {
 
+    /**
+     * Picked option index of an attempt that was superseded by another completable command.
+     */
+    private static final int SUPERSEDED = -1;
+
     /**
      * Whether to dump or not.
      */
     private static final boolean ENABLE_DEBUG = false;
 
     /**
-     * Input strings.
+     * Input tokens.
      */
-    private final @NotNull List<String> input;
+    private final @NotNull List<Token> input;
 
     /**
-     * Parameters that need values.
+     * The method whose parameters need values.
      */
-    private final @NotNull List<VParam> params;
+    private final @NotNull VMethod method;
 
     /**
-     * Remaining parameters.
+     * The binding plan of the parameters that need values.
      */
-    private final @NotNull List<VParam> remainingParams;
+    private final @NotNull BindingPlan plan;
+
+    /**
+     * The parameters that need values, indexed like the {@link #plan}.
+     */
+    private final @NotNull List<VParam> params;
 
     /**
      * The user running the command.
@@ -52,252 +67,240 @@ public class ParameterParser {
     private final @NotNull Edict system;
 
     /**
-     * Mapping from parameters to objects.
+     * Whether each parameter has been assigned an input or a value.
      */
-    private final ConcurrentHashMap<VParam, Object> values = new ConcurrentHashMap<>();
+    private final boolean[] assigned;
 
     /**
-     * Mapping from parameters to (one of) the argument(s).
+     * Input string of each parameter, or {@code null} if it has none (yet).
      */
-    private final ConcurrentHashMap<VParam, String> inputs = new ConcurrentHashMap<>();
+    private final String[] inputs;
 
     /**
-     * Mapping from (one of) the arguments(s) to the reason why it is bad.
+     * Parameter values, in the order of the method signature.
      */
-    private final ConcurrentHashMap<String, String> badArgs = new ConcurrentHashMap<>();
+    private final Object[] result;
 
     /**
-     * Arguments that started with '-' indicating a true boolean (flag).
+     * Indices of the input tokens without a key.
      */
-    private final List<String> dashBooleanArgs = new ArrayList<>();
+    private final int[] keyless;
 
     /**
-     * Arguments without a key (just a string).
+     * Number of {@link #keyless} tokens.
      */
-    private final List<String> keylessArgs = new ArrayList<>();
+    private int keylessCount = 0;
 
     /**
-     * Arguments with a key (key=value).
+     * Bad arguments, with the reason why they are bad.
      */
-    private final List<String> keyedArgs = new ArrayList<>();
+    private final List<String> badArgs = new ArrayList<>();
+
     /**
      * Parameters not fulfilled.
      */
     private final List<VParam> missingInputs = new ArrayList<>();
 
+    /**
+     * Parameters whose input lead to multiple options, which the user must pick from.
+     */
+    private final List<Pick> picks = new ArrayList<>();
+
+    /**
+     * Metrics to time the stages with. Only {@link #parse()} is timed, binding for suggestions is not.
+     */
+    private Metrics metrics = Metrics.NONE;
+
+    /**
+     * Start time of the current stage.
+     */
+    private long stageStart;
+
     /**
      * Create a new parser
-     * @param input the input strings
-     * @param params the parameters that need values
+     * @param input the input tokens
+     * @param method the method whose parameters need values, bound following its {@link VMethod#plan() plan}
      * @param user the user running the command
      * @param system the system in which the command is being run
      */
-    public ParameterParser(@NotNull List<String> input, @NotNull List<VParam> params, @NotNull User user, @NotNull Edict system) {
+    public ParameterParser(@NotNull List<Token> input, @NotNull VMethod method, @NotNull User user, @NotNull Edict system) {
         this.input = input;
-        this.params = params;
-        this.remainingParams = new ArrayList<>(params);
+        this.method = method;
+        this.plan = method.plan();
+        this.params = method.params();
         this.user = user;
         this.system = system;
+        this.assigned = new boolean[plan.size()];
+        this.inputs = new String[plan.size()];
+        this.result = new Object[plan.size()];
+        this.keyless = new int[input.size()];
     }
 
     /**
-     * Clean the input command.
-     * Performs the following actions:<br>
-     *  - Remove all double spaces<br>
-     *  - Remove spaces before equal signs<br>
-     *  - Remove all double ='s and -'s
-     * @param command the input command
-     * @return the cleaned command
+     * Parse inputs.<br>
+     * The returned future is already complete, unless the user must pick an option for an ambiguous input.
+     * In that case it completes (on the {@link Edict#getExecutor() executor}) once the user has answered, without any thread waiting for the answer.
+     * @return a future of an array of parameter values (in the order of the method signature), or of {@code null} if insufficient or bad input was provided.
+     * In the case it is {@code null}, {@link #missingInputs} is non-empty and shows which parameters are missing.
      */
-    public static @NotNull String cleanCommand(@NotNull String command) {
-        // TODO: Allow some of this stuff in parameters.
-        while (command.contains("  ")) {
-            command = command.replace("  ", " ");
+    public @NotNull CompletableFuture<@Nullable Object[]> parse() {
+        metrics = system.getMetrics();
+        if (!bind()) {
+            return CompletableFuture.completedFuture(null);
         }
-        while (command.contains("==")) {
-            command = command.replace("==", "=");
-        }
-        while (command.contains("--")) {
-            command = command.replace("--", "-");
+        parseContextual();
+        dump("Parse Contextual");
+        stage(Stage.PARSE_CONTEXTUAL);
+        parseInputs();
+        dump("Parse Inputs");
+        stage(Stage.PARSE_INPUTS);
+        for (Pick ignored : picks) {
+            metrics.increment(Counter.AMBIGUOUS_PICK, method);
         }
-        return command.replace(" =", "=").replace("= ", "=");
+        return pickOptions().thenApply(ignored -> {
+            dump("Pick Options");
+            if (!picks.isEmpty()) {
+                stage(Stage.PICK_OPTIONS);
+            }
+            return missingInputs.isEmpty() ? result : null;
+        });
     }
 
     /**
-     * Parse inputs.
-     * @return an array of parameter values, or {@code null} if insufficient input was provided.
-     * In the case it is {@code null}, {@link #missingInputs} is non-empty and shows which parameters are missing.
-     * @throws RuntimeException in case a bug in the system causes invalid states. This would be a problem with Edict.
+     * Bind inputs to parameters, without parsing them.
+     * @return true if sufficient input was provided. If false, {@link #missingInputs} shows which parameters are missing
      */
-    public @Nullable Object[] parse() throws RuntimeException {
+    public boolean bind() {
         dump("Initial");
-        divideInput();
-        dump("Divide Input");
-        assignKeyed();
-        dump("Assign Keyed");
-        assignDashBoolean();
-        dump("Dash Boolean");
+        stageStart = metrics.start();
+        assignTokens();
+        dump("Assign Tokens");
+        stage(Stage.ASSIGN_TOKENS);
         assignKeyless();
         dump("Assign Keyless");
+        stage(Stage.ASSIGN_KEYLESS);
         assignDefaults();
         dump("Assign Defaults");
-        if (!checkSufficientInput()) {
+        stage(Stage.ASSIGN_DEFAULTS);
+        boolean sufficient = checkSufficientInput();
+        stage(Stage.CHECK_SUFFICIENT_INPUT);
+        if (!sufficient) {
             dump("Check Sufficient Input Failed");
-            return null;
+            return false;
         }
-        parseContextual();
-        dump("Parse Contextual");
-        parseInputs();
-        dump("Parse Inputs");
-        checkAllValues();
-        dump("Check Values");
-        return getResult();
+        return true;
     }
 
     /**
-     * Divide the input nodes into separate groups based on certain properties.
+     * Bind the input tokens, without defaults and without parsing, and get the parameters a token typed after them can fill.
+     * Used for suggestions.
+     * @param typing the token being typed after the input
+     * @return the parameters the token can fill: the one its key refers to, or else all parameters the input left without a value
      */
-    private void divideInput() {
-        while (!input.isEmpty()) {
-            String argument = input.remove(0);
-            List<String> splitByEquals = List.of(argument.split("="));
-
-            switch (splitByEquals.size()) {
-                case 1 -> {
-                    if (argument.startsWith("-")) {
-                        dashBooleanArgs.add(argument.substring(1));
-                    } else {
-                        keylessArgs.add(argument);
-                    }
-                }
-                case 2 -> {
-                    if (splitByEquals.get(1).isEmpty()) {
-                        badArgs.put(argument, "Empty value after splitting on '='");
-                    } else {
-                        keyedArgs.add(argument);
-                    }
-                }
-                default -> badArgs.put(argument, "Too many '=' signs in input");
+    public @NotNull List<VParam> fillable(@NotNull Token typing) {
+        assignTokens();
+        assignKeyless();
+        if (typing.type() == Token.Type.KEYED) {
+            assert typing.key() != null;
+            int index = plan.match(typing.key(), assigned, false);
+            return index == -1 ? List.of() : List.of(params.get(index));
+        }
+        List<VParam> open = new ArrayList<>();
+        for (int i = 0; i < plan.size(); i++) {
+            if (!assigned[i]) {
+                open.add(params.get(i));
             }
         }
+        return open;
     }
 
     /**
-     * Assign keyed parameters to their {@link VParam}.
+     * Record the time since the previous stage ended, and start the next stage.
+     * @param stage the stage that ended
      */
-    private void assignKeyed() {
-        loop: while (!keyedArgs.isEmpty()) {
-            String arg = keyedArgs.remove(0);
-            String key = arg.split("\\Q=\\E")[0];
-            String value = arg.split("\\Q=\\E")[1];
+    private void stage(@NotNull Stage stage) {
+        metrics.stop(stage, method, stageStart);
+        stageStart = metrics.start();
+    }
 
-            for (VParam param : new ArrayList<>(remainingParams)) {
-                if (param.allNames().contains(key)) {
-                    remainingParams.remove(param);
-                    inputs.put(param, value);
-                    continue loop;
-                }
+    /**
+     * Assign keyed and flag tokens to their {@link VParam}, and set aside the keyless tokens.
+     */
+    private void assignTokens() {
+        for (int t = 0; t < input.size(); t++) {
+            Token token = input.get(t);
+            if (token.error() != null) {
+                bad(token.text(), token.error());
+                continue;
             }
-
-            for (VParam param : new ArrayList<>(remainingParams)) {
-                for (String name : param.allNames()) {
-                    if (name.contains(key)) {
-                        remainingParams.remove(param);
-                        inputs.put(param, value);
-                        continue loop;
-                    }
-                }
+            switch (token.type()) {
+                case KEYLESS -> keyless[keylessCount++] = t;
+                case KEYED -> assign(token, token.value(), false);
+                case FLAG -> assign(token, "true", true);
             }
-
-            for (VParam param : new ArrayList<>(remainingParams)) {
-                for (String name : param.allNames()) {
-                    if (key.contains(name)) {
-                        remainingParams.remove(param);
-                        inputs.put(param, value);
-                        continue loop;
-                    }
-                }
-            }
-
-            badArgs.put(arg, "Could not match any parameter's name");
         }
     }
 
     /**
-     * Assign dashed boolean arguments to their {@link VParam}.
+     * Assign a keyed or flag token to the parameter its key matches.
+     * @param token the token
+     * @param value the input for the parameter
+     * @param flag whether the token is a flag
      */
-    private void assignDashBoolean() {
-        loop: while (!dashBooleanArgs.isEmpty()) {
-            String key = dashBooleanArgs.remove(0).substring(1);
-
-            for (VParam param : new ArrayList<>(remainingParams)) {
-                if (param.allNames().contains(key)
-                        && param.parameter().getType().equals(Boolean.class)
-                        || param.parameter().getType().equals(boolean.class)) {
-                    remainingParams.remove(param);
-                    inputs.put(param, "true");
-                    continue loop;
-                }
-            }
-
-            for (VParam param : new ArrayList<>(remainingParams)) {
-                for (String name : param.allNames()) {
-                    if (name.contains(key)
-                            && param.parameter().getType().equals(Boolean.class)
-                            || param.parameter().getType().equals(boolean.class)) {
-                        remainingParams.remove(param);
-                        inputs.put(param, "true");
-                        continue loop;
-                    }
-                }
-            }
-
-            for (VParam param : new ArrayList<>(remainingParams)) {
-                for (String name : param.allNames()) {
-                    if (key.contains(name)
-                            && param.parameter().getType().equals(Boolean.class)
-                            || param.parameter().getType().equals(boolean.class)) {
-                        remainingParams.remove(param);
-                        inputs.put(param, "true");
-                        continue loop;
-                    }
-                }
-            }
-
-            badArgs.put("-" + key, "Could not match any parameter's name");
+    private void assign(@NotNull Token token, @NotNull String value, boolean flag) {
+        assert token.key() != null;
+        int index = plan.match(token.key(), assigned, flag);
+        if (index == -1) {
+            bad(token.text(), "Could not match any parameter's name");
+            return;
         }
+        assigned[index] = true;
+        inputs[index] = value;
     }
 
     /**
-     * Assign null arguments to their {@link VParam}.
+     * Assign keyless arguments to the remaining {@link VParam}s, in positional order.
      */
     private void assignKeyless() {
-        while (!keylessArgs.isEmpty()) {
-            inputs.put(remainingParams.remove(0), keylessArgs.remove(0));
+        int next = 0;
+        for (int i = 0; i < plan.size() && next < keylessCount; i++) {
+            if (!assigned[i]) {
+                assigned[i] = true;
+                inputs[i] = input.get(keyless[next++]).value();
+            }
+        }
+        while (next < keylessCount) {
+            bad(input.get(keyless[next++]).text(), "No parameter left to assign this input to");
         }
     }
 
     /**
      * Assign default values (if available) to their {@link VParam}.
+     * Defaults parsed ahead of time are used as values directly, others are parsed like any input.
      */
     private void assignDefaults() {
-        for (VParam param : new ArrayList<>(remainingParams)) {
-            if (!param.param().defaultValue().isBlank()) {
-                // Has a default
-                remainingParams.remove(param);
-                inputs.put(param, param.param().defaultValue());
+        for (int i = 0; i < plan.size(); i++) {
+            if (assigned[i] || plan.defaultValue(i) == null) {
+                continue;
+            }
+            assigned[i] = true;
+            VParam.ParsedDefault parsed = plan.parsedDefault(i);
+            if (parsed == null) {
+                inputs[i] = plan.defaultValue(i);
+            } else {
+                result[plan.slot(i)] = parsed.value();
             }
         }
     }
 
     /**
-     * Check inputs map to see if sufficient input was given by the user.
+     * Check assignments to see if sufficient input was given by the user.
      * @return true if sufficient input was provided
      */
     private boolean checkSufficientInput() {
-        for (VParam param : new ArrayList<>(remainingParams)) {
-            if (!inputs.containsKey(param) && !(param.param().contextual() && user.canUseContext())) {
-                missingInputs.add(param);
+        for (int i = 0; i < plan.size(); i++) {
+            if (!assigned[i] && !(plan.contextual(i) && user.canUseContext())) {
+                missingInputs.add(params.get(i));
             }
         }
         return missingInputs.isEmpty();
@@ -307,17 +310,17 @@ public class ParameterParser {
      * Parse contextual values.
      */
     private void parseContextual() {
-        for (VParam param : new ArrayList<>(remainingParams)) {
+        for (int i = 0; i < plan.size(); i++) {
+            if (assigned[i]) {
+                continue;
+            }
+            VParam param = params.get(i);
             try {
                 assert param.contextHandler() != null;
-                Object value = param.contextHandler().handle(user);
-                remainingParams.remove(param);
-                values.put(
-                        param,
-                        value
-                );
+                result[plan.slot(i)] = param.contextHandler().handle(user);
+                assigned[i] = true;
             } catch (ContextMissingException ignored) {
-
+                missingInputs.add(param);
             }
         }
     }
@@ -326,50 +329,62 @@ public class ParameterParser {
      * Parse input values from {@link #inputs}.
      */
     private void parseInputs() {
-        new HashMap<>(inputs).forEach((param, input) -> {
-            inputs.remove(param);
+        for (int i = 0; i < plan.size(); i++) {
+            String input = inputs[i];
+            if (input == null) {
+                continue;
+            }
+            VParam param = params.get(i);
             try {
-                values.put(param, system.getParameterHandlers().getHandlerFor(param.parameter().getType()).parse(input, param.name()));
+                result[plan.slot(i)] = param.parameterHandler().parse(input, param.name());
             } catch (ParsingException e) {
-                badArgs.put(input, "Cannot parse this input to parameter " + param.name() + " of type " + param.parameter().getType().getSimpleName());
+                missingInputs.add(param);
+                bad(input, "Cannot parse this input to parameter " + param.name() + " of type " + param.parameter().getType().getSimpleName());
             } catch (WhichException e) {
-                Object option = pickValidOption(user, e.getOptions(), param);
-                if (option == null) {
-                    missingInputs.add(param);
-                    badArgs.put(e.getInput(), "Lead to multiple options, but none were picked.");
-                    return;
+                if (system.getSettings().alwaysPickFirstOption) {
+                    result[plan.slot(i)] = e.getOptions().get(0);
+                } else {
+                    picks.add(new Pick(i, e));
                 }
-                values.put(param, option);
             }
-        });
+        }
     }
 
     /**
-     * Check all values in {@link #values}.
-     * @throws RuntimeException if a value is null, missing or if the value is of an incorrect type
+     * Let the user pick an option for each of the {@link #picks}, one after another.
+     * @return a future that completes when all options are picked (or failed to be)
      */
-    private void checkAllValues() throws RuntimeException {
-        for (VParam param : remainingParams) {
-            Object value = values.get(param);
-            if (value == null) {
-                throw new RuntimeException("A parameter is missing from the mapping, which should never happen!");
-            }
-            if (!(param.parameter().getType().isAssignableFrom(value.getClass()) && value.getClass().isAssignableFrom(param.parameter().getType()))) {
-                throw new RuntimeException("A parameter has gotten a value assigned that is not of a valid type somehow!");
-            }
+    private @NotNull CompletableFuture<Void> pickOptions() {
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (Pick pick : picks) {
+            VParam param = params.get(pick.index());
+            chain = chain.thenCompose(ignored -> {
+                OptionPickEvent event = OptionPickEvent.start();
+                return pickValidOption(user, pick.which().getOptions(), param).whenComplete((option, throwable) -> event.finish(
+                        user,
+                        param,
+                        pick.which().getOptions().size(),
+                        throwable != null ? "failed" : option == null ? "none picked" : "picked"
+                ));
+            }).thenAccept(option -> {
+                if (option == null) {
+                    missingInputs.add(param);
+                    bad(pick.which().getInput(), "Lead to multiple options, but none were picked.");
+                    return;
+                }
+                result[plan.slot(pick.index())] = option;
+            });
         }
+        return chain;
     }
 
     /**
-     * Get resulting object array from {@link #values}.
-     * @return the object array
+     * Register a bad argument.
+     * @param arg the argument
+     * @param reason the reason why it is bad
      */
-    private Object @NotNull [] getResult() {
-        Object[] result = new Object[params.size()];
-        for (int i = 0; i < params.size(); i++) {
-            result[i] = values.get(params.get(i));
-        }
-        return result;
+    private void bad(@NotNull String arg, @NotNull String reason) {
+        badArgs.add("'" + arg + "' failed because of: " + reason);
     }
 
     /**
@@ -378,15 +393,14 @@ public class ParameterParser {
     private void dump(String stage) {
         if (!ENABLE_DEBUG) { return; }
         system.d(new StringMessage(stage + " Dump for user: " + user.name()));
-        if (!input.isEmpty()) { system.d(new StringMessage("Input: " + String.join(" / ", input))); }
-        if (!remainingParams.isEmpty()) { system.d(new StringMessage("Params: " + String.join(" / ", remainingParams.stream().map(VParam::name).toList()))); }
-        if (!values.isEmpty()) { system.d(new StringMessage("Values: " + String.join(" / ", values.keySet().stream().map(k -> k.name() + " > " + k.parameterHandler().toStringForce(values.get(k))).toList()))); }
-        if (!inputs.isEmpty()) { system.d(new StringMessage("Inputs: " + String.join(" / " + inputs.keySet().stream().map(k -> k.name() + " = " + values.get(k))))); }
-        if (!badArgs.isEmpty()) { system.d(new StringMessage("BadArgs: " + String.join(" / ", badArgs.keySet().stream().map(k -> k + " > " + badArgs.get(k)).toList()))); }
-        if (!dashBooleanArgs.isEmpty()) { system.d(new StringMessage("DashArgs: " + String.join(" / " + dashBooleanArgs))); }
-        if (!keylessArgs.isEmpty()) { system.d(new StringMessage("KeylessArgs: " + String.join(" / " + keylessArgs))); }
-        if (!keyedArgs.isEmpty()) { system.d(new StringMessage("KeyedArgs: " + String.join(" / " + keyedArgs))); }
-        if (!missingInputs.isEmpty()) { system.d(new StringMessage("MissingInputs: " + String.join(" / " + missingInputs.stream().map(VParam::name).toList()) + "\n")); }
+        if (!input.isEmpty()) { system.d(new StringMessage("Input: " + String.join(" / ", input.stream().map(Token::text).toList()))); }
+        for (int i = 0; i < plan.size(); i++) {
+            VParam param = params.get(i);
+            Object value = result[plan.slot(i)];
+            system.d(new StringMessage("Param: " + param.name() + (assigned[i] ? " (assigned)" : "") + " = " + inputs[i] + " > " + (value == null ? null : param.parameterHandler().toStringForce(value))));
+        }
+        if (!badArgs.isEmpty()) { system.d(new StringMessage("BadArgs: " + String.join(" / ", badArgs))); }
+        if (!missingInputs.isEmpty()) { system.d(new StringMessage("MissingInputs: " + String.join(" / ", missingInputs.stream().map(VParam::name).toList()))); }
         system.d(new StringMessage("End " + stage + " Dump"));
     }
 
@@ -394,13 +408,10 @@ public class ParameterParser {
      * Instruct the user to pick a valid option.
      * @param user The user that must pick an option
      * @param options The valid options that can be picked (as objects)
-     * @return The string value for the selected option
+     * @param param The parameter the option is for
+     * @return A future of the selected option, or of {@code null} if none was picked
      */
-    private @Nullable Object pickValidOption(User user, List<?> options, VParam param) {
-
-        if (system.getSettings().alwaysPickFirstOption) {
-            return options.get(0);
-        }
+    private @NotNull CompletableFuture<@Nullable Object> pickValidOption(User user, List<?> options, VParam param) {
 
         List<String> values = new ArrayList<>();
         for (Object option : options) {
@@ -408,50 +419,77 @@ public class ParameterParser {
         }
 
         user.send(new StringMessage("Pick a " + param.name() + " (" + param.parameter().getType().getSimpleName() + ")"));
-        user.send(new StringMessage("This query will expire in 15 seconds."));
+        user.send(new StringMessage("This query will expire in " + system.getSettings().optionPickTimeout + " seconds."));
+
+        return pickAttempt(user, options, values, 1);
+    }
 
-        int tries = 0;
-        Integer result = null;
+    /**
+     * Ask the user to pick an option once, and ask again if the answer is invalid or does not come in time.
+     * Stops without asking again if another completable command of the user supersedes this one.
+     * The answer arrives through the {@link art.arcane.edict.completables.CompletableCommandsRegistry}, and is handled on the executor.
+     * @param user The user that must pick an option
+     * @param options The valid options that can be picked (as objects)
+     * @param values The valid options that can be picked (as strings)
+     * @param attempt The number of this attempt, starting at 1
+     * @return A future of the selected option, or of {@code null} if none was picked
+     */
+    private @NotNull CompletableFuture<@Nullable Object> pickAttempt(User user, List<?> options, List<String> values, int attempt) {
 
-        while (tries++ < system.getSettings().optionPickAttempts) {
-            if (user.canUseClickable()) {
-                user.send(new StringMessage("Please pick a valid option by clicking the option."));
-                for (int i = 0; i < values.size(); i++) {
-                    int finalI = i;
-                    user.send(new ClickableMessage(values.get(i), () -> system.command(String.valueOf(finalI), user)));
-                }
-            } else {
-                user.send(new StringMessage("Please pick a valid option by inputting the number before the option."));
-                for (int i = 0; i < values.size(); i++) {
-                    user.send(new StringMessage(i + ") " + values.get(i)));
-                }
+        if (attempt > system.getSettings().optionPickAttempts) {
+            user.send(new StringMessage("You did not enter a correct option within " + (attempt - 1) + " tries."));
+            user.send(new StringMessage("Please re-run the command."));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (user.canUseClickable()) {
+            user.send(new StringMessage("Please pick a valid option by clicking the option."));
+            for (int i = 0; i < values.size(); i++) {
+                int finalI = i;
+                user.send(new ClickableMessage(values.get(i), () -> system.command(String.valueOf(finalI), user)));
             }
+        } else {
+            user.send(new StringMessage("Please pick a valid option by inputting the number before the option."));
+            for (int i = 0; i < values.size(); i++) {
+                user.send(new StringMessage(i + ") " + values.get(i)));
+            }
+        }
 
-            CompletableFuture<String> future = new CompletableFuture<>();
-            system.getCompletableCommandsRegistry().register(user, future);
-            user.playPickNotification();
+        CompletableFuture<String> future = new CompletableFuture<>();
+        system.getCompletableCommandsRegistry().register(user, future, Duration.ofSeconds(system.getSettings().optionPickTimeout));
+        user.playPickNotification();
 
-            try {
-                result = Integer.parseInt(future.get(system.getSettings().optionPickTimeout, TimeUnit.SECONDS));
-            } catch (InterruptedException | ExecutionException ignored) {
-                user.send(new StringMessage("Your input was interrupted, please try again"));
-            } catch (TimeoutException ignored) {
+        return future.handleAsync((answer, throwable) -> {
+            if (throwable instanceof CompletionException) {
+                throwable = throwable.getCause();
+            }
+            if (throwable instanceof CancellationException) {
+                // Superseded by another completable command, which the user is answering now
+                return SUPERSEDED;
+            } else if (throwable instanceof TimeoutException) {
                 user.send(new StringMessage("Your input query timed out. Please enter your option within " + system.getSettings().optionPickTimeout + " seconds"));
+                return null;
+            } else if (throwable != null) {
+                user.send(new StringMessage("Your input was interrupted, please try again"));
+                return null;
+            }
+            try {
+                int result = Integer.parseInt(answer.trim());
+                if (result < 0 || result >= options.size()) {
+                    user.send(new StringMessage("Your input was not one of the options. Please enter a number between 0 and " + (options.size() - 1) + "."));
+                    return null;
+                }
+                return result;
             } catch (NumberFormatException ignored) {
                 user.send(new StringMessage("Your input was not a number, and picking the option failed. Please enter a number."));
+                return null;
             }
-
+        }, system.getExecutor()).thenCompose(result -> {
             if (result == null) {
-                continue;
+                return pickAttempt(user, options, values, attempt + 1);
             }
-
-            return options.get(result);
-        }
-
-        user.send(new StringMessage("You did not enter a correct option within " + tries + " tries."));
-        user.send(new StringMessage("Please re-run the command."));
-
-        return null;
+            return CompletableFuture.completedFuture(result == SUPERSEDED ? null : options.get(result));
+        });
     }
 
     /**
@@ -467,8 +505,13 @@ public class ParameterParser {
      * @return the bad arguments and reasons
      */
     public List<String> getBadArgsAndReasons() {
-        List<String> argsAndReasons = new ArrayList<>();
-        badArgs.keys().asIterator().forEachRemaining(arg -> argsAndReasons.add("'" + arg + "' failed because of: " + badArgs.get(arg)));
-        return argsAndReasons;
+        return badArgs;
     }
+
+    /**
+     * Parameter whose input lead to multiple options.
+     * @param index the parameter index in the {@link #plan}
+     * @param which the exception listing the options
+     */
+    private record Pick(int index, @NotNull WhichException which) {}
 }
@@ -0,0 +1,53 @@
+package art.arcane.edict.parser;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A token of command input, made by the {@link Tokenizer}.
+ * @param type the type of token
+ * @param key the key ({@code key=value} and {@code -key}), or {@code null} for keyless tokens
+ * @param value the value, unquoted and unescaped. For flags, this is the key
+ * @param start the offset of the first character of the token in the input
+ * @param end the offset after the last character of the token in the input
+ * @param error the reason the token is malformed, or {@code null} if it is not
+ */
+public record Token(@NotNull Type type, @Nullable String key, @NotNull String value, int start, int end, @Nullable String error) {
+
+    /**
+     * Type of token.
+     */
+    public enum Type {
+        /**
+         * Just a value ({@code value}). Also used for command names.
+         */
+        KEYLESS,
+
+        /**
+         * A value with a key ({@code key=value}).
+         */
+        KEYED,
+
+        /**
+         * A boolean flag ({@code -key}).
+         */
+        FLAG
+    }
+
+    /**
+     * The token as text, in its normalized form ({@code value}, {@code key=value} or {@code -key}).
+     * @return the text
+     */
+    public @NotNull String text() {
+        return switch (type) {
+            case KEYLESS -> value;
+            case KEYED -> key + "=" + value;
+            case FLAG -> "-" + value;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return text();
+    }
+}
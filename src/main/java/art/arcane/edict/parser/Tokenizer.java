@@ -0,0 +1,158 @@
+package art.arcane.edict.parser;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Single pass tokenizer for command input.<br>
+ * Performs the following, in one scan over the input:<br>
+ *  - Split on (runs of) whitespace<br>
+ *  - Join keys and values around an equals sign with spaces ({@code key = value} becomes {@code key=value})<br>
+ *  - Treat runs of equals signs as one, and runs of leading dashes as one ({@code --flag} is {@code -flag})<br>
+ *  - Keep whitespace, {@code =} and {@code -} inside double quotes ({@code key="some value"}). A quote left open takes the rest of the input<br>
+ *  - Keep any character after a backslash ({@code \=}, {@code \-}, {@code \"}, {@code \\} and {@code \ })
+ */
+public final class Tokenizer {
+
+    /**
+     * No tokens.
+     */
+    private static final Token[] NONE = new Token[0];
+
+    private Tokenizer() {}
+
+    /**
+     * Tokenize command input.
+     * @param input the input
+     * @return the tokens
+     */
+    public static @NotNull Token @NotNull [] tokenize(@NotNull String input) {
+        return tokenize(input, false);
+    }
+
+    /**
+     * Tokenize command input.
+     * @param input the input
+     * @param trailing whether to add an empty {@link Token.Type#KEYLESS} token if the (non-blank) input ends with whitespace (for suggestions of the next term)
+     * @return the tokens
+     */
+    public static @NotNull Token @NotNull [] tokenize(@NotNull String input, boolean trailing) {
+        int n = input.length();
+        Token[] tokens = NONE;
+        int count = 0;
+        StringBuilder segment = new StringBuilder();
+        int i = 0;
+
+        while (true) {
+
+            // Whitespace between tokens
+            while (i < n && Character.isWhitespace(input.charAt(i))) {
+                i++;
+            }
+            if (i == n) {
+                if (trailing && count > 0 && Character.isWhitespace(input.charAt(n - 1))) {
+                    tokens = grow(tokens, count);
+                    tokens[count++] = new Token(Token.Type.KEYLESS, null, "", n, n, null);
+                }
+                break;
+            }
+
+            int start = i;
+            boolean dashed = false;
+            boolean quoted = false;
+            boolean quotedValue = false;
+            String key = null;
+            String error = null;
+            segment.setLength(0);
+
+            // Leading dashes
+            while (i < n && input.charAt(i) == '-') {
+                dashed = true;
+                i++;
+            }
+
+            while (i < n) {
+                char c = input.charAt(i);
+                if (c == '\\' && i + 1 < n) {
+                    segment.append(input.charAt(i + 1));
+                    i += 2;
+                } else if (c == '"') {
+                    quoted = !quoted;
+                    quotedValue = true;
+                    i++;
+                } else if (quoted) {
+                    segment.append(c);
+                    i++;
+                } else if (c == '=') {
+                    if (key == null) {
+                        key = segment.toString();
+                        segment.setLength(0);
+                        quotedValue = false;
+                    } else {
+                        error = "Too many '=' signs in input";
+                        segment.append(c);
+                    }
+                    // Runs of '=' and whitespace after it
+                    while (i < n && input.charAt(i) == '=') {
+                        i++;
+                    }
+                    while (i < n && Character.isWhitespace(input.charAt(i))) {
+                        i++;
+                    }
+                } else if (Character.isWhitespace(c)) {
+                    // Whitespace before an '=' joins the key to its value
+                    int j = i;
+                    while (j < n && Character.isWhitespace(input.charAt(j))) {
+                        j++;
+                    }
+                    if (j < n && input.charAt(j) == '=') {
+                        i = j;
+                        continue;
+                    }
+                    break;
+                } else {
+                    segment.append(c);
+                    i++;
+                }
+            }
+
+            if (quoted && error == null) {
+                error = "Unterminated quote";
+            }
+
+            String value = segment.toString();
+            Token token;
+            if (key != null) {
+                if (error == null && key.isEmpty()) {
+                    error = "Empty key before '='";
+                } else if (error == null && value.isEmpty() && !quotedValue) {
+                    error = "Empty value after splitting on '='";
+                }
+                token = new Token(Token.Type.KEYED, key, value, start, i, error);
+            } else if (dashed) {
+                token = new Token(Token.Type.FLAG, value, value, start, i, error == null && value.isEmpty() ? "Empty flag" : error);
+            } else {
+                token = new Token(Token.Type.KEYLESS, null, value, start, i, error);
+            }
+
+            tokens = grow(tokens, count);
+            tokens[count++] = token;
+        }
+
+        return count == tokens.length ? tokens : Arrays.copyOf(tokens, count);
+    }
+
+    /**
+     * Make sure there is space in the token array for one more token.
+     * @param tokens the token array
+     * @param count the number of tokens in the array
+     * @return the token array, or a larger copy of it
+     */
+    private static @NotNull Token @NotNull [] grow(@NotNull Token @NotNull [] tokens, int count) {
+        if (count < tokens.length) {
+            return tokens;
+        }
+        return Arrays.copyOf(tokens, Math.max(4, tokens.length * 2));
+    }
+}
@@ -1,7 +1,10 @@
 package art.arcane.edict.permission;
 
 /**
- * A permission node.
+ * A permission node.<br>
+ * Decisions of {@link art.arcane.edict.user.User#hasPermission(Permission)} are cached per node by the {@link PermissionCache},
+ * which uses {@link Object#equals(Object)} and {@link Object#hashCode()}. Implementations should make equal nodes for the same permission
+ * (like {@link PermissionNode}), or keep using the same node objects.
  */
 public interface Permission {
 
@@ -0,0 +1,238 @@
+package art.arcane.edict.permission;
+
+import art.arcane.edict.user.User;
+import art.arcane.edict.util.EdictExecutors;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache of {@link User#hasPermission(Permission)} decisions, per {@link User#id() user id}.<br>
+ * Every user gets a fixed number of slots, which {@link Permission} nodes are mapped to directly, so the cache never grows past that.
+ * Decisions stay valid until an epoch is bumped: {@link #invalidateAll()} for everyone, or {@link #invalidate(User)} for a single user.
+ * Bump an epoch whenever permissions change. Users are evicted once they have not checked any permission for the idle time.
+ */
+public class PermissionCache {
+
+    /**
+     * Dense index of every permission node seen, by node.
+     */
+    private final ConcurrentHashMap<Permission, Integer> indices = new ConcurrentHashMap<>();
+
+    /**
+     * Next index to hand out.
+     */
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    /**
+     * Cached decisions, by user id.
+     */
+    private final ConcurrentHashMap<Object, Decisions> users = new ConcurrentHashMap<>();
+
+    /**
+     * Epoch of all users' decisions.
+     */
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * Number of slots per user, rounded up to a power of two. {@code 0} disables the cache.
+     */
+    private final @NotNull IntSupplier size;
+
+    /**
+     * Time after which the decisions of a user that checked nothing are evicted.
+     */
+    private final @NotNull Supplier<Duration> idle;
+
+    /**
+     * The timer that evicts users.
+     */
+    private final @NotNull ScheduledExecutorService timer;
+
+    /**
+     * Create a new cache, evicting users on the shared {@link EdictExecutors#timer() timer}.
+     * @param size supplier of the number of slots per user, {@code 0} disables the cache
+     * @param idle supplier of the time after which the decisions of a user that checked nothing are evicted
+     */
+    public PermissionCache(@NotNull IntSupplier size, @NotNull Supplier<Duration> idle) {
+        this(size, idle, EdictExecutors.timer());
+    }
+
+    /**
+     * Create a new cache.
+     * @param size supplier of the number of slots per user, {@code 0} disables the cache
+     * @param idle supplier of the time after which the decisions of a user that checked nothing are evicted
+     * @param timer the timer that evicts users
+     */
+    public PermissionCache(@NotNull IntSupplier size, @NotNull Supplier<Duration> idle, @NotNull ScheduledExecutorService timer) {
+        this.size = size;
+        this.idle = idle;
+        this.timer = timer;
+    }
+
+    /**
+     * Check whether a user has a permission, using the cached decision if there is one.
+     * @param user the user
+     * @param permission the permission node
+     * @return true if permission is granted
+     */
+    public boolean check(@NotNull User user, @NotNull Permission permission) {
+        int slots = size.getAsInt();
+        if (slots <= 0) {
+            return user.hasPermission(permission);
+        }
+        int index = index(permission);
+        AtomicIntegerArray table = decisions(user).table(epoch.get(), slots);
+        int slot = index & (table.length() - 1);
+        int entry = table.get(slot);
+        if (entry >>> 1 == index + 1) {
+            return (entry & 1) == 1;
+        }
+        boolean granted = user.hasPermission(permission);
+        // Written to the table taken before the check, so a decision made while an epoch is bumped is never kept
+        table.set(slot, (index + 1) << 1 | (granted ? 1 : 0));
+        return granted;
+    }
+
+    /**
+     * Invalidate the decisions of all users, by bumping the global epoch.
+     */
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+    }
+
+    /**
+     * Invalidate the decisions of a user, by bumping their epoch.
+     * The epoch is bumped even if the user has no cached decisions, so anything else keyed by it (like suggestion sessions) is invalidated too.
+     * @param user the user
+     */
+    public void invalidate(@NotNull User user) {
+        decisions(user).epoch.incrementAndGet();
+    }
+
+    /**
+     * Get the global epoch.
+     * @return the epoch
+     */
+    public long getEpoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Get the epoch of a user.
+     * @param user the user
+     * @return the epoch, or {@code 0} if nothing is kept for the user
+     */
+    public long getEpoch(@NotNull User user) {
+        Decisions decisions = users.get(user.id());
+        return decisions == null ? 0 : decisions.epoch.get();
+    }
+
+    /**
+     * Get the number of users with cached decisions.
+     * @return the number of users
+     */
+    public int size() {
+        return users.size();
+    }
+
+    /**
+     * Get the dense index of a permission node, handing out a new one if it has none.
+     * @param permission the permission node
+     * @return the index
+     */
+    private int index(@NotNull Permission permission) {
+        Integer index = indices.get(permission);
+        return index != null ? index : indices.computeIfAbsent(permission, p -> nextIndex.getAndIncrement());
+    }
+
+    /**
+     * Get the decisions of a user, creating them if there are none.
+     * @param user the user
+     * @return the decisions
+     */
+    private @NotNull Decisions decisions(@NotNull User user) {
+        Object id = user.id();
+        Decisions decisions = users.get(id);
+        if (decisions == null) {
+            decisions = users.computeIfAbsent(id, k -> {
+                Decisions created = new Decisions();
+                scheduleEviction(id, created, idle.get().toNanos());
+                return created;
+            });
+        }
+        decisions.lastUsed = System.nanoTime();
+        return decisions;
+    }
+
+    /**
+     * Schedule a check whether a user is idle, which evicts their decisions if they are, or checks again when they may be.
+     * @param id the user id
+     * @param decisions the decisions of the user
+     * @param delay the delay before checking, in nanoseconds
+     */
+    private void scheduleEviction(@NotNull Object id, @NotNull Decisions decisions, long delay) {
+        timer.schedule(() -> {
+            long remaining = idle.get().toNanos() - (System.nanoTime() - decisions.lastUsed);
+            if (remaining <= 0) {
+                users.remove(id, decisions);
+            } else if (users.get(id) == decisions) {
+                scheduleEviction(id, decisions, remaining);
+            }
+        }, delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Cached decisions of a single user.
+     */
+    private static class Decisions {
+
+        /**
+         * Epoch of this user's decisions.
+         */
+        private final AtomicLong epoch = new AtomicLong();
+
+        /**
+         * Current table of decisions.
+         */
+        private volatile Table table = new Table(-1, -1, new AtomicIntegerArray(0));
+
+        /**
+         * When the decisions were last used, in {@link System#nanoTime()}.
+         */
+        private volatile long lastUsed = System.nanoTime();
+
+        /**
+         * Get the table of decisions for the current epochs, replacing it with an empty one if it is outdated.
+         * @param global the global epoch
+         * @param slots the number of slots
+         * @return the table. Each slot holds {@code (index + 1) << 1 | granted}, or {@code 0} if it is empty
+         */
+        private @NotNull AtomicIntegerArray table(long global, int slots) {
+            Table current = table;
+            long own = epoch.get();
+            int length = Math.max(1, Integer.highestOneBit(slots - 1) << 1);
+            if (current.global != global || current.own != own || current.slots.length() != length) {
+                current = new Table(global, own, new AtomicIntegerArray(length));
+                table = current;
+            }
+            return current.slots;
+        }
+    }
+
+    /**
+     * Table of decisions, valid for a global and user epoch.
+     * @param global the global epoch
+     * @param own the user epoch
+     * @param slots the decisions
+     */
+    private record Table(long global, long own, @NotNull AtomicIntegerArray slots) {}
+}
@@ -0,0 +1,23 @@
+package art.arcane.edict.permission;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Default permission node, made by the default permission factory of Edict.
+ * Nodes with the same parent and name are equal, so a node is the same across rebuilds of the command tree.
+ * @param parent the parent permission node, or {@code null} if this is a root node
+ * @param name the name of the node, from {@link art.arcane.edict.api.Command#permission()}
+ */
+public record PermissionNode(@Nullable Permission parent, @NotNull String name) implements Permission {
+
+    @Override
+    public @Nullable Permission getParent() {
+        return parent;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,211 @@
+package art.arcane.edict.processor;
+
+import art.arcane.edict.api.Command;
+import art.arcane.edict.descriptor.CommandDescriptor;
+import art.arcane.edict.descriptor.Descriptors;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Annotation processor generating a {@link CommandDescriptor} for every {@link Command @Command} class.<br>
+ * The descriptor lists the commands and subcategories of the class, and calls them directly where they are not private,
+ * so building the command tree neither scans the class nor makes method handles for its commands.
+ * Classes without a descriptor (e.g. compiled without this processor, or private) are still loaded through reflection.
+ */
+@SupportedAnnotationTypes("art.arcane.edict.api.Command")
+public class CommandProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(Command.class))) {
+            if (type.getKind() != ElementKind.CLASS || !isVisible(type)) {
+                continue;
+            }
+            String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+            String name = Descriptors.nameFor(processingEnv.getElementUtils().getBinaryName(type).toString(), packageName);
+            try (Writer writer = processingEnv.getFiler().createSourceFile(name, type).openWriter()) {
+                writer.write(generate(type, packageName, name.substring(name.lastIndexOf('.') + 1)));
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Could not generate the Edict descriptor of " + type + ": " + e, type);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Generate the source of the descriptor of a command class.
+     * @param type the command class
+     * @param packageName the package of the class
+     * @param simpleName the simple name of the descriptor
+     * @return the source
+     */
+    private @NotNull String generate(@NotNull TypeElement type, @NotNull String packageName, @NotNull String simpleName) {
+        String typeName = erasure(type.asType());
+        List<String> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (method.getAnnotation(Command.class) != null) {
+                methods.add(method(typeName, method));
+            }
+        }
+        List<String> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.asType().getKind() == TypeKind.DECLARED
+                    && ((DeclaredType) field.asType()).asElement().getAnnotation(Command.class) != null) {
+                fields.add(field(typeName, field));
+            }
+        }
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(CommandProcessor.class.getName()).append("\")\n")
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(simpleName).append(" implements art.arcane.edict.descriptor.CommandDescriptor<").append(typeName).append("> {\n\n")
+                .append("    private static final java.util.List<art.arcane.edict.descriptor.MethodDescriptor<").append(typeName).append(">> METHODS = java.util.List.of(")
+                .append(String.join(",", methods)).append(methods.isEmpty() ? ");\n\n" : "\n    );\n\n")
+                .append("    private static final java.util.List<art.arcane.edict.descriptor.FieldDescriptor<").append(typeName).append(">> FIELDS = java.util.List.of(")
+                .append(String.join(",", fields)).append(fields.isEmpty() ? ");\n\n" : "\n    );\n\n")
+                .append("    @Override\n")
+                .append("    public Class<").append(typeName).append("> type() {\n")
+                .append("        return ").append(typeName).append(".class;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.List<art.arcane.edict.descriptor.MethodDescriptor<").append(typeName).append(">> methods() {\n")
+                .append("        return METHODS;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.List<art.arcane.edict.descriptor.FieldDescriptor<").append(typeName).append(">> fields() {\n")
+                .append("        return FIELDS;\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * Generate the descriptor of a command method.
+     * @param typeName the name of the command class
+     * @param method the method
+     * @return the source of the descriptor
+     */
+    private @NotNull String method(@NotNull String typeName, @NotNull ExecutableElement method) {
+        List<String> types = new ArrayList<>();
+        List<String> arguments = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            String erasure = erasure(parameter.asType());
+            types.add(erasure + ".class");
+            TypeMirror boxed = parameter.asType().getKind().isPrimitive()
+                    ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) parameter.asType()).asType()
+                    : parameter.asType();
+            arguments.add("(" + erasure(boxed) + ") arguments[" + arguments.size() + "]");
+        }
+        String invoker = "null";
+        if (!method.getModifiers().contains(Modifier.PRIVATE)) {
+            String call = (method.getModifiers().contains(Modifier.STATIC) ? typeName : "instance")
+                    + "." + method.getSimpleName() + "(" + String.join(", ", arguments) + ")";
+            invoker = method.getReturnType().getKind() == TypeKind.VOID
+                    ? "instance -> arguments -> {\n                " + call + ";\n                return null;\n            }"
+                    : "instance -> arguments -> " + call;
+        }
+        return "\n        new art.arcane.edict.descriptor.MethodDescriptor<>(\"" + method.getSimpleName() + "\", new Class<?>[]{"
+                + String.join(", ", types) + "},\n            " + invoker + ")";
+    }
+
+    /**
+     * Generate the descriptor of a subcategory field.
+     * @param typeName the name of the command class
+     * @param field the field
+     * @return the source of the descriptor
+     */
+    private @NotNull String field(@NotNull String typeName, @NotNull VariableElement field) {
+        String getter = "null";
+        if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+            getter = "instance -> " + (field.getModifiers().contains(Modifier.STATIC) ? typeName : "instance") + "." + field.getSimpleName();
+        }
+        TypeElement fieldType = (TypeElement) ((DeclaredType) field.asType()).asElement();
+        String constructor = "null";
+        if (isConstructible(fieldType)) {
+            constructor = "() -> new " + erasure(fieldType.asType()) + "()";
+        }
+        return "\n        new art.arcane.edict.descriptor.FieldDescriptor<>(\"" + field.getSimpleName() + "\", " + getter + ", " + constructor + ")";
+    }
+
+    /**
+     * Whether a class and all classes enclosing it can be accessed from its own package, so its descriptor can refer to it.
+     * @param type the class
+     * @return true if the class is visible
+     */
+    private boolean isVisible(@NotNull TypeElement type) {
+        Element element = type;
+        while (element instanceof TypeElement typeElement) {
+            if (typeElement.getNestingKind() == NestingKind.LOCAL || typeElement.getNestingKind() == NestingKind.ANONYMOUS
+                    || typeElement.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
+    }
+
+    /**
+     * Whether a field type can be constructed by a descriptor. The same as what reflection accepts:
+     * a public constructor without parameters, on a public class that can be constructed without an enclosing instance.
+     * @param type the field type
+     * @return true if the descriptor can construct it
+     */
+    private boolean isConstructible(@NotNull TypeElement type) {
+        Element element = type;
+        while (element instanceof TypeElement typeElement) {
+            if (!typeElement.getModifiers().contains(Modifier.PUBLIC)
+                    || (typeElement.getNestingKind() == NestingKind.MEMBER && !typeElement.getModifiers().contains(Modifier.STATIC) && typeElement.getKind() == ElementKind.CLASS)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the name of the erasure of a type, as it is written in source.
+     * @param type the type
+     * @return the name
+     */
+    private @NotNull String erasure(@NotNull TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+}
@@ -0,0 +1,536 @@
+package art.arcane.edict.snapshot;
+
+import art.arcane.edict.Edict;
+import art.arcane.edict.api.Command;
+import art.arcane.edict.message.StringMessage;
+import art.arcane.edict.virtual.VClass;
+import art.arcane.edict.virtual.VCommandable;
+import art.arcane.edict.virtual.VMethod;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Parameter;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Binary snapshot of a built command tree, so later starts with unchanged command classes skip finding their commands.<br>
+ * The snapshot holds the shape of the tree: for every category, the class it was built from, and its children in order
+ * (commands by method name and parameter types, with the handler bound to each parameter, and subcategories by field name).
+ * It is keyed by a hash of the bytes of every class in the tree and of the registered handlers, so any change to those invalidates it.<br>
+ * Methods, annotations, handlers and permissions are live objects, so restoring still looks up each method and field by name,
+ * makes the permissions and fills the indexes. It does not scan the classes.
+ */
+public final class TreeSnapshot {
+
+    /**
+     * Magic number at the start of snapshot files ({@code EDCT}).
+     */
+    private static final int MAGIC = 0x45444354;
+
+    /**
+     * Version of the snapshot format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The least number of bytes a node takes: the length of its class name, its kind and its number of entries.
+     */
+    private static final int NODE_BYTES = Integer.BYTES + 1 + Integer.BYTES;
+
+    /**
+     * The least number of bytes an entry takes: its tag and the length of its name.
+     */
+    private static final int ENTRY_BYTES = 1 + Integer.BYTES;
+
+    /**
+     * Names of the primitive types, which {@link Class#forName(String)} does not find.
+     */
+    private static final Map<String, Class<?>> PRIMITIVES = Map.of(
+            "boolean", boolean.class, "byte", byte.class, "char", char.class, "short", short.class,
+            "int", int.class, "long", long.class, "float", float.class, "double", double.class
+    );
+
+    /**
+     * The nodes of the roots, in order.
+     */
+    private final @NotNull List<Node> roots;
+
+    /**
+     * The key the snapshot was written with.
+     */
+    private final long key;
+
+    /**
+     * Create a snapshot.
+     * @param roots the nodes of the roots, in order
+     * @param key the key of the snapshot
+     */
+    public TreeSnapshot(@NotNull List<Node> roots, long key) {
+        this.roots = roots;
+        this.key = key;
+    }
+
+    /**
+     * Get the nodes of the roots.
+     * @return the nodes, in order
+     */
+    public @NotNull List<Node> getRoots() {
+        return roots;
+    }
+
+    /**
+     * Get the key the snapshot was written with.
+     * @return the key
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Get the snapshot file of a set of roots.
+     * @param directory the directory of snapshots
+     * @param roots the root instances
+     * @return the file, named after a hash of the names of the root classes
+     */
+    public static @NotNull Path fileFor(@NotNull Path directory, @NotNull List<Object> roots) {
+        StringBuilder names = new StringBuilder();
+        for (Object root : roots) {
+            names.append(root.getClass().getName()).append(';');
+        }
+        return directory.resolve("edict-" + Long.toHexString(hash(names.toString().getBytes(StandardCharsets.UTF_8))) + ".snapshot");
+    }
+
+    /**
+     * Restore the command tree from a snapshot file, if it exists and matches the roots, classes and handlers of a system.
+     * @param file the snapshot file
+     * @param roots the root instances
+     * @param system the system
+     * @return the restored roots (with {@code null} for roots that were not built), or {@code null} if the snapshot cannot be used
+     */
+    public static @Nullable List<@Nullable VCommandable> load(@NotNull Path file, @NotNull List<Object> roots, @NotNull Edict system) {
+        TreeSnapshot snapshot;
+        try {
+            snapshot = read(file);
+        } catch (NoSuchFileException e) {
+            system.d(() -> new StringMessage("No command tree snapshot at " + file));
+            return null;
+        } catch (IOException | RuntimeException e) {
+            system.w(new StringMessage("Could not read command tree snapshot " + file + " due to " + e));
+            return null;
+        }
+        try {
+            if (snapshot.roots.size() != roots.size() || snapshot.key != key(snapshot.roots, system, loaderOf(roots))) {
+                system.d(() -> new StringMessage("Command tree snapshot " + file + " is outdated"));
+                return null;
+            }
+            List<VCommandable> restored = new ArrayList<>();
+            for (int i = 0; i < roots.size(); i++) {
+                restored.add(VClass.restore(roots.get(i), null, null, snapshot.roots.get(i), system));
+            }
+            return restored;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            system.d(() -> new StringMessage("Command tree snapshot " + file + " does not match: " + e));
+            return null;
+        }
+    }
+
+    /**
+     * Write a snapshot of a built command tree to a file. The file is replaced atomically, where the file system allows it.
+     * @param file the snapshot file
+     * @param roots the root instances
+     * @param built the built roots, with {@code null} for roots that were not built
+     * @param system the system
+     * @return true if the snapshot was written
+     */
+    public static boolean save(@NotNull Path file, @NotNull List<Object> roots, @NotNull List<@Nullable VCommandable> built, @NotNull Edict system) {
+        try {
+            List<Node> nodes = new ArrayList<>();
+            for (int i = 0; i < roots.size(); i++) {
+                nodes.add(capture(roots.get(i), built.get(i)));
+            }
+            new TreeSnapshot(nodes, key(nodes, system, loaderOf(roots))).write(file);
+            system.d(() -> new StringMessage("Wrote command tree snapshot " + file));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            system.w(new StringMessage("Could not write command tree snapshot " + file + " due to " + e));
+            return false;
+        }
+    }
+
+    /**
+     * Resolve a type by the name {@link Class#getName()} gives it.
+     * @param name the name of the type
+     * @param loader the class loader to load it with
+     * @return the type
+     * @throws ClassNotFoundException if there is no such type
+     */
+    public static @NotNull Class<?> type(@NotNull String name, @Nullable ClassLoader loader) throws ClassNotFoundException {
+        Class<?> primitive = PRIMITIVES.get(name);
+        return primitive != null ? primitive : Class.forName(name, false, loader);
+    }
+
+    /**
+     * Read a snapshot file. It is read into memory at once rather than mapped, so it can be replaced right after, even on Windows.
+     * @param file the file
+     * @return the snapshot
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if the file is not a snapshot of this version, or is damaged
+     */
+    public static @NotNull TreeSnapshot read(@NotNull Path file) throws IOException, IllegalStateException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IllegalStateException("Not a version " + VERSION + " snapshot");
+            }
+            long key = buffer.getLong();
+            int count = readCount(buffer, NODE_BYTES);
+            List<Node> roots = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                roots.add(readNode(buffer));
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalStateException("Trailing bytes in snapshot");
+            }
+            return new TreeSnapshot(roots, key);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IllegalStateException("Snapshot is truncated or damaged", e);
+        }
+    }
+
+    /**
+     * Write this snapshot to a file, through a temporary file next to it.
+     * @param file the file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(@NotNull Path file) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(key);
+        out.writeInt(roots.size());
+        for (Node root : roots) {
+            writeNode(out, root);
+        }
+        out.flush();
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporary, bytes.toByteArray());
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Capture the shape of a built root or subcategory.
+     * @param instance the instance it was built from
+     * @param built the built root or subcategory, {@code null} if it was not built
+     * @return the node
+     */
+    static @NotNull Node capture(@NotNull Object instance, @Nullable VCommandable built) {
+        String className = instance.getClass().getName();
+        if (built == null) {
+            return new Node(className, Kind.MISSING, List.of());
+        }
+        if (built instanceof VMethod command) {
+            return new Node(className, Kind.COMMAND, List.of(command(command)));
+        }
+        VClass category = (VClass) built;
+
+        List<Entry> entries = new ArrayList<>();
+        for (VCommandable child : category.children()) {
+            if (child instanceof VMethod command && command.parent() == category) {
+                entries.add(command(command));
+                continue;
+            }
+
+            // Subcategory, or the command of a single command category, by the field it was built from
+            VClass subcategory = child instanceof VClass vClass ? vClass : ((VMethod) child).parent();
+            if (subcategory.field() == null) {
+                throw new IllegalStateException("No field of " + className + " holds " + subcategory.instance().getClass().getName());
+            }
+            entries.add(new FieldEntry(subcategory.field(), capture(subcategory.instance(), child)));
+        }
+        return new Node(className, Kind.CATEGORY, entries);
+    }
+
+    /**
+     * Capture a command.
+     * @param command the command
+     * @return the entry
+     */
+    private static @NotNull CommandEntry command(@NotNull VMethod command) {
+        List<String> types = new ArrayList<>();
+        List<String> handlers = new ArrayList<>();
+        for (Parameter parameter : command.method().getParameters()) {
+            types.add(parameter.getType().getName());
+            handlers.add(command.params().stream()
+                    .filter(param -> param.parameter().equals(parameter))
+                    .map(param -> param.parameterHandler().getClass().getName())
+                    .findFirst()
+                    .orElseThrow());
+        }
+        return new CommandEntry(command.method().getName(), types, handlers);
+    }
+
+    /**
+     * Compute the key of a tree for a system: a hash of the format version, the bytes of every class in the tree, and the handlers of the system.
+     * @param roots the nodes of the roots
+     * @param system the system
+     * @param loader the class loader to find the class files with
+     * @return the key
+     * @throws IllegalStateException if the class file of a class cannot be found, in which case the tree cannot be keyed
+     */
+    static long key(@NotNull List<Node> roots, @NotNull Edict system, @Nullable ClassLoader loader) throws IllegalStateException {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(VERSION);
+            TreeSet<String> classes = new TreeSet<>();
+            for (Node root : roots) {
+                root.classes(classes);
+            }
+            for (String name : classes) {
+                out.writeUTF(name);
+                out.write(classFile(name, loader));
+            }
+            for (Object handler : system.getParameterHandlers()) {
+                out.writeUTF(handler.getClass().getName());
+            }
+            for (Object handler : system.getContextHandlers()) {
+                out.writeUTF(handler.getClass().getName());
+            }
+            out.flush();
+            return hash(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read class files", e);
+        }
+    }
+
+    /**
+     * Get the class loader of the roots.
+     * @param roots the root instances
+     * @return the class loader of the first root, or the context class loader if there are none
+     */
+    private static @Nullable ClassLoader loaderOf(@NotNull List<Object> roots) {
+        return roots.isEmpty() ? Thread.currentThread().getContextClassLoader() : roots.get(0).getClass().getClassLoader();
+    }
+
+    /**
+     * Read the class file of a class.
+     * @param name the name of the class
+     * @param loader the class loader to find it with
+     * @return the bytes of the class file
+     * @throws IOException if it cannot be read
+     * @throws IllegalStateException if there is no class file
+     */
+    private static byte @NotNull [] classFile(@NotNull String name, @Nullable ClassLoader loader) throws IOException, IllegalStateException {
+        String resource = name.replace('.', '/') + ".class";
+        try (InputStream in = loader == null ? ClassLoader.getSystemResourceAsStream(resource) : loader.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("No class file for " + name);
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Hash bytes to a long.
+     * @param bytes the bytes
+     * @return the first 8 bytes of their SHA-256 hash
+     */
+    private static long hash(byte @NotNull [] bytes) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(bytes)).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Write a node and all nodes below it.
+     * @param out the output
+     * @param node the node
+     * @throws IOException if it cannot be written
+     */
+    private static void writeNode(@NotNull DataOutputStream out, @NotNull Node node) throws IOException {
+        writeString(out, node.className());
+        out.writeByte(node.kind().ordinal());
+        out.writeInt(node.entries().size());
+        for (Entry entry : node.entries()) {
+            if (entry instanceof CommandEntry command) {
+                out.writeByte(0);
+                writeString(out, command.method());
+                out.writeInt(command.parameterTypes().size());
+                for (int i = 0; i < command.parameterTypes().size(); i++) {
+                    writeString(out, command.parameterTypes().get(i));
+                    writeString(out, command.handlers().get(i));
+                }
+            } else if (entry instanceof FieldEntry field) {
+                out.writeByte(1);
+                writeString(out, field.field());
+                writeNode(out, field.node());
+            }
+        }
+    }
+
+    /**
+     * Read a node and all nodes below it.
+     * @param buffer the buffer to read from
+     * @return the node
+     * @throws IllegalStateException if the node is damaged
+     */
+    private static @NotNull Node readNode(@NotNull ByteBuffer buffer) throws IllegalStateException {
+        String className = readString(buffer);
+        int kind = buffer.get();
+        if (kind < 0 || kind >= Kind.values().length) {
+            throw new IllegalStateException("Unknown node kind " + kind);
+        }
+        int count = readCount(buffer, ENTRY_BYTES);
+        List<Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte tag = buffer.get();
+            if (tag == 0) {
+                String method = readString(buffer);
+                int parameters = readCount(buffer, 2 * Integer.BYTES);
+                List<String> types = new ArrayList<>(parameters);
+                List<String> handlers = new ArrayList<>(parameters);
+                for (int j = 0; j < parameters; j++) {
+                    types.add(readString(buffer));
+                    handlers.add(readString(buffer));
+                }
+                entries.add(new CommandEntry(method, types, handlers));
+            } else if (tag == 1) {
+                String field = readString(buffer);
+                entries.add(new FieldEntry(field, readNode(buffer)));
+            } else {
+                throw new IllegalStateException("Unknown entry tag " + tag);
+            }
+        }
+        return new Node(className, Kind.values()[kind], entries);
+    }
+
+    /**
+     * Write a string as its length and UTF-8 bytes.
+     * @param out the output
+     * @param string the string
+     * @throws IOException if it cannot be written
+     */
+    private static void writeString(@NotNull DataOutputStream out, @NotNull String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a string written by {@link #writeString(DataOutputStream, String)}.
+     * @param buffer the buffer to read from
+     * @return the string
+     * @throws IllegalStateException if the length does not fit in the rest of the buffer
+     */
+    private static @NotNull String readString(@NotNull ByteBuffer buffer) throws IllegalStateException {
+        byte[] bytes = new byte[readCount(buffer, 1)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read a length or count, checking that that many elements fit in the rest of the buffer before anything is allocated for them.
+     * @param buffer the buffer to read from
+     * @param elementBytes the least number of bytes each element takes
+     * @return the count
+     * @throws IllegalStateException if the count is negative or does not fit in the rest of the buffer
+     */
+    private static int readCount(@NotNull ByteBuffer buffer, int elementBytes) throws IllegalStateException {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / elementBytes) {
+            throw new IllegalStateException("Count " + count + " does not fit in the " + buffer.remaining() + " remaining bytes");
+        }
+        return count;
+    }
+
+    /**
+     * What a root or subcategory was built into.
+     */
+    public enum Kind {
+        /**
+         * Nothing, e.g. because it was empty.
+         */
+        MISSING,
+        /**
+         * A category, with all its entries as children.
+         */
+        CATEGORY,
+        /**
+         * The single command of a {@link Command#singleCommandCategory()}.
+         */
+        COMMAND
+    }
+
+    /**
+     * A root or subcategory.
+     * @param className the name of the class it was built from
+     * @param kind what it was built into
+     * @param entries the children in order, or the single command
+     */
+    public record Node(@NotNull String className, @NotNull Kind kind, @NotNull List<Entry> entries) {
+
+        /**
+         * Add the names of the classes of this node and all nodes below it.
+         * @param classes the set to add the names to
+         */
+        private void classes(@NotNull TreeSet<String> classes) {
+            classes.add(className);
+            for (Entry entry : entries) {
+                if (entry instanceof FieldEntry field) {
+                    field.node().classes(classes);
+                }
+            }
+        }
+    }
+
+    /**
+     * A child of a node.
+     */
+    public sealed interface Entry permits CommandEntry, FieldEntry {}
+
+    /**
+     * A command.
+     * @param method the name of the method
+     * @param parameterTypes the names of the parameter types of the method, in order
+     * @param handlers the names of the {@link art.arcane.edict.handler.ParameterHandler} classes bound to the parameters, in order
+     */
+    public record CommandEntry(@NotNull String method, @NotNull List<String> parameterTypes, @NotNull List<String> handlers) implements Entry {}
+
+    /**
+     * A subcategory.
+     * @param field the name of the field holding it
+     * @param node the subcategory
+     */
+    public record FieldEntry(@NotNull String field, @NotNull Node node) implements Entry {}
+}
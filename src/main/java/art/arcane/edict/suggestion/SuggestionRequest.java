@@ -0,0 +1,68 @@
+package art.arcane.edict.suggestion;
+
+import art.arcane.edict.context.SuggestionContext;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handle of a suggestion request, returned by {@link art.arcane.edict.Edict#suggest(String, art.arcane.edict.user.User, java.util.function.Consumer, boolean)}.<br>
+ * A request is cancelled when it is {@link #cancel() cancelled} explicitly, or when a newer request of the same user supersedes it.
+ * The suggestion code checks for cancellation between steps ({@link #checkCurrent()}), and a cancelled request never outputs its suggestions.
+ */
+public class SuggestionRequest {
+
+    /**
+     * Request states.
+     */
+    private static final int RUNNING = 0, DONE = 1, CANCELLED = 2;
+
+    /**
+     * The state of the request.
+     */
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+
+    /**
+     * Cancel the request, if it is not done yet.
+     * @return true if the request is now cancelled
+     */
+    public boolean cancel() {
+        return state.compareAndSet(RUNNING, CANCELLED) || state.get() == CANCELLED;
+    }
+
+    /**
+     * Mark the request done, if it is not cancelled.
+     * @return true if the request was running and is now done, and may output its suggestions
+     */
+    public boolean complete() {
+        return state.compareAndSet(RUNNING, DONE);
+    }
+
+    /**
+     * Whether the request is cancelled.
+     * @return true if it is cancelled
+     */
+    public boolean isCancelled() {
+        return state.get() == CANCELLED;
+    }
+
+    /**
+     * Whether the request is done, and output its suggestions.
+     * @return true if it is done
+     */
+    public boolean isDone() {
+        return state.get() == DONE;
+    }
+
+    /**
+     * Stop the current thread's suggestion work if its request (in the {@link SuggestionContext}) was cancelled.
+     * Does nothing outside of suggestion requests.
+     * @throws CancellationException if the current request was cancelled
+     */
+    public static void checkCurrent() throws CancellationException {
+        SuggestionRequest request = SuggestionContext.INSTANCE.get();
+        if (request != null && request.isCancelled()) {
+            throw new CancellationException("Suggestion request was cancelled");
+        }
+    }
+}
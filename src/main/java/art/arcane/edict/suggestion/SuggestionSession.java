@@ -0,0 +1,169 @@
+package art.arcane.edict.suggestion;
+
+import art.arcane.edict.parser.Token;
+import art.arcane.edict.permission.PermissionCache;
+import art.arcane.edict.user.User;
+import art.arcane.edict.util.BKTreeIndexer;
+import art.arcane.edict.virtual.VClass;
+import art.arcane.edict.virtual.VCommandable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Suggestion state of a single user, kept between keystrokes.<br>
+ * Remembers which commandables the words of the previous input led to. When the next input starts with the same words,
+ * only the words after those are resolved, so typing a command word by word resolves each word about once.
+ */
+public class SuggestionSession {
+
+    /**
+     * Token texts of the words resolved so far. Word {@code i} led to {@code levels[i]}.
+     */
+    private final List<String> path = new ArrayList<>();
+
+    /**
+     * Commandables reached after resolving each word of the {@link #path}.
+     */
+    private final List<List<Step>> levels = new ArrayList<>();
+
+    /**
+     * The index of the roots the {@link #levels} were resolved against, {@code null} if none were resolved.
+     */
+    private BKTreeIndexer rootIndex = null;
+
+    /**
+     * Global and user {@link PermissionCache} epochs the {@link #levels} were resolved with.
+     */
+    private long globalEpoch = -1, userEpoch = -1;
+
+    /**
+     * Time this session was last used, in {@link System#nanoTime()}.
+     */
+    private volatile long lastUsed = System.nanoTime();
+
+    /**
+     * Number of words resolved by this session.
+     */
+    private long resolved = 0;
+
+    /**
+     * The latest suggestion request of the user.
+     */
+    private final AtomicReference<SuggestionRequest> current = new AtomicReference<>();
+
+    /**
+     * Commandable reached while resolving the input.
+     * @param commandable the commandable
+     * @param consumed the number of input tokens used to reach it.
+     *                 The remaining tokens are to be passed to {@link VCommandable#suggest(List, User, int)}
+     */
+    public record Step(@NotNull VCommandable commandable, int consumed) {}
+
+    /**
+     * Resolve the commandables the input leads to, before suggesting on the last token.
+     * The first token is searched for in the roots. Every further token but the last is searched for in the children of the categories it follows.
+     * Commandables that are not categories (and categories followed by a blank token) are kept as they are, with the tokens after them left for their suggestions.
+     * Levels are filtered by permission, so all of them are resolved again once either of the user's {@link PermissionCache} epochs changed.
+     * They are also resolved again if the roots changed, even if this session was made for the old roots.
+     * @param input the input tokens. Must not be empty
+     * @param rootIndex the index of the current roots, which is replaced whenever roots are (un)registered
+     * @param roots function searching the root commandables in the {@code rootIndex} for a token's text
+     * @param user the user that wants the suggestions
+     * @param permissions the permission cache whose epochs invalidate the resolved levels
+     * @return the commandables, in the order their suggestions should be listed. Empty if the first token matches no root
+     */
+    public synchronized @NotNull List<Step> resolve(@NotNull List<Token> input, @NotNull BKTreeIndexer rootIndex, @NotNull Function<String, List<VCommandable>> roots, @NotNull User user, @NotNull PermissionCache permissions) {
+        lastUsed = System.nanoTime();
+        int last = Math.max(0, input.size() - 2);
+
+        // Read before resolving, so a bump while resolving invalidates the levels for the next input
+        long global = permissions.getEpoch();
+        long own = permissions.getEpoch(user);
+        if (rootIndex != this.rootIndex || global != globalEpoch || own != userEpoch) {
+            path.clear();
+            levels.clear();
+            this.rootIndex = rootIndex;
+            globalEpoch = global;
+            userEpoch = own;
+        }
+
+        // Keep the levels of the words that did not change
+        int keep = 0;
+        while (keep < path.size() && keep <= last && path.get(keep).equals(input.get(keep).text())) {
+            keep++;
+        }
+        path.subList(keep, path.size()).clear();
+        levels.subList(keep, levels.size()).clear();
+
+        // Resolve the words that did
+        for (int level = keep; level <= last; level++) {
+            SuggestionRequest.checkCurrent();
+            Token token = input.get(level);
+            int consumed = level + 1;
+            List<Step> steps = new ArrayList<>();
+            if (level == 0) {
+                roots.apply(token.text()).forEach(root -> steps.add(new Step(root, 1)));
+            } else {
+                for (Step step : levels.get(level - 1)) {
+                    if (step.consumed() == level && step.commandable() instanceof VClass category && !token.value().isBlank()) {
+                        category.indexer().search(
+                                token.text(),
+                                category.system().getSettings().matchThreshold,
+                                vCommandable -> category.system().hasPermission(user, vCommandable)
+                        ).forEach(child -> steps.add(new Step(child, consumed)));
+                    } else {
+                        steps.add(step);
+                    }
+                }
+            }
+            path.add(token.text());
+            levels.add(Collections.unmodifiableList(steps));
+            resolved++;
+        }
+
+        return levels.get(last);
+    }
+
+    /**
+     * Make a request the user's latest, cancelling the one before it.
+     * @param request the new request
+     */
+    public void supersede(@NotNull SuggestionRequest request) {
+        lastUsed = System.nanoTime();
+        SuggestionRequest previous = current.getAndSet(request);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * Forget the resolved words, releasing the parts of the command tree they hold on to.
+     * The latest request stays tracked, so the next one of the user still cancels it.
+     */
+    public synchronized void reset() {
+        path.clear();
+        levels.clear();
+        rootIndex = null;
+    }
+
+    /**
+     * Time this session was last used.
+     * @return the time, in {@link System#nanoTime()}
+     */
+    public long getLastUsed() {
+        return lastUsed;
+    }
+
+    /**
+     * Number of words resolved by this session, over all inputs.
+     * @return the number of resolved words
+     */
+    public synchronized long getResolved() {
+        return resolved;
+    }
+}
@@ -0,0 +1,102 @@
+package art.arcane.edict.suggestion;
+
+import art.arcane.edict.user.User;
+import art.arcane.edict.util.EdictExecutors;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Registry of {@link SuggestionSession}s, one per {@link User#id() user id}.
+ * Sessions are evicted once they have not been used for the idle time.
+ */
+public class SuggestionSessions {
+
+    /**
+     * The sessions, by user id.
+     */
+    private final ConcurrentHashMap<Object, SuggestionSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Time after which an unused session is evicted.
+     */
+    private final @NotNull Supplier<Duration> idle;
+
+    /**
+     * The timer that evicts sessions.
+     */
+    private final @NotNull ScheduledExecutorService timer;
+
+    /**
+     * Create a new registry, evicting sessions on the shared {@link EdictExecutors#timer() timer}.
+     * @param idle supplier of the time after which an unused session is evicted
+     */
+    public SuggestionSessions(@NotNull Supplier<Duration> idle) {
+        this(idle, EdictExecutors.timer());
+    }
+
+    /**
+     * Create a new registry.
+     * @param idle supplier of the time after which an unused session is evicted
+     * @param timer the timer that evicts sessions
+     */
+    public SuggestionSessions(@NotNull Supplier<Duration> idle, @NotNull ScheduledExecutorService timer) {
+        this.idle = idle;
+        this.timer = timer;
+    }
+
+    /**
+     * Get the session of a user, starting a new one if there is none.
+     * @param user the user
+     * @return the session
+     */
+    public @NotNull SuggestionSession get(@NotNull User user) {
+        Object id = user.id();
+        SuggestionSession session = sessions.get(id);
+        if (session != null) {
+            return session;
+        }
+        return sessions.computeIfAbsent(id, k -> {
+            SuggestionSession created = new SuggestionSession();
+            scheduleEviction(id, created, idle.get().toNanos());
+            return created;
+        });
+    }
+
+    /**
+     * Get the number of sessions.
+     * @return the number of sessions
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * {@link SuggestionSession#reset() Reset} all sessions. Must be done when the command tree changes, since sessions hold on to parts of it.
+     * The sessions themselves are kept, so requests in flight can still be cancelled by the next request of their user.
+     */
+    public void reset() {
+        sessions.values().forEach(SuggestionSession::reset);
+    }
+
+    /**
+     * Schedule a check whether a session is idle, which evicts it if it is, or checks again when it may be.
+     * @param id the user id
+     * @param session the session
+     * @param delay the delay before checking, in nanoseconds
+     */
+    private void scheduleEviction(@NotNull Object id, @NotNull SuggestionSession session, long delay) {
+        timer.schedule(() -> {
+            long remaining = idle.get().toNanos() - (System.nanoTime() - session.getLastUsed());
+            if (remaining <= 0) {
+                sessions.remove(id, session);
+            } else if (sessions.get(id) == session) {
+                scheduleEviction(id, session, remaining);
+            }
+        }, delay, TimeUnit.NANOSECONDS);
+    }
+}
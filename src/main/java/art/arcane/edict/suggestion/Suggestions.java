@@ -0,0 +1,136 @@
+package art.arcane.edict.suggestion;
+
+import art.arcane.edict.util.BKTreeIndexer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Bounded collection of the best suggestions for what the user is typing.<br>
+ * Keeps at most {@code limit} suggestions in a heap with the worst on top, ranked by how well they match the typed text, and then by name.
+ * Suggestions that cannot beat the worst one kept are dropped without computing their full match distance.
+ */
+public class Suggestions {
+
+    /**
+     * Order of suggestions, best first.
+     */
+    private static final Comparator<Ranked> BEST_FIRST = Comparator.comparingInt(Ranked::score).thenComparing(Ranked::suggestion);
+
+    /**
+     * The (lowercase) text the user is typing.
+     */
+    private final @NotNull String typed;
+
+    /**
+     * The maximum number of suggestions.
+     */
+    private final int limit;
+
+    /**
+     * The suggestions kept, worst first.
+     */
+    private final PriorityQueue<Ranked> heap;
+
+    /**
+     * The suggestions kept.
+     */
+    private final Set<String> kept = new HashSet<>();
+
+    /**
+     * Suggestion with its match score (lower is better).
+     * @param suggestion the suggestion
+     * @param score the score
+     */
+    private record Ranked(@NotNull String suggestion, int score) {}
+
+    /**
+     * Create a new collection.
+     * @param typed the text the user is typing, which suggestions are ranked against
+     * @param limit the maximum number of suggestions
+     */
+    public Suggestions(@NotNull String typed, int limit) {
+        this.typed = typed.trim().toLowerCase(Locale.ROOT);
+        this.limit = Math.max(1, limit);
+        this.heap = new PriorityQueue<>(Math.min(this.limit, 64) + 1, BEST_FIRST.reversed());
+    }
+
+    /**
+     * Offer a suggestion.
+     * @param suggestion the suggestion
+     * @return true if the suggestion was kept
+     */
+    public boolean add(@NotNull String suggestion) {
+        if (kept.contains(suggestion)) {
+            return false;
+        }
+        Ranked worst = heap.size() < limit ? null : heap.peek();
+        int score = score(suggestion, worst == null ? Integer.MAX_VALUE : worst.score());
+        Ranked ranked = new Ranked(suggestion, score);
+        if (worst != null) {
+            if (BEST_FIRST.compare(ranked, worst) >= 0) {
+                return false;
+            }
+            heap.poll();
+            kept.remove(worst.suggestion());
+        }
+        heap.add(ranked);
+        kept.add(suggestion);
+        return true;
+    }
+
+    /**
+     * Offer suggestions.
+     * @param suggestions the suggestions
+     */
+    public void addAll(@NotNull Collection<String> suggestions) {
+        for (String suggestion : suggestions) {
+            add(suggestion);
+        }
+    }
+
+    /**
+     * Whether no suggestions were kept.
+     * @return true if there are none
+     */
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * Get the suggestions kept, best first.
+     * @return the suggestions
+     */
+    public @NotNull List<String> toList() {
+        List<Ranked> ranked = new ArrayList<>(heap);
+        ranked.sort(BEST_FIRST);
+        List<String> suggestions = new ArrayList<>(ranked.size());
+        for (Ranked r : ranked) {
+            suggestions.add(r.suggestion());
+        }
+        return suggestions;
+    }
+
+    /**
+     * Score how well a suggestion matches the typed text: 0 if it starts with it, 1 if it contains it, and otherwise 2 plus the edit distance.
+     * @param suggestion the suggestion
+     * @param bound the highest score of interest
+     * @return the score, or more than {@code bound} if it exceeds the {@code bound}
+     */
+    private int score(@NotNull String suggestion, int bound) {
+        if (typed.isEmpty()) {
+            return 0;
+        }
+        String lower = suggestion.toLowerCase(Locale.ROOT);
+        if (lower.startsWith(typed)) {
+            return 0;
+        }
+        if (lower.contains(typed)) {
+            return 1;
+        }
+        if (bound < 2) {
+            return bound + 1;
+        }
+        return 2 + BKTreeIndexer.damerauLevenshtein(lower, typed, bound == Integer.MAX_VALUE ? bound : bound - 2);
+    }
+}
@@ -2,18 +2,90 @@ package art.arcane.edict.user;
 
 
 import art.arcane.edict.message.Message;
+import art.arcane.edict.util.AsyncAppender;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
 /**
- * System user implementation. By default, sends to System.out.
+ * System user implementation. By default, sends info and warnings to System.out, through the {@link AsyncAppender#console()}.<br>
+ * Messages below the {@link #getLevel() level} are dropped. Use the {@link Supplier} overloads of {@link #i}, {@link #w} and {@link #d}
+ * so dropped messages are never built.
  */
 public class SystemUser implements User {
 
     /**
-     * Create a new system user.
+     * Levels of system messages, from most to least verbose.
+     */
+    public enum Level {
+        DEBUG,
+        INFO,
+        WARNING,
+        /**
+         * No messages at all.
+         */
+        OFF
+    }
+
+    /**
+     * Lowest level of messages that are sent.
+     */
+    private volatile @NotNull Level level;
+
+    /**
+     * Where sent messages are written to.
+     */
+    private final @NotNull Consumer<String> output;
+
+    /**
+     * Create a new system user, sending info and warnings to System.out asynchronously.
      */
     public SystemUser() {
+        this(Level.INFO);
+    }
+
+    /**
+     * Create a new system user, sending to System.out asynchronously.
+     * @param level the lowest level of messages to send
+     */
+    public SystemUser(@NotNull Level level) {
+        this(level, AsyncAppender.console());
+    }
+
+    /**
+     * Create a new system user.
+     * @param level the lowest level of messages to send
+     * @param output where to write sent messages to, e.g. {@code System.out::println} to write synchronously
+     */
+    public SystemUser(@NotNull Level level, @NotNull Consumer<String> output) {
+        this.level = level;
+        this.output = output;
+    }
 
+    /**
+     * Get the lowest level of messages that are sent.
+     * @return the level
+     */
+    public @NotNull Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Set the lowest level of messages that are sent.
+     * @param level the level
+     */
+    public void setLevel(@NotNull Level level) {
+        this.level = level;
+    }
+
+    /**
+     * Whether messages of a level are sent.
+     * @param level the level
+     * @return true if messages of the level are sent
+     */
+    public boolean isEnabled(@NotNull Level level) {
+        return level != Level.OFF && level.compareTo(this.level) >= 0;
     }
 
     @Override
@@ -31,7 +103,7 @@ public class SystemUser implements User {
 
     @Override
     public void send(@NotNull Message message) {
-        System.out.println(message.string());
+        output.accept(message.string());
     }
 
     /**
@@ -41,27 +113,60 @@ public class SystemUser implements User {
      */
     @Override
     public void suggestCommand(String command) {
-        System.out.println("Command suggested: " + command);
+        output.accept("Command suggested: " + command);
     }
 
     /**
      * Send an information message to the system.
      */
     public void i(Message message) {
-        send(message);
+        if (isEnabled(Level.INFO)) {
+            send(message);
+        }
+    }
+
+    /**
+     * Send an information message to the system. The message is only built if info messages are sent.
+     */
+    public void i(Supplier<Message> message) {
+        if (isEnabled(Level.INFO)) {
+            send(message.get());
+        }
     }
 
     /**
      * Send a warning message to the system.
      */
     public void w(Message message) {
-        send(message);
+        if (isEnabled(Level.WARNING)) {
+            send(message);
+        }
+    }
+
+    /**
+     * Send a warning message to the system. The message is only built if warnings are sent.
+     */
+    public void w(Supplier<Message> message) {
+        if (isEnabled(Level.WARNING)) {
+            send(message.get());
+        }
     }
 
     /**
      * Send a debug message to the system.
      */
     public void d(Message message) {
-        send(message);
+        if (isEnabled(Level.DEBUG)) {
+            send(message);
+        }
+    }
+
+    /**
+     * Send a debug message to the system. The message is only built if debug messages are sent.
+     */
+    public void d(Supplier<Message> message) {
+        if (isEnabled(Level.DEBUG)) {
+            send(message.get());
+        }
     }
-}
\ No newline at end of file
+}
@@ -17,6 +17,16 @@ public interface User {
         return getClass().getSimpleName();
     }
 
+    /**
+     * A stable identifier of the user, used to key state kept for the user between commands (like pending option picks).
+     * By default, the user object itself. Override this if the same person may be represented by different user objects
+     * (for example, one per login), and return something that stays the same, like a UUID.
+     * @return the identifier of the user
+     */
+    default @NotNull Object id() {
+        return this;
+    }
+
     /**
      * Whether this user can use context when using commands.
      * Context is environment derived data that can be used by the system to autofill contextual (optional) parameters.
@@ -0,0 +1,182 @@
+package art.arcane.edict.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Writes lines to a {@link PrintStream} off the calling thread.<br>
+ * Lines are put in a bounded ring buffer, which a single daemon thread drains and writes in batches with one write and flush each.
+ * Callers never wait for the output. If the buffer is full, lines are dropped, and the number dropped is written with the next batch.
+ */
+public class AsyncAppender implements Consumer<String>, AutoCloseable {
+
+    /**
+     * Default number of lines the buffer holds.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * Maximum number of lines written at once.
+     */
+    private static final int BATCH_SIZE = 512;
+
+    /**
+     * Lines waiting to be written.
+     */
+    private final ArrayBlockingQueue<String> buffer;
+
+    /**
+     * Stream to write to.
+     */
+    private final PrintStream out;
+
+    /**
+     * Number of lines accepted into the buffer, written, and dropped because the buffer was full.
+     */
+    private final AtomicLong accepted = new AtomicLong(), written = new AtomicLong(), dropped = new AtomicLong();
+
+    /**
+     * Thread writing the lines.
+     */
+    private final Thread writer;
+
+    /**
+     * Whether the appender is closed.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Create a new appender with a buffer of {@link #DEFAULT_CAPACITY} lines.
+     * @param out the stream to write to
+     */
+    public AsyncAppender(@NotNull PrintStream out) {
+        this(out, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new appender.
+     * @param out the stream to write to
+     * @param capacity the number of lines the buffer holds
+     */
+    public AsyncAppender(@NotNull PrintStream out, int capacity) {
+        this.out = out;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::write, "Edict-Log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Get the shared appender writing to {@link System#out}. It is flushed when the JVM shuts down.
+     * @return the appender
+     */
+    public static @NotNull AsyncAppender console() {
+        return Console.INSTANCE;
+    }
+
+    /**
+     * Queue a line to be written. Never blocks.
+     * @param line the line
+     */
+    @Override
+    public void accept(@NotNull String line) {
+        if (closed || !buffer.offer(line)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        accepted.incrementAndGet();
+    }
+
+    /**
+     * Wait until all lines queued before this call are written.
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return true if they were written, false if the timeout passed first
+     */
+    public boolean flush(long timeout, @NotNull TimeUnit unit) {
+        long target = accepted.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (written.get() < target) {
+            if (System.nanoTime() > deadline || !writer.isAlive()) {
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return true;
+    }
+
+    /**
+     * Number of lines dropped because the buffer was full.
+     * @return the number of dropped lines
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Stop accepting lines, and wait (at most a second) for the queued lines to be written.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write batches of lines until closed and drained.
+     */
+    private void write() {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder builder = new StringBuilder();
+        long reportedDropped = 0;
+        while (!closed || !buffer.isEmpty()) {
+            String first;
+            try {
+                first = buffer.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            buffer.drainTo(batch, BATCH_SIZE - 1);
+            for (String line : batch) {
+                builder.append(line).append(System.lineSeparator());
+            }
+            long totalDropped = dropped.get();
+            if (totalDropped > reportedDropped) {
+                builder.append("(").append(totalDropped - reportedDropped).append(" log lines dropped)").append(System.lineSeparator());
+                reportedDropped = totalDropped;
+            }
+            out.print(builder);
+            out.flush();
+            written.addAndGet(batch.size());
+            batch.clear();
+            builder.setLength(0);
+        }
+    }
+
+    /**
+     * Holder of the {@link #console()} appender, so it is only started when used.
+     */
+    private static final class Console {
+        private static final AsyncAppender INSTANCE = new AsyncAppender(System.out);
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::close, "Edict-Log-Shutdown"));
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package art.arcane.edict.util;
 
 import art.arcane.edict.message.CompoundMessage;
+import art.arcane.edict.parser.Token;
 import art.arcane.edict.permission.Permission;
 import art.arcane.edict.user.User;
 import art.arcane.edict.virtual.VCommandable;
@@ -18,87 +19,159 @@ public class BKTreeIndexer {
      * Damerau-Levenshtein Distance Algorithm.<br>
      * Based on pseudocode found at <a href="https://en.wikipedia.org/wiki/Damerau%E2%80%93Levenshtein_distance">Wikipedia - DL-Distance</a>.
      */
-    protected static final Metric<String> DAMERAU_LEVENSHTEIN_DISTANCE = (name, input) -> {
+    protected static final Metric<String> DAMERAU_LEVENSHTEIN_DISTANCE = (name, input) -> damerauLevenshtein(name, input, Integer.MAX_VALUE);
 
-        Integer[][] map = new Integer[input.length()][name.length()];
+    /**
+     * Adapter for {@link #DAMERAU_LEVENSHTEIN_DISTANCE} for {@link VCommandable} constructs.
+     */
+    protected static final Metric<VCommandable> DLD_EDICT_ADAPTER = (vClass, input) -> distance(vClass.allNames().toArray(new String[0]), input.name());
 
-        for (int i = 0; i < input.length(); i++) {
-            map[i][0] = i;
-        }
+    /**
+     * Adapter for {@link #DAMERAU_LEVENSHTEIN_DISTANCE} for {@link Entry} constructs. Same as {@link #DLD_EDICT_ADAPTER}, but uses the precomputed names.
+     */
+    protected static final Metric<Entry> DLD_ENTRY_ADAPTER = (entry, input) -> distance(entry.names(), input.names()[0]);
 
-        for (int i = 0; i < name.length(); i++) {
-            map[0][i] = i;
-        }
+    /**
+     * Scratch rows for {@link #damerauLevenshtein(String, String, int)}: two rows back, one row back and the current row.
+     */
+    private static final ThreadLocal<int[][]> ROWS = ThreadLocal.withInitial(() -> new int[3][16]);
 
-        int cost;
-        for (int i = 1; i < input.length(); i++) {
-            for (int j = 1; j < name.length(); j++) {
-                if (input.charAt(i) == name.charAt(j)) {
-                    cost = 0;
-                } else {
-                    cost = 1;
-                }
+    /**
+     * BK-Tree (<a href="https://github.com/gtri/bk-tree">GitHub</a>) for {@link VCommandable} elements.
+     */
+    protected final MutableBkTree<Entry> bkTree = new MutableBkTree<>(DLD_ENTRY_ADAPTER);
 
-                map[i][j] = Math.min(Math.min(
-                        map[i-1][j] + 1,        // Deletion
-                        map[i][j-1] + 1),       // Insertion
-                        map[i-1][j-1] + cost    // Substitution
-                );
+    /**
+     * Searcher of the {@link #bkTree}.
+     */
+    protected final BkTreeSearcher<Entry> searcher = new BkTreeSearcher<>(bkTree);
 
-                if (i > 1 && j > 1 && input.charAt(i) == name.charAt(j-1) && input.charAt(i-1) == name.charAt(j)) {
-                    map[i][j] = Math.min(
-                            map[i][j],          // Previous
-                            map[i-2][j-2] + 1   // Transposition
-                    );
-                }
-            }
-        }
+    /**
+     * Exact name and alias lookup, in front of the {@link #bkTree}.
+     */
+    protected final Map<String, List<VCommandable>> exact = new HashMap<>();
 
-        return (int) map[input.length() - 1][name.length() - 1];
-    };
+    /**
+     * Name and alias prefix lookup, in front of the {@link #bkTree}.
+     */
+    protected final PrefixTrie<VCommandable> prefixes = new PrefixTrie<>();
 
     /**
-     * Adapter for {@link #DAMERAU_LEVENSHTEIN_DISTANCE} for {@link VCommandable} constructs.
+     * Distance from a search input to the best matching name of a set of names.
+     * @param names the names to match against. Cannot be empty
+     * @param input the search input
+     * @return the distance to the best matching name
+     * @throws IllegalArgumentException if there are no names
      */
-    protected static final Metric<VCommandable> DLD_EDICT_ADAPTER = (vClass, input) -> {
+    protected static int distance(@NotNull String @NotNull [] names, @NotNull String input) throws IllegalArgumentException {
+        if (names.length == 0) {
+            throw new IllegalArgumentException("VCommandable argument has no names!");
+        }
+        if (input.isBlank()) {
+            return 0;
+        }
 
         // Min distance (best)
-        OptionalInt result = vClass.allNames().stream().mapToInt(name -> {
-            if (input.name().isBlank() || name.equals(input.name())) {
+        int best = Integer.MAX_VALUE;
+        for (String name : names) {
+            int distance;
+            if (name.equals(input)) {
                 return 0;
-            } else if (name.startsWith(input.name())) {
-                return 1;
-            } else if (input.name().startsWith(name)) {
-                return 2;
+            } else if (name.startsWith(input)) {
+                distance = 1;
+            } else if (input.startsWith(name)) {
+                distance = 2;
             } else {
-                return DAMERAU_LEVENSHTEIN_DISTANCE.distance(input.name(), name);
+                // Anything at or past the current best cannot improve it, so stop computing there
+                distance = damerauLevenshtein(input, name, best - 1);
             }
-        }).min();
-
-        // Null result
-        if (result.isEmpty()) {
-            throw new IllegalArgumentException("VCommandable argument has no names!");
+            best = Math.min(best, distance);
         }
-
-        return result.getAsInt();
-    };
+        return best;
+    }
 
     /**
-     * BK-Tree (<a href="https://github.com/gtri/bk-tree">GitHub</a>) for {@link VCommandable} elements.
+     * Damerau-Levenshtein (optimal string alignment) distance with early termination.
+     * Like the rest of this indexer, the first characters of both strings are not compared.
+     * @param name the first string
+     * @param input the second string
+     * @param bound the highest distance of interest
+     * @return the distance, or {@code bound + 1} if the distance exceeds {@code bound}
      */
-    protected final MutableBkTree<VCommandable> bkTree = new MutableBkTree<>(DLD_EDICT_ADAPTER);
+    public static int damerauLevenshtein(@NotNull String name, @NotNull String input, int bound) {
+        int m = input.length();
+        int n = name.length();
+        int exceeded = bound == Integer.MAX_VALUE ? bound : bound + 1;
+        if (m == 0 || n == 0) {
+            return Math.min(Math.max(m, n), exceeded);
+        }
 
-    /**
-     * Searcher of the {@link #bkTree}.
-     */
-    protected final BkTreeSearcher<VCommandable> searcher = new BkTreeSearcher<>(bkTree);
+        int[][] rows = ROWS.get();
+        if (rows[0].length < n) {
+            rows = new int[3][Math.max(n, rows[0].length * 2)];
+            ROWS.set(rows);
+        }
+        int[] twoBack = rows[0];
+        int[] oneBack = rows[1];
+        int[] current = rows[2];
+
+        for (int j = 0; j < n; j++) {
+            current[j] = j;
+        }
+        int previousMin = 0;
+
+        for (int i = 1; i < m; i++) {
+            int[] swap = twoBack;
+            twoBack = oneBack;
+            oneBack = current;
+            current = swap;
+
+            char c = input.charAt(i);
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j < n; j++) {
+                int cost = c == name.charAt(j) ? 0 : 1;
+                int value = Math.min(Math.min(
+                        oneBack[j] + 1,             // Deletion
+                        current[j - 1] + 1),        // Insertion
+                        oneBack[j - 1] + cost       // Substitution
+                );
+                if (i > 1 && j > 1 && c == name.charAt(j - 1) && input.charAt(i - 1) == name.charAt(j)) {
+                    value = Math.min(
+                            value,                  // Previous
+                            twoBack[j - 2] + 1      // Transposition
+                    );
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+
+            // No later row can get below the bound once two consecutive rows are past it
+            if (rowMin > bound && previousMin > bound) {
+                return exceeded;
+            }
+            previousMin = rowMin;
+        }
+
+        return Math.min(current[n - 1], exceeded);
+    }
 
     /**
      * Construct a tree indexer.
      * @param values the values of the tree. Cannot be modified after. Should be all children of the class.
      */
     public void addAll(Iterable<? extends VCommandable> values) {
-        bkTree.addAll(values);
+        for (VCommandable value : values) {
+            Entry entry = new Entry(value);
+            for (String name : entry.names()) {
+                List<VCommandable> named = exact.computeIfAbsent(name, n -> new ArrayList<>());
+                if (named.isEmpty() || named.get(named.size() - 1) != value) {
+                    named.add(value);
+                }
+                prefixes.put(name, value);
+            }
+            bkTree.add(entry);
+        }
     }
 
     /**
@@ -106,6 +179,7 @@ public class BKTreeIndexer {
      * The threshold is the percentage of the input string that has to match the name, discarding characters in the name after the length of the input string's length.
      * This is subject to rounding and - since fuzzy searching is effectively guessing - mistakes. The human mind is impossible to fully understand.
      * Only returns the elements exceeding the matchThreshold and with the highest value in the set (equally likely solutions).
+     * Exact name matches and names starting with the key are listed first, followed by the fuzzy matches at the same distance.
      * @param key the key
      * @param matchThreshold the percentage threshold
      * @param permissible function from a {@link VCommandable} to a boolean for whether the commandable can be run in current context
@@ -123,29 +197,111 @@ public class BKTreeIndexer {
      * @param matchThreshold the percentage threshold
      * @param permissible function from a {@link VCommandable} to a boolean for whether the commandable can be run in current context
      * @param forceMax force return only matches with the highest value in set. Still respects {@code matchThreshold}.
+     *                 Exact name matches and names starting with the key are then listed first, followed by the fuzzy matches at the same distance.
      * @return the best matching commandable objects (all with the same match value)
      */
     public @NotNull List<VCommandable> search(@NotNull String key, double matchThreshold, @NotNull Function<VCommandable, Boolean> permissible, boolean forceMax) {
 
+        int maxDistance = (int) Math.round((key.length() * (1 - matchThreshold)));
+
+        // Exact names (distance 0) and then prefixes (distance 1) are found without walking the tree.
+        // Fuzzy matches can tie with those (and beat prefixes), so the tree is still searched, but only up to the same distance.
+        if (forceMax && !key.isBlank()) {
+            int distance = 0;
+            List<VCommandable> hits = permitted(exact.getOrDefault(key, Collections.emptyList()), permissible);
+            if (hits.isEmpty() && maxDistance >= 1) {
+                distance = 1;
+                hits = permitted(prefixes.withPrefix(key), permissible);
+            }
+            if (!hits.isEmpty()) {
+                List<VCommandable> fuzzy = new ArrayList<>();
+                if (searchTree(key, distance, permissible, true, fuzzy) < distance) {
+                    return fuzzy;
+                }
+                List<VCommandable> result = new ArrayList<>(hits);
+                for (VCommandable commandable : fuzzy) {
+                    if (result.stream().noneMatch(hit -> hit == commandable)) {
+                        result.add(commandable);
+                    }
+                }
+                return result;
+            }
+        }
+
+        List<VCommandable> result = new ArrayList<>();
+        searchTree(key, maxDistance, permissible, forceMax, result);
+        return result;
+    }
+
+    /**
+     * Search the {@link #bkTree}.
+     * @param key the key
+     * @param maxDistance the highest distance to search for
+     * @param permissible function from a {@link VCommandable} to a boolean for whether the commandable can be run in current context
+     * @param forceMax only keep the matches with the lowest distance
+     * @param result the list to add the permitted matches to
+     * @return the lowest distance of the permitted matches, or {@link Integer#MAX_VALUE} if there are none
+     */
+    private int searchTree(@NotNull String key, int maxDistance, @NotNull Function<VCommandable, Boolean> permissible, boolean forceMax, @NotNull List<VCommandable> result) {
+
         // Retrieve matches from tree.
-        Set<BkTreeSearcher.Match<? extends VCommandable>> matches = searcher.search(
-                new BKTreeIndexable(key, new String[0]),
-                (int) Math.round((key.length() * (1 - matchThreshold)))
+        Set<BkTreeSearcher.Match<? extends Entry>> matches = searcher.search(
+                new Entry(new BKTreeIndexable(key, new String[0]), new String[]{key}),
+                maxDistance
         );
 
-        // Apply permissions
-        matches.removeIf(match -> !permissible.apply(match.getMatch()));
-
-        // Find best match(es) if any.
-        if (matches.isEmpty()) {
-            return new ArrayList<>();
-        } else {
+        // Apply permissions and find best match(es) if any.
+        int bestMatch = Integer.MAX_VALUE;
+        for (BkTreeSearcher.Match<? extends Entry> match : matches) {
+            VCommandable commandable = match.getMatch().commandable();
+            if (!permissible.apply(commandable)) {
+                continue;
+            }
             if (forceMax) {
-                int bestMatch = matches.stream().mapToInt(BkTreeSearcher.Match::getDistance).min().orElse(-1);
-                return matches.stream().filter(match -> match.getDistance() == bestMatch).map(match -> (VCommandable) match.getMatch()).toList();
+                if (match.getDistance() > bestMatch) {
+                    continue;
+                }
+                if (match.getDistance() < bestMatch) {
+                    bestMatch = match.getDistance();
+                    result.clear();
+                }
             } else {
-                return matches.stream().map(m -> (VCommandable) m.getMatch()).toList();
+                bestMatch = Math.min(bestMatch, match.getDistance());
             }
+            result.add(commandable);
+        }
+        return bestMatch;
+    }
+
+    /**
+     * Filter commandables by permission.
+     * @param commandables the commandables to filter
+     * @param permissible function from a {@link VCommandable} to a boolean for whether the commandable can be run in current context
+     * @return the permitted commandables
+     */
+    private static @NotNull List<VCommandable> permitted(@NotNull List<VCommandable> commandables, @NotNull Function<VCommandable, Boolean> permissible) {
+        List<VCommandable> result = new ArrayList<>(commandables.size());
+        for (VCommandable commandable : commandables) {
+            if (permissible.apply(commandable)) {
+                result.add(commandable);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Tree element. Holds a {@link VCommandable} and its names, so they are not recomputed on every node visit.
+     * @param commandable the commandable
+     * @param names all names of the commandable (see {@link VCommandable#allNames()})
+     */
+    protected record Entry(@NotNull VCommandable commandable, @NotNull String @NotNull [] names) {
+
+        /**
+         * Create a new entry for a commandable.
+         * @param commandable the commandable
+         */
+        public Entry(@NotNull VCommandable commandable) {
+            this(commandable, commandable.allNames().toArray(new String[0]));
         }
     }
 
@@ -191,12 +347,12 @@ public class BKTreeIndexer {
         }
 
         @Override
-        public boolean run(@NotNull List<String> input, @NotNull User user) {
+        public boolean run(@NotNull List<Token> input, @NotNull User user) {
             throw new UnsupportedOperationException();
         }
 
         @Override
-        public @NotNull List<String> suggest(@NotNull List<String> input, @NotNull User user) {
+        public @NotNull List<String> suggest(@NotNull List<Token> input, @NotNull User user, int limit) {
             throw new UnsupportedOperationException();
         }
 
@@ -0,0 +1,105 @@
+package art.arcane.edict.util;
+
+import art.arcane.edict.message.Message;
+import art.arcane.edict.user.SystemUser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Ordered buffer of the system messages sent while the command tree is built in parallel.<br>
+ * Every task building a part of the tree gets its own log, made with {@link #child()} at the point where its messages belong.
+ * {@link #replay(SystemUser)} then sends all messages in the order they would have been sent if the tree was built on a single thread.
+ */
+public final class BuildLog {
+
+    /**
+     * Log of the task running on the current thread, if any.
+     */
+    private static final ThreadLocal<BuildLog> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Messages and child logs, in order.
+     */
+    private final List<Object> entries = new ArrayList<>();
+
+    /**
+     * Get the log of the task running on the current thread.
+     * @return the log, or {@code null} if the current thread is not building a tree in parallel
+     */
+    public static @Nullable BuildLog current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run a task with this log as the {@link #current()} one, restoring the previous log after.
+     * @param task the task
+     * @param <T> the result type of the task
+     * @return the result of the task
+     */
+    public <T> T run(@NotNull Supplier<T> task) {
+        BuildLog previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Add a message.
+     * @param level the level of the message
+     * @param message the message
+     */
+    public synchronized void add(@NotNull SystemUser.Level level, @NotNull Message message) {
+        entries.add(new Entry(level, message));
+    }
+
+    /**
+     * Make a log for messages that belong after the ones added so far, and before the ones added later.
+     * @return the new log
+     */
+    public synchronized @NotNull BuildLog child() {
+        BuildLog child = new BuildLog();
+        entries.add(child);
+        return child;
+    }
+
+    /**
+     * Send all messages of this log and its children, in order.
+     * @param user the user to send them to
+     */
+    public void replay(@NotNull SystemUser user) {
+        List<Object> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(entries);
+        }
+        for (Object entry : snapshot) {
+            if (entry instanceof BuildLog child) {
+                child.replay(user);
+            } else if (entry instanceof Entry message) {
+                switch (message.level()) {
+                    case DEBUG -> user.d(message.message());
+                    case INFO -> user.i(message.message());
+                    case WARNING -> user.w(message.message());
+                    default -> {}
+                }
+            }
+        }
+    }
+
+    /**
+     * A buffered message.
+     * @param level the level
+     * @param message the message
+     */
+    private record Entry(@NotNull SystemUser.Level level, @NotNull Message message) {}
+}
@@ -33,7 +33,29 @@ public class EDictionary implements Edicted {
     public boolean alwaysPickFirstOption = false;
 
     /**
-     * Timeout for multiple-option picking (multiplied by {@link #optionPickAttempts} if all tries timeout).
+     * Timeout in seconds for multiple-option picking (multiplied by {@link #optionPickAttempts} if all tries timeout).
      */
-    public int optionPickTimeout;
+    public int optionPickTimeout = 15;
+
+    /**
+     * Time in seconds after which the suggestion session of a user that stopped typing is discarded.
+     */
+    public int suggestionSessionTimeout = 30;
+
+    /**
+     * The maximum number of suggestions returned for an input.
+     */
+    public int suggestionLimit = 100;
+
+    /**
+     * The number of permission decisions cached per user. 0 (the default) checks every permission with the user.<br>
+     * Cached decisions are kept until the {@link art.arcane.edict.permission.PermissionCache} is invalidated,
+     * so only enable this if permission changes are reported to it (see {@link art.arcane.edict.Edict#getPermissionCache()}).
+     */
+    public int permissionCacheSize = 0;
+
+    /**
+     * Time in seconds after which the cached permission decisions of a user that stopped running commands are discarded.
+     */
+    public int permissionCacheTimeout = 300;
 }
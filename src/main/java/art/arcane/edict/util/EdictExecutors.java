@@ -0,0 +1,142 @@
+package art.arcane.edict.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factories for the {@link Executor}s that run commands and suggestions off the calling thread.<br>
+ * All executors made here reject work (with a {@link RejectedExecutionException}) when they are saturated,
+ * instead of queueing without bounds. Edict catches that and informs the user the system is busy.
+ */
+public final class EdictExecutors {
+
+    /**
+     * Default number of tasks that may be waiting for a worker in the {@link #bounded()} pool.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /**
+     * Default number of tasks that may be in flight at once in the {@link #virtual()} executor.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10_000;
+
+    private EdictExecutors() {}
+
+    /**
+     * Get the shared timer, a single daemon thread that runs short scheduled tasks like expiring pending inputs.
+     * Cancelled tasks are removed from its queue right away.
+     * @return the timer
+     */
+    public static @NotNull ScheduledExecutorService timer() {
+        return Timer.INSTANCE;
+    }
+
+    /**
+     * Create the default bounded pool. Uses one worker per available processor (at least 2),
+     * and a queue of {@link #DEFAULT_QUEUE_CAPACITY}.
+     * @return the executor
+     */
+    public static @NotNull ExecutorService bounded() {
+        return bounded(Math.max(2, Runtime.getRuntime().availableProcessors()), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Create a bounded pool of daemon worker threads.
+     * @param threads the number of worker threads
+     * @param queueCapacity the number of tasks that may wait for a worker before new tasks are rejected
+     * @return the executor
+     */
+    public static @NotNull ExecutorService bounded(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                30,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "Edict-Worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Whether virtual threads are available on the running JVM (Java 21+).
+     * @return true if {@link #virtual()} can be used
+     */
+    public static boolean virtualAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Create a virtual-thread-per-task executor with at most {@link #DEFAULT_MAX_IN_FLIGHT} tasks in flight.
+     * @return the executor
+     * @throws UnsupportedOperationException if the JVM does not support virtual threads (see {@link #virtualAvailable()})
+     */
+    public static @NotNull Executor virtual() throws UnsupportedOperationException {
+        return virtual(DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Create a virtual-thread-per-task executor.
+     * @param maxInFlight the number of tasks that may be running at once before new tasks are rejected
+     * @return the executor
+     * @throws UnsupportedOperationException if the JVM does not support virtual threads (see {@link #virtualAvailable()})
+     */
+    public static @NotNull Executor virtual(int maxInFlight) throws UnsupportedOperationException {
+        ExecutorService delegate;
+        try {
+            delegate = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or newer", e);
+        }
+        Semaphore permits = new Semaphore(maxInFlight);
+        return runnable -> {
+            if (!permits.tryAcquire()) {
+                throw new RejectedExecutionException("More than " + maxInFlight + " tasks in flight");
+            }
+            try {
+                delegate.execute(() -> {
+                    try {
+                        runnable.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Holder of the shared {@link #timer()}, so it is only created when used.
+     */
+    private static final class Timer {
+        private static final ScheduledExecutorService INSTANCE = create();
+
+        private static @NotNull ScheduledExecutorService create() {
+            ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "Edict-Timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timer.setRemoveOnCancelPolicy(true);
+            return timer;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package art.arcane.edict.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Prefix trie from string keys to values.
+ * Every node holds the values of all keys passing through it, so a prefix lookup is a single walk of the prefix.
+ * @param <T> the type of the values
+ */
+public class PrefixTrie<T> {
+
+    /**
+     * The root node (empty prefix).
+     */
+    private final Node<T> root = new Node<>();
+
+    /**
+     * Add a value under a key.
+     * Add all keys of one value in a row: a prefix shared by those keys then lists the value only once.
+     * @param key the key
+     * @param value the value
+     */
+    public void put(@NotNull String key, @NotNull T value) {
+        Node<T> node = root;
+        node.add(value);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node<>());
+            node.add(value);
+        }
+    }
+
+    /**
+     * Get all values with a key starting with the prefix.
+     * @param prefix the prefix
+     * @return the values, in insertion order. Empty if there are none
+     */
+    public @NotNull List<T> withPrefix(@NotNull String prefix) {
+        Node<T> node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.children.get(prefix.charAt(i));
+            if (node == null) {
+                return Collections.emptyList();
+            }
+        }
+        return Collections.unmodifiableList(node.values);
+    }
+
+    /**
+     * Node in the trie.
+     * @param <T> the type of the values
+     */
+    private static class Node<T> {
+
+        /**
+         * Child nodes by next character.
+         */
+        private final Map<Character, Node<T>> children = new HashMap<>();
+
+        /**
+         * Values of all keys passing through this node.
+         */
+        private final List<T> values = new ArrayList<>();
+
+        /**
+         * Add a value to this node, if the most recently added key did not already add it.
+         * @param value the value
+         */
+        private void add(@NotNull T value) {
+            if (values.isEmpty() || values.get(values.size() - 1) != value) {
+                values.add(value);
+            }
+        }
+    }
+}
@@ -2,14 +2,25 @@ package art.arcane.edict.virtual;
 
 import art.arcane.edict.Edict;
 import art.arcane.edict.api.Command;
+import art.arcane.edict.descriptor.CommandDescriptor;
+import art.arcane.edict.descriptor.Descriptors;
+import art.arcane.edict.descriptor.FieldDescriptor;
+import art.arcane.edict.descriptor.MethodDescriptor;
 import art.arcane.edict.handler.ContextHandler;
 import art.arcane.edict.handler.ParameterHandler;
+import art.arcane.edict.jfr.SearchEvent;
 import art.arcane.edict.message.CompoundMessage;
 import art.arcane.edict.message.HoverableMessage;
 import art.arcane.edict.message.StringMessage;
+import art.arcane.edict.metrics.Stage;
+import art.arcane.edict.parser.Token;
+import art.arcane.edict.suggestion.SuggestionRequest;
+import art.arcane.edict.suggestion.Suggestions;
 import art.arcane.edict.permission.Permission;
+import art.arcane.edict.snapshot.TreeSnapshot;
 import art.arcane.edict.user.User;
 import art.arcane.edict.util.BKTreeIndexer;
+import art.arcane.edict.util.BuildLog;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -17,9 +28,12 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.MissingResourceException;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Record of a virtual command category. Represents a position in the tree of commands.
@@ -28,15 +42,21 @@ import java.util.MissingResourceException;
  * I.e. like a branch in a tree data-structure.
  * @param name the name of the command node
  * @param command the command annotation
- * @param indexer indexer of further node(s)
+ * @param instance the instance of the command class
+ * @param parent the parent category ({@code null} if this is a root)
+ * @param field the name of the field of the parent's instance holding the instance ({@code null} if this is a root)
+ * @param subtree the children of this category and their index, which are built when first needed if the system is {@link Edict#isLazy() lazy}
  * @param permission permission node for this category
  * @param system the command system
  */
-public record VClass(@NotNull String name, @NotNull Command command, @NotNull Object instance, @Nullable VClass parent, @NotNull List<VCommandable> children, @NotNull BKTreeIndexer indexer, @NotNull Permission permission, @NotNull Edict system) implements VCommandable {
+public record VClass(@NotNull String name, @NotNull Command command, @NotNull Object instance, @Nullable VClass parent, @Nullable String field, @NotNull VSubtree subtree, @NotNull Permission permission, @NotNull Edict system) implements VCommandable {
 
     /**
      * Create a new category class.
      * This contains children: All methods of the clazz parameter that are annotated by @Command + any field declarations that are of a type that is annotated by @Command.
+     * These are taken from the {@link CommandDescriptor} generated by the {@link art.arcane.edict.processor.CommandProcessor} if there is one, and found through reflection otherwise.<br>
+     * If the system is {@link Edict#isLazy() lazy}, the children are only found when they are first needed (except for {@link Command#singleCommandCategory()} categories).
+     * The category is then returned even if it turns out to be empty, and missing handlers are only thrown for when it is first used.
      * @param instance the class to create the edict from
      * @param parent the parent {@link VClass} ({@code null} if clazz is the root)
      * @param system the system
@@ -46,6 +66,21 @@ public record VClass(@NotNull String name, @NotNull Command command, @NotNull Ob
      * or if the {@link ContextHandler} for any of the contextual parameter of any methods of the {@code commandRoots} or any of its children is not registered
      */
     public static @Nullable VCommandable fromInstance(@NotNull Object instance, @Nullable VClass parent, @NotNull Edict system) throws MissingResourceException, NullPointerException {
+        return fromInstance(instance, parent, null, system);
+    }
+
+    /**
+     * Create a new category class held by a field of its parent (see {@link #fromInstance(Object, VClass, Edict)}).
+     * @param instance the class to create the edict from
+     * @param parent the parent {@link VClass} ({@code null} if clazz is the root)
+     * @param field the name of the field of the parent's instance holding the instance ({@code null} if clazz is the root)
+     * @param system the system
+     * @return a new category, or {@code null} if there are no commands in this category or {@code null} if this would introduce a circular reference
+     * @throws MissingResourceException if there is no @Command annotation on this class despite it being called as such
+     * @throws NullPointerException if the {@link ParameterHandler} for any of the parameters of any methods of this class or any of its children is not registered
+     * or if the {@link ContextHandler} for any of the contextual parameter of any methods of the {@code commandRoots} or any of its children is not registered
+     */
+    public static @Nullable VCommandable fromInstance(@NotNull Object instance, @Nullable VClass parent, @Nullable String field, @NotNull Edict system) throws MissingResourceException, NullPointerException {
 
         // Class
         Class<?> clazz = instance.getClass();
@@ -68,99 +103,342 @@ public record VClass(@NotNull String name, @NotNull Command command, @NotNull Ob
         Command annotation = clazz.getDeclaredAnnotation(Command.class);
 
         // Construct edict
-        VClass category = new VClass(
-                annotation.name().isBlank() ? clazz.getSimpleName() : annotation.name(),
+        VClass category = category(instance, parent, field, annotation, system);
+
+        // Lazy categories are built when first needed. Single command categories are replaced by their command, so they never are
+        if (system.isLazy() && !annotation.singleCommandCategory()) {
+            return category;
+        }
+
+        List<VCommandable> children = category.children();
+
+        // Command
+        if (annotation.singleCommandCategory() && !children.isEmpty() && children.get(0) instanceof VMethod vMethod) {
+            return vMethod;
+        }
+
+        // Empty check
+        if (children.isEmpty()) {
+            system.w(new StringMessage(clazz.getSimpleName() + " has no declared commands or subcategories. Not loading the class. This is likely an error!"));
+            return null;
+        }
+
+        return category;
+    }
+
+    /**
+     * Restore a category from a node of a {@link TreeSnapshot}, looking up its commands and subcategories by name instead of finding them.
+     * @param instance the instance to restore the category for
+     * @param parent the parent {@link VClass} ({@code null} if this is a root)
+     * @param field the name of the field of the parent's instance holding the instance ({@code null} if this is a root)
+     * @param node the node of the category in the snapshot
+     * @param system the system
+     * @return the category (or its command, for a {@link Command#singleCommandCategory()}), or {@code null} if it was not built when the snapshot was taken
+     * @throws ReflectiveOperationException if a method, field or type in the snapshot does not exist
+     * @throws IllegalStateException if the instance or the handlers do not match the snapshot
+     * @throws NullPointerException if the {@link ParameterHandler} or {@link ContextHandler} for any parameter of any command is not registered
+     */
+    public static @Nullable VCommandable restore(@NotNull Object instance, @Nullable VClass parent, @Nullable String field, @NotNull TreeSnapshot.Node node, @NotNull Edict system) throws ReflectiveOperationException, IllegalStateException, NullPointerException {
+        Class<?> clazz = instance.getClass();
+        if (!clazz.getName().equals(node.className())) {
+            throw new IllegalStateException("Expected an instance of " + node.className() + " but got " + clazz.getName());
+        }
+        if (node.kind() == TreeSnapshot.Kind.MISSING) {
+            return null;
+        }
+        Command annotation = clazz.getDeclaredAnnotation(Command.class);
+        if (annotation == null) {
+            throw new IllegalStateException("@Command annotation not present on class " + clazz.getSimpleName());
+        }
+        VClass category = category(instance, parent, field, annotation, system);
+
+        @SuppressWarnings("unchecked")
+        CommandDescriptor<Object> descriptor = Descriptors.of((Class<Object>) clazz);
+        List<VCommandable> children = new ArrayList<>();
+        for (TreeSnapshot.Entry entry : node.entries()) {
+            if (entry instanceof TreeSnapshot.CommandEntry commandEntry) {
+                Class<?>[] types = new Class<?>[commandEntry.parameterTypes().size()];
+                for (int i = 0; i < types.length; i++) {
+                    types[i] = TreeSnapshot.type(commandEntry.parameterTypes().get(i), clazz.getClassLoader());
+                }
+                Method method = clazz.getDeclaredMethod(commandEntry.method(), types);
+                VMethod vMethod = command(category, method, invoker(descriptor, method, instance), instance, system);
+                List<Parameter> parameters = List.of(method.getParameters());
+                for (VParam param : vMethod.params()) {
+                    if (!param.parameterHandler().getClass().getName().equals(commandEntry.handlers().get(parameters.indexOf(param.parameter())))) {
+                        throw new IllegalStateException("Parameter " + param.name() + " of " + vMethod.path() + " is bound to another handler");
+                    }
+                }
+                children.add(vMethod);
+            } else if (entry instanceof TreeSnapshot.FieldEntry fieldEntry) {
+                Object fInstance = fieldInstance(clazz.getDeclaredField(fieldEntry.field()), instance, system);
+                VCommandable child = fInstance == null ? null : restore(fInstance, category, fieldEntry.field(), fieldEntry.node(), system);
+                if (child == null) {
+                    throw new IllegalStateException("Field " + clazz.getSimpleName() + "#" + fieldEntry.field() + " did not restore");
+                }
+                children.add(child);
+            }
+        }
+
+        // Command
+        if (node.kind() == TreeSnapshot.Kind.COMMAND) {
+            if (children.size() != 1 || !(children.get(0) instanceof VMethod vMethod)) {
+                throw new IllegalStateException(clazz.getSimpleName() + " is not a single command category");
+            }
+            return vMethod;
+        }
+
+        category.subtree.get(() -> children);
+        return category;
+    }
+
+    /**
+     * Construct a category, without its children.
+     * @param instance the instance of the command class
+     * @param parent the parent {@link VClass} ({@code null} if this is a root)
+     * @param field the name of the field of the parent's instance holding the instance ({@code null} if this is a root)
+     * @param annotation the @Command annotation of the class
+     * @param system the system
+     * @return the category
+     */
+    private static @NotNull VClass category(@NotNull Object instance, @Nullable VClass parent, @Nullable String field, @NotNull Command annotation, @NotNull Edict system) {
+        return new VClass(
+                annotation.name().isBlank() ? instance.getClass().getSimpleName() : annotation.name(),
                 annotation,
                 instance,
                 parent,
-                new ArrayList<>(),
-                new BKTreeIndexer(),
+                field,
+                new VSubtree(),
                 system.makePermission(parent == null ? null : parent.permission, annotation.permission()),
                 system
         );
+    }
 
-        // Loop over method declarations to find commands
-        for (Method method : clazz.getDeclaredMethods()) {
-            if (!method.isAnnotationPresent(Command.class)) {
-                system.d(new StringMessage(clazz.getSimpleName() + "#" + method.getName() + "() not registered because not annotated by @Command"));
-                continue;
+    /**
+     * Get the invoker the generated descriptor has for a method.
+     * @param descriptor the descriptor, {@code null} if there is none
+     * @param method the method
+     * @param instance the instance to invoke the method on
+     * @return the invoker, or {@code null} if there is none
+     */
+    private static @Nullable VInvoker invoker(@Nullable CommandDescriptor<Object> descriptor, @NotNull Method method, @NotNull Object instance) {
+        if (descriptor == null) {
+            return null;
+        }
+        for (MethodDescriptor<Object> methodDescriptor : descriptor.methods()) {
+            if (methodDescriptor.invoker() != null && methodDescriptor.name().equals(method.getName()) && Arrays.equals(methodDescriptor.parameterTypes(), method.getParameterTypes())) {
+                return methodDescriptor.invoker().apply(instance);
             }
-            method.setAccessible(true);
-            annotation = method.getDeclaredAnnotation(Command.class);
-            VMethod vMethod = new VMethod(
-                    annotation,
-                    category,
-                    method,
-                    new ArrayList<>(),
-                    system.makePermission(category.permission, annotation.permission()),
-                    system
-            );
-            vMethod.params().addAll(VParam.paramsFromMethod(vMethod, method, system));
-
-            // Command
-            if (category.command.singleCommandCategory()) {
-                return vMethod;
+        }
+        return null;
+    }
+
+    /**
+     * Find the children of a category.
+     * @param category the category
+     * @return the commands and subcategories of the category, or only its first command if it is a {@link Command#singleCommandCategory()}
+     * @throws NullPointerException if the {@link ParameterHandler} or {@link ContextHandler} for any parameter of any of the commands is not registered
+     */
+    private static @NotNull List<VCommandable> build(@NotNull VClass category) throws NullPointerException {
+        Object instance = category.instance;
+        Class<?> clazz = instance.getClass();
+        Edict system = category.system;
+        List<VCommandable> children = new ArrayList<>();
+        List<ForkJoinTask<VCommandable>> subcategories = new ArrayList<>();
+
+        // Commands and subcategories listed by the generated descriptor, if there is one
+        @SuppressWarnings("unchecked")
+        CommandDescriptor<Object> descriptor = Descriptors.of((Class<Object>) clazz);
+        if (descriptor != null) {
+            for (MethodDescriptor<Object> methodDescriptor : descriptor.methods()) {
+                Method method;
+                try {
+                    method = clazz.getDeclaredMethod(methodDescriptor.name(), methodDescriptor.parameterTypes());
+                } catch (NoSuchMethodException e) {
+                    system.w(new StringMessage("Command " + clazz.getSimpleName() + "#" + methodDescriptor.name() + "() is in the descriptor but not in the class. Was the descriptor regenerated?"));
+                    continue;
+                }
+                VMethod vMethod = command(category, method, methodDescriptor.invoker() == null ? null : methodDescriptor.invoker().apply(instance), instance, system);
+
+                // Command
+                if (category.command.singleCommandCategory()) {
+                    return List.of(vMethod);
+                }
+
+                children.add(vMethod);
             }
+            for (FieldDescriptor<Object> fieldDescriptor : descriptor.fields()) {
+                Object fInstance = fieldDescriptor.getter() == null ? null : fieldDescriptor.getter().apply(instance);
+
+                // Private fields are read through reflection, as is a field without a constructor to fall back to
+                if (fInstance == null && fieldDescriptor.getter() != null && fieldDescriptor.constructor() != null) {
+                    try {
+                        fInstance = fieldDescriptor.constructor().get();
+                    } catch (RuntimeException e) {
+                        system.w(new StringMessage("Tried constructing class for field " + fieldDescriptor.name() + " but could not due to " + e));
+                    }
+                }
+                if (fInstance == null) {
+                    try {
+                        fInstance = fieldInstance(clazz.getDeclaredField(fieldDescriptor.name()), instance, system);
+                    } catch (NoSuchFieldException e) {
+                        system.w(new StringMessage("Field " + clazz.getSimpleName() + "#" + fieldDescriptor.name() + " is in the descriptor but not in the class. Was the descriptor regenerated?"));
+                        continue;
+                    }
+                }
+                subcategory(category, subcategories, fieldDescriptor.name(), fInstance, system);
+            }
+        } else {
 
-            category.children.add(vMethod);
-        }
+            // Loop over method declarations to find commands
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(Command.class)) {
+                    system.d(() -> new StringMessage(clazz.getSimpleName() + "#" + method.getName() + "() not registered because not annotated by @Command"));
+                    continue;
+                }
+                VMethod vMethod = command(category, method, null, instance, system);
 
-        // Loop over fields to find more command categories
-        for (Field field : clazz.getDeclaredFields()) {
+                // Command
+                if (category.command.singleCommandCategory()) {
+                    return List.of(vMethod);
+                }
 
-            // Annotation check
-            if (!field.getType().isAnnotationPresent(Command.class)) {
-                system.d(new StringMessage(clazz.getSimpleName() + "#" + field.getName() + " not registered because not annotated by @Command"));
-                continue;
+                children.add(vMethod);
             }
 
-            field.setAccessible(true);
-
-            // Construct instance
-            Object fInstance = null;
-            field.setAccessible(true);
-            try {
-                if (field.get(instance) != null) {
-                    fInstance = field.get(instance);
-                } else {
-                    for (Constructor<?> constructor : field.getType().getConstructors()) {
-                        if (constructor.getParameterCount() == 0) {
-                            constructor.setAccessible(true);
-                            try {
-                                fInstance = constructor.newInstance();
-                            } catch (InstantiationException | InvocationTargetException e) {
-                                system.w(new StringMessage("Tried constructing class for field " + field.getName() + " but could not due to " + e));
-                            }
-                        }
-                    }
+            // Loop over fields to find more command categories
+            for (Field field : clazz.getDeclaredFields()) {
+
+                // Annotation check
+                if (!field.getType().isAnnotationPresent(Command.class)) {
+                    system.d(() -> new StringMessage(clazz.getSimpleName() + "#" + field.getName() + " not registered because not annotated by @Command"));
+                    continue;
                 }
-            } catch (IllegalAccessException e) {
-                system.w(new StringMessage("Tried getting field " + field.getName() + " but could not get access due to " + e));
+
+                subcategory(category, subcategories, field.getName(), fieldInstance(field, instance, system), system);
             }
+        }
 
-            // Failed
-            if (fInstance == null) {
-                system.w(new StringMessage("Field " + field.getName() + " is of a type annotated by @Command but cannot be instantiated!"));
-                continue;
+        // Subcategories, in field order
+        for (ForkJoinTask<VCommandable> subcategory : subcategories) {
+            VCommandable built = subcategory.join();
+            if (built != null) {
+                children.add(built);
             }
+        }
+
+        return children;
+    }
+
+    /**
+     * Create a command of a category.
+     * @param category the category
+     * @param method the command method
+     * @param invoker the invoker of the method, or {@code null} to make one from the method
+     * @param instance the instance of the category
+     * @param system the system
+     * @return the command
+     */
+    private static @NotNull VMethod command(@NotNull VClass category, @NotNull Method method, @Nullable VInvoker invoker, @NotNull Object instance, @NotNull Edict system) {
+        Command annotation = method.getDeclaredAnnotation(Command.class);
+        Permission permission = system.makePermission(category.permission, annotation.permission());
+        if (invoker != null) {
+            return VMethod.create(annotation, category, method, invoker, permission, system);
+        }
+        method.setAccessible(true);
+        return VMethod.create(annotation, category, method, instance, permission, system);
+    }
 
-            // Success
-            VCommandable subcategory = VClass.fromInstance(fInstance, category, system);
-            if (subcategory != null) {
-                category.children.add(subcategory);
+    /**
+     * Get the instance of a subcategory field through reflection, constructing a new one if the field is {@code null}.
+     * @param field the field
+     * @param instance the instance of the category
+     * @param system the system
+     * @return the instance, or {@code null} if there is none and it cannot be constructed
+     */
+    private static @Nullable Object fieldInstance(@NotNull Field field, @NotNull Object instance, @NotNull Edict system) {
+        Object fInstance = null;
+        field.setAccessible(true);
+        try {
+            if (field.get(instance) != null) {
+                fInstance = field.get(instance);
+            } else {
+                for (Constructor<?> constructor : field.getType().getConstructors()) {
+                    if (constructor.getParameterCount() == 0) {
+                        constructor.setAccessible(true);
+                        try {
+                            fInstance = constructor.newInstance();
+                        } catch (InstantiationException | InvocationTargetException e) {
+                            system.w(new StringMessage("Tried constructing class for field " + field.getName() + " but could not due to " + e));
+                        }
+                    }
+                }
             }
+        } catch (IllegalAccessException e) {
+            system.w(new StringMessage("Tried getting field " + field.getName() + " but could not get access due to " + e));
         }
+        return fInstance;
+    }
 
-        // Empty check
-        if (category.children.isEmpty()) {
-            system.w(new StringMessage(clazz.getSimpleName() + " has no declared commands or subcategories. Not loading the class. This is likely an error!"));
-            return null;
+    /**
+     * Start creating the subcategory held by a field (see {@link #fork(Object, VClass, String, Edict)}).
+     * @param category the category
+     * @param subcategories the subcategories of the category being created
+     * @param name the name of the field
+     * @param fInstance the instance held by the field, or {@code null} if it could not be instantiated
+     * @param system the system
+     */
+    private static void subcategory(@NotNull VClass category, @NotNull List<ForkJoinTask<VCommandable>> subcategories, @NotNull String name, @Nullable Object fInstance, @NotNull Edict system) {
+
+        // Failed
+        if (fInstance == null) {
+            system.w(new StringMessage("Field " + name + " is of a type annotated by @Command but cannot be instantiated!"));
+            return;
         }
 
-        // Add children to tree
-        category.indexer.addAll(category.children);
+        // Success
+        subcategories.add(fork(fInstance, category, name, system));
+    }
 
-        return category;
+    /**
+     * Create categories from instances, in parallel if the tree is being built in parallel (see {@link #fork(Object, VClass, String, Edict)}).
+     * @param instances the instances to create categories from
+     * @param parent the parent of the categories ({@code null} for roots)
+     * @param system the system
+     * @return the categories (or commands) created by {@link #fromInstance(Object, VClass, Edict)}, in the order of the instances
+     * @throws NullPointerException if the {@link ParameterHandler} or {@link ContextHandler} for any parameter of any command is not registered
+     */
+    public static @NotNull List<@Nullable VCommandable> fromInstances(@NotNull List<Object> instances, @Nullable VClass parent, @NotNull Edict system) throws NullPointerException {
+        List<ForkJoinTask<VCommandable>> tasks = new ArrayList<>();
+        for (Object instance : instances) {
+            tasks.add(fork(instance, parent, null, system));
+        }
+        List<VCommandable> built = new ArrayList<>();
+        for (ForkJoinTask<VCommandable> task : tasks) {
+            built.add(task.join());
+        }
+        return built;
+    }
+
+    /**
+     * Start creating a category with {@link #fromInstance(Object, VClass, String, Edict)}.
+     * If the tree is being built in parallel (on a {@link java.util.concurrent.ForkJoinPool} with a {@link BuildLog}), the category is forked
+     * to be built by any thread of the pool, with a child log keeping its messages in place. Otherwise, it is built right away.
+     * @param instance the instance to create the category from
+     * @param parent the parent of the category ({@code null} for roots)
+     * @param field the name of the field of the parent's instance holding the instance ({@code null} for roots)
+     * @param system the system
+     * @return the task creating the category. {@link ForkJoinTask#join() Join} it for the result
+     */
+    private static @NotNull ForkJoinTask<VCommandable> fork(@NotNull Object instance, @Nullable VClass parent, @Nullable String field, @NotNull Edict system) {
+        BuildLog log = BuildLog.current();
+        if (log == null || !ForkJoinTask.inForkJoinPool()) {
+            ForkJoinTask<VCommandable> task = ForkJoinTask.adapt(() -> fromInstance(instance, parent, field, system));
+            task.invoke();
+            return task;
+        }
+        BuildLog child = log.child();
+        return ForkJoinTask.adapt(() -> child.run(() -> fromInstance(instance, parent, field, system))).fork();
     }
 
     @Override
@@ -184,7 +462,7 @@ public record VClass(@NotNull String name, @NotNull Command command, @NotNull Ob
                 name() + " Category Help",
                 command().description()
         ));
-        for (VCommandable child : children) {
+        for (VCommandable child : children()) {
             message.add(child.getHelpFor(user));
             message.add(new CompoundMessage(new StringMessage("\n")));
         }
@@ -192,15 +470,45 @@ public record VClass(@NotNull String name, @NotNull Command command, @NotNull Ob
     }
 
     /**
-     * The tree indexer of the commandable.
+     * The children of the category, building them if they are not built yet.
+     * @return the commands and subcategories of the category
+     * @throws NullPointerException if the {@link ParameterHandler} or {@link ContextHandler} for any parameter of any of the commands is not registered
+     */
+    public @NotNull List<VCommandable> children() throws NullPointerException {
+        return contents().children();
+    }
+
+    /**
+     * The tree indexer of the commandable, building the children if they are not built yet.
      * @return the tree indexer of the commandable
+     * @throws NullPointerException if the {@link ParameterHandler} or {@link ContextHandler} for any parameter of any of the commands is not registered
+     */
+    public @NotNull BKTreeIndexer indexer() throws NullPointerException {
+        return contents().indexer();
+    }
+
+    /**
+     * Get the built children of the category, building them if they are not built yet.
+     * @return the children and their index
      */
-    public @NotNull BKTreeIndexer indexer() {
-        return indexer;
+    private @NotNull VSubtree.Contents contents() {
+        VSubtree.Contents built = subtree.getIfBuilt();
+        if (built != null) {
+            return built;
+        }
+        return subtree.get(() -> {
+            long start = System.nanoTime();
+            List<VCommandable> children = build(this);
+            if (children.isEmpty() && system.isLazy()) {
+                system.w(new StringMessage(instance.getClass().getSimpleName() + " has no declared commands or subcategories. This is likely an error!"));
+            }
+            system.d(() -> new StringMessage("Built " + path() + " (" + children.size() + " children) in " + String.format("%.2f", (System.nanoTime() - start) / 1e6) + "ms"));
+            return children;
+        });
     }
 
     @Override
-    public boolean run(@NotNull List<String> input, @NotNull User user) {
+    public boolean run(@NotNull List<Token> input, @NotNull User user) {
 
         // Send help when this is the final node
         if (input.isEmpty()) {
@@ -209,11 +517,11 @@ public record VClass(@NotNull String name, @NotNull Command command, @NotNull Ob
         }
 
         // Get children
-        List<VCommandable> children = indexer.search(
-                input.get(0),
-                system.getSettings().matchThreshold,
-                vCommandable -> user.hasPermission(vCommandable.permission())
-        );
+        long start = system.getMetrics().start();
+        SearchEvent event = SearchEvent.start();
+        List<VCommandable> children = system.searchPermitted(indexer(), input.get(0).text(), user);
+        event.finish(this, input.get(0).text(), children.size());
+        system.getMetrics().stop(Stage.CLASS_SEARCH, this, start);
 
         // Send command further downstream
         for (VCommandable child : children) {
@@ -226,47 +534,55 @@ public record VClass(@NotNull String name, @NotNull Command command, @NotNull Ob
     }
 
     @Override
-    public @NotNull List<String> suggest(@NotNull List<String> input, @NotNull User user) {
+    public @NotNull List<String> suggest(@NotNull List<Token> input, @NotNull User user, int limit) {
 
         // Current thing is last in line
         if (input.isEmpty()) {
             return allNames();
         }
 
+        Suggestions suggestions = new Suggestions(input.get(input.size() - 1).value(), limit);
+
         // No input string for next, just one or more spaces, so suggest all children
-        if (input.get(0).isBlank()) {
-            List<String> primarySuggestions = new ArrayList<>();
-            List<String> secondarySuggestions = new ArrayList<>();
-            for (VCommandable child : children) {
-                primarySuggestions.add(child.name());
-                secondarySuggestions.addAll(child.getAliases());
+        if (input.get(0).value().isBlank()) {
+            for (VCommandable child : children()) {
+                suggestions.add(child.name());
+                suggestions.addAll(child.getAliases());
             }
-            primarySuggestions.addAll(secondarySuggestions);
-            return primarySuggestions;
+            return suggestions.toList();
         }
 
         // Next input exists and is non-empty, search for next
 
         // Get children
-        List<VCommandable> children = indexer.search(
-                input.get(0),
+        List<VCommandable> children = indexer().search(
+                input.get(0).text(),
                 system.getSettings().matchThreshold,
-                vCommandable -> user.hasPermission(vCommandable.permission())
+                vCommandable -> system.hasPermission(user, vCommandable)
         );
 
         // Send command further downstream
-        List<String> suggestions = new ArrayList<>();
-        children.forEach(c -> suggestions.addAll(c.suggest(input.subList(1, input.size()), user)));
-        return suggestions;
+        for (VCommandable child : children) {
+            SuggestionRequest.checkCurrent();
+            suggestions.addAll(child.suggest(input.subList(1, input.size()), user, limit));
+        }
+        return suggestions.toList();
     }
 
     @Override
     public void networkString(@NotNull StringBuilder builder, @NotNull String indent, @NotNull String currentIndent) {
         builder.append("\n").append(currentIndent).append("= ");
         appendNamesNetworkString(builder);
+
+        // Not built yet, which the network string should not change
+        VSubtree.Contents built = subtree.getIfBuilt();
+        if (built == null) {
+            builder.append("(not built)");
+            return;
+        }
         int subCats = 0;
         int subComs = 0;
-        for (VCommandable child : children) {
+        for (VCommandable child : built.children()) {
             if (child instanceof VClass) {
                 subCats++;
             } else {
@@ -274,13 +590,13 @@ public record VClass(@NotNull String name, @NotNull Command command, @NotNull Ob
             }
         }
         builder.append("(").append(subCats).append(" | ").append(subComs).append(")");
-        for (VCommandable child : children) {
+        for (VCommandable child : built.children()) {
             child.networkString(builder, indent, currentIndent + indent);
         }
     }
 
     @Override
     public int hashCode() {
-        return name.hashCode() + command.hashCode() + instance.hashCode() + children.hashCode() + indexer.hashCode() + system.hashCode() + permission.hashCode();
+        return name.hashCode() + command.hashCode() + instance.hashCode() + subtree.hashCode() + system.hashCode() + permission.hashCode();
     }
 }
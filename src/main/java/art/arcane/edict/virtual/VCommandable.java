@@ -1,6 +1,7 @@
 package art.arcane.edict.virtual;
 
 import art.arcane.edict.message.CompoundMessage;
+import art.arcane.edict.parser.Token;
 import art.arcane.edict.permission.Permission;
 import art.arcane.edict.user.User;
 import org.jetbrains.annotations.NotNull;
@@ -38,6 +39,15 @@ public interface VCommandable {
      */
     @NotNull VCommandable parent();
 
+    /**
+     * Path of the commandable: the names of its parents and itself, separated by spaces.
+     * @return the path of the commandable
+     */
+    default @NotNull String path() {
+        VCommandable parent = parent();
+        return parent == null ? name() : parent.path() + " " + name();
+    }
+
     /**
      * All names (including aliases) of the commandable.
      * @return all names of the commandable
@@ -62,21 +72,22 @@ public interface VCommandable {
 
     /**
      * Run this commandable. It is assumed that this is in fact the right commandable, and that the user has permission.
-     * @param input the remaining input string to parse with
+     * @param input the remaining input tokens to parse with
      * @param user the user that ran the command
      * @return true if a command leaf successfully ran,
      * or one of the branches sent help for a command (because the command ended there).
      */
-    boolean run(@NotNull List<String> input, @NotNull User user);
+    boolean run(@NotNull List<Token> input, @NotNull User user);
 
     /**
      * Get suggestions from this commandable. It is assumed that this is in fact the right commandable, and that the user has permission.
      *
-     * @param input the remaining input string to parse with
+     * @param input the remaining input tokens to parse with
      * @param user  the user that wants suggestions
-     * @return a list of strings representing suggestions
+     * @param limit the maximum number of suggestions
+     * @return a list of at most {@code limit} strings representing suggestions, best matches for the last input token first
      */
-    @NotNull List<String> suggest(@NotNull List<String> input, @NotNull User user);
+    @NotNull List<String> suggest(@NotNull List<Token> input, @NotNull User user, int limit);
 
     /**
      * Append the details of this commandable to the network representation string buider.
@@ -0,0 +1,59 @@
+package art.arcane.edict.virtual;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invoker of a command method, bound to the instance it is called on.
+ * Made once when the command tree is built, so running a command does not go through {@link Method#invoke(Object, Object...)}.
+ */
+@FunctionalInterface
+public interface VInvoker {
+
+    /**
+     * Invoke the command method.
+     * @param arguments the parameter values, in the order of the method parameters
+     * @return the return value of the method ({@code null} for void methods)
+     * @throws Throwable anything thrown by the method itself
+     */
+    @Nullable Object invoke(@Nullable Object @NotNull [] arguments) throws Throwable;
+
+    /**
+     * Create an invoker for a method, using a {@link MethodHandle} specialised to the number of parameters.
+     * @param method the method. Must be accessible (see {@link Method#setAccessible(boolean)}) if it is not public
+     * @param instance the instance to invoke the method on ({@code null} for static methods)
+     * @return the invoker
+     * @throws IllegalArgumentException if the method cannot be accessed
+     */
+    static @NotNull VInvoker of(@NotNull Method method, @Nullable Object instance) throws IllegalArgumentException {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access " + method.getDeclaringClass().getSimpleName() + "#" + method.getName(), e);
+        }
+        if (!Modifier.isStatic(method.getModifiers())) {
+            handle = handle.bindTo(instance);
+        }
+
+        // All parameters and the return type as Object, so the call sites below match exactly
+        final MethodHandle h = handle.asType(handle.type().generic());
+        return switch (method.getParameterCount()) {
+            case 0 -> arguments -> (Object) h.invokeExact();
+            case 1 -> arguments -> (Object) h.invokeExact(arguments[0]);
+            case 2 -> arguments -> (Object) h.invokeExact(arguments[0], arguments[1]);
+            case 3 -> arguments -> (Object) h.invokeExact(arguments[0], arguments[1], arguments[2]);
+            case 4 -> arguments -> (Object) h.invokeExact(arguments[0], arguments[1], arguments[2], arguments[3]);
+            case 5 -> arguments -> (Object) h.invokeExact(arguments[0], arguments[1], arguments[2], arguments[3], arguments[4]);
+            default -> {
+                MethodHandle spreader = h.asSpreader(Object[].class, method.getParameterCount());
+                yield arguments -> (Object) spreader.invokeExact(arguments);
+            }
+        };
+    }
+}
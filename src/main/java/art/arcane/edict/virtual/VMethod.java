@@ -2,19 +2,32 @@ package art.arcane.edict.virtual;
 
 import art.arcane.edict.Edict;
 import art.arcane.edict.api.Command;
+import art.arcane.edict.context.Context;
+import art.arcane.edict.context.SystemContext;
+import art.arcane.edict.context.UserContext;
+import art.arcane.edict.jfr.CommandEvent;
+import art.arcane.edict.jfr.InvokeEvent;
+import art.arcane.edict.jfr.ParseEvent;
 import art.arcane.edict.message.CompoundMessage;
 import art.arcane.edict.message.HoverableClickableMessage;
 import art.arcane.edict.message.HoverableMessage;
 import art.arcane.edict.message.StringMessage;
+import art.arcane.edict.metrics.Counter;
+import art.arcane.edict.metrics.Metrics;
+import art.arcane.edict.metrics.Stage;
 import art.arcane.edict.permission.Permission;
+import art.arcane.edict.suggestion.SuggestionRequest;
+import art.arcane.edict.suggestion.Suggestions;
 import art.arcane.edict.user.User;
+import art.arcane.edict.parser.BindingPlan;
 import art.arcane.edict.parser.ParameterParser;
+import art.arcane.edict.parser.Token;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -23,28 +36,66 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @param command the command annotation
  * @param parent parent branches
  * @param method the method for this command
+ * @param invoker the invoker of the {@code method}, bound to the instance of the {@code parent}
  * @param permission the permission node of this command
  * @param params the parameters of this method {@link VParam}s
+ * @param plan the binding plan of the {@code params}, compiled once they are known
  * @param system the command system
  */
-public record VMethod(@NotNull Command command, @Nullable VClass parent, @NotNull Method method, @NotNull List<VParam> params, @NotNull Permission permission, @NotNull Edict system) implements VCommandable {
+public record VMethod(@NotNull Command command, @Nullable VClass parent, @NotNull Method method, @NotNull VInvoker invoker, @NotNull List<VParam> params, @NotNull BindingPlan plan, @NotNull Permission permission, @NotNull Edict system) implements VCommandable {
 
     public static VCommandable fromInstance(Method method, Object instance, Edict system) {
         if (!method.isAnnotationPresent(Command.class)) {
-            system.d(new StringMessage("#" + method.getName() + "() not registered because not annotated by @Command"));
+            system.d(() -> new StringMessage("#" + method.getName() + "() not registered because not annotated by @Command"));
             throw new MissingResourceException("@Command annotation not present on method " + method.getName(), method.getName(), "@Command");
         }
         method.setAccessible(true);
         Command annotation = method.getDeclaredAnnotation(Command.class);
+        return create(annotation, null, method, instance, system.makePermission(null, annotation.permission()), system);
+    }
+
+    /**
+     * Create a method node, with its parameters and their binding plan.
+     * @param command the command annotation
+     * @param parent parent branches
+     * @param method the method for this command (must be accessible)
+     * @param instance the instance to invoke the method on
+     * @param permission the permission node of this command
+     * @param system the command system
+     * @return the method node
+     */
+    public static @NotNull VMethod create(@NotNull Command command, @Nullable VClass parent, @NotNull Method method, @Nullable Object instance, @NotNull Permission permission, @NotNull Edict system) {
+        return create(command, parent, method, VInvoker.of(method, instance), permission, system);
+    }
+
+    /**
+     * Create a method node with a given invoker, with its parameters and their binding plan.
+     * @param command the command annotation
+     * @param parent parent branches
+     * @param method the method for this command
+     * @param invoker the invoker of the method, e.g. one generated by the {@link art.arcane.edict.processor.CommandProcessor}
+     * @param permission the permission node of this command
+     * @param system the command system
+     * @return the method node
+     */
+    public static @NotNull VMethod create(@NotNull Command command, @Nullable VClass parent, @NotNull Method method, @NotNull VInvoker invoker, @NotNull Permission permission, @NotNull Edict system) {
+        // Parameters refer to their method, and the method holds the plan compiled from them, so the parameters are created against a draft first
+        VMethod draft = new VMethod(command, parent, method, invoker, List.of(), BindingPlan.of(method, List.of()), permission, system);
+        List<VParam> drafted = VParam.paramsFromMethod(draft, method, system);
+        List<VParam> params = new ArrayList<>(drafted.size());
         VMethod vMethod = new VMethod(
-                annotation,
-                null,
+                command,
+                parent,
                 method,
-                new ArrayList<>(),
-                system.makePermission(null, annotation.permission()),
+                invoker,
+                Collections.unmodifiableList(params),
+                BindingPlan.of(method, drafted),
+                permission,
                 system
         );
-        vMethod.params().addAll(VParam.paramsFromMethod(vMethod, method, system));
+        for (VParam param : drafted) {
+            params.add(param.withParent(vMethod));
+        }
         return vMethod;
     }
 
@@ -128,16 +179,46 @@ public record VMethod(@NotNull Command command, @Nullable VClass parent, @NotNul
     }
 
     @Override
-    public boolean run(@NotNull List<String> input, @NotNull User user) {
-        if (input.size() < params.stream().filter(p -> !(p.param().contextual() && user.canUseContext()) || !p.param().defaultValue().isBlank()).count()) {
+    public boolean run(@NotNull List<Token> input, @NotNull User user) {
+        CommandEvent.reached(this);
+        if (input.size() < plan.required(user.canUseContext())) {
             // improve this by sending param-specific targeted help
             user.send(getHelpFor(user));
             return true;
         }
-        user.send(new StringMessage("Running command " + name() + (input.isEmpty() ? " without input" : " with input: " + String.join(", ", input))));
-        ParameterParser parser = new ParameterParser(input, params, user, system);
-        Object[] values = parser.parse();
+        user.send(new StringMessage("Running command " + name() + (input.isEmpty() ? " without input" : " with input: " + String.join(", ", input.stream().map(Token::text).toList()))));
+        ParseEvent event = ParseEvent.start();
+        ParameterParser parser = new ParameterParser(input, this, user, system);
+        CompletableFuture<Object[]> parsed = parser.parse();
+
+        if (parsed.isDone()) {
+            Object[] values = parsed.join();
+            event.finish(user, this, input.size(), values == null ? "missing parameters" : "parsed");
+            return complete(values, parser, input, user);
+        }
+        event.finish(user, this, input.size(), "picking options");
+
+        // The user is picking an option. Finish once they have, without waiting for it here.
+        parsed.whenComplete((values, throwable) -> {
+            if (throwable != null) {
+                user.send(new StringMessage("The command system is busy. Please try again in a moment."));
+                system.w(new StringMessage("Could not continue command " + name() + " for " + user.name() + " due to " + throwable));
+                return;
+            }
+            complete(values, parser, input, user);
+        });
+        return true;
+    }
 
+    /**
+     * Complete running the command once its parameters are parsed.
+     * @param values the parameter values, or {@code null} if the parser failed to find them
+     * @param parser the parser that parsed the parameters
+     * @param input the input tokens
+     * @param user the user that ran the command
+     * @return true if the command ran successfully
+     */
+    private boolean complete(@Nullable Object[] values, @NotNull ParameterParser parser, @NotNull List<Token> input, @NotNull User user) {
         if (!parser.getBadArgsAndReasons().isEmpty()) {
             user.send(new StringMessage("Some of your inputs were bad & ignored:"));
             for (String argAndReason : parser.getBadArgsAndReasons()) {
@@ -146,6 +227,7 @@ public record VMethod(@NotNull Command command, @Nullable VClass parent, @NotNul
         }
 
         if (values == null) {
+            system.getMetrics().increment(Counter.MISSING_PARAMETERS, this);
             user.send(new StringMessage("Some parameters did not get a value:"));
             for (VParam param : parser.getMissingInputs()) {
                 user.send(new StringMessage(" - " + param.name() + " (" + param.parameter().getType().getSimpleName() + ")"));
@@ -154,55 +236,71 @@ public record VMethod(@NotNull Command command, @Nullable VClass parent, @NotNul
             return true;
         }
 
-        String reason = verifyParameters(values, method);
+        String reason = verifyParameters(values);
         if (reason != null) {
             long l = System.currentTimeMillis();
             user.send(new StringMessage("WARNING: System error, parameter value extraction failed. Please contact your admin with code: " + l));
-            system.w(new StringMessage("(Code " + l + ") Parameter value extraction failed for " + parent().instance().getClass() + "#" + method.getName() + " with input '" + String.join(" ", input) + "' -> " + Arrays.toString(values) + "\n" +
+            system.w(new StringMessage("(Code " + l + ") Parameter value extraction failed for " + method.getDeclaringClass() + "#" + method.getName() + " with input '" + String.join(" ", input.stream().map(Token::text).toList()) + "' -> " + Arrays.toString(values) + "\n" +
                     "Because of: " + reason));
             return true;
         }
 
 
-        AtomicBoolean success = new AtomicBoolean(true);
-
-        Runnable executor = () -> {
-            try {
-                method.invoke(parent.instance(), values);
-                success.set(true);
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                long l = System.currentTimeMillis();
-                user.send(new StringMessage("WARNING: System error, please contact your admin. Code: " + l));
-                system.w(new StringMessage("(Code: " + l + ") Failed to invoke " + method.getName() + " on " + parent.getClass().getSimpleName() + " due to " + e));
-                system.w(new StringMessage(Arrays.toString(e.getStackTrace())));
-                system.w(new StringMessage("This is MOST likely an issue with Edict. Please contact us with the method (and class) and command that was ran."));
-                success.set(false);
-            }
-        };
-
         if (command().sync()) {
-            system.runSync(executor);
-        } else {
-            executor.run();
+            AtomicBoolean success = new AtomicBoolean(true);
+            Metrics metrics = system.getMetrics();
+            long queued = metrics.start();
+            system.runSync(() -> {
+                metrics.stop(Stage.SYNC_WAIT, this, queued);
+                success.set(invoke(values, user));
+            });
+            return success.get();
         }
 
-        return success.get();
+        return invoke(values, user);
+    }
+
+    /**
+     * Invoke the command method through the {@link #invoker}.
+     * @param values the parameter values
+     * @param user the user that ran the command
+     * @return true if the invocation succeeded
+     */
+    private boolean invoke(@Nullable Object @NotNull [] values, @NotNull User user) {
+        // Bound here as well, because this may run on the sync runner or resume after an option pick on another thread
+        long start = system.getMetrics().start();
+        InvokeEvent event = InvokeEvent.start();
+        try (Context.Scope ignoredUser = UserContext.INSTANCE.bind(user); Context.Scope ignoredSystem = SystemContext.INSTANCE.bind(system)) {
+            invoker.invoke(values);
+            event.finish(user, this, "invoked");
+            system.getMetrics().stop(Stage.INVOKE, this, start);
+            return true;
+        } catch (Throwable e) {
+            event.finish(user, this, "failed: " + e.getClass().getSimpleName());
+            system.getMetrics().increment(Counter.INVOCATION_FAILED, this);
+            long l = System.currentTimeMillis();
+            user.send(new StringMessage("WARNING: System error, please contact your admin. Code: " + l));
+            system.w(new StringMessage("(Code: " + l + ") Failed to invoke " + method.getName() + " on " + method.getDeclaringClass().getSimpleName() + " due to " + e));
+            system.w(new StringMessage(Arrays.toString(e.getStackTrace())));
+            system.w(new StringMessage("This is MOST likely an issue with Edict. Please contact us with the method (and class) and command that was ran."));
+            return false;
+        }
     }
 
     @Override
-    public @NotNull List<String> suggest(@NotNull List<String> input, @NotNull User user) {
+    public @NotNull List<String> suggest(@NotNull List<Token> input, @NotNull User user, int limit) {
         if (input.isEmpty()) {
             return allNames();
         }
-        List<String> suggestions = new ArrayList<>();
-        if (input.get(0).isBlank()) {
-            params.forEach(p -> suggestions.addAll(p.suggest(new ArrayList<>(), user)));
-            return suggestions;
+        // The last token is the one being typed: suggest the best possibilities for it, of the parameters it can fill
+        Token typing = input.get(input.size() - 1);
+        Suggestions suggestions = new Suggestions(typing.value(), limit);
+        List<VParam> suggesting = new ParameterParser(input.subList(0, input.size() - 1), this, user, system).fillable(typing);
+        for (VParam param : suggesting) {
+            SuggestionRequest.checkCurrent();
+            suggestions.addAll(param.suggest(List.of(typing), user, limit));
         }
-        ParameterParser parser = new ParameterParser(input, params, user, system);
-        parser.parse();
-        parser.getMissingInputs().forEach(p -> suggestions.addAll(p.suggest(new ArrayList<>(), user)));
-        return suggestions;
+        return suggestions.toList();
     }
 
     @Override
@@ -221,22 +319,18 @@ public record VMethod(@NotNull Command command, @Nullable VClass parent, @NotNul
     }
 
     /**
-     * Verify that the generated parameters for a method are correct.
+     * Verify that the generated parameters for this method are correct.
      * @param parameterValues the generated parameter values
-     * @param method the method
      * @return null if successful. Otherwise, a string message with the reason
      */
-    private static @Nullable String verifyParameters(@NotNull Object @NotNull [] parameterValues, @NotNull Method method) {
-        if (parameterValues.length != method.getParameters().length) {
-            return parameterValues.length + " does not equal required parameter count of " + method.getParameters().length;
+    private @Nullable String verifyParameters(@Nullable Object @NotNull [] parameterValues) {
+        if (parameterValues.length != method.getParameterCount()) {
+            return parameterValues.length + " does not equal required parameter count of " + method.getParameterCount();
         }
-        for (int i = 0; i < method.getParameters().length; i++) {
-            if (parameterValues[i] == null) {
-                continue;
-            }
-
-            if (parameterValues[i].getClass() != method.getParameters()[i].getType()) {
-                return "Type of parameter " + i + " is " + parameterValues[i].getClass().getSimpleName() + " but should be " + method.getParameters()[i].getType().getSimpleName();
+        for (int i = 0; i < plan.size(); i++) {
+            Object value = parameterValues[plan.slot(i)];
+            if (value != null && !plan.type(i).isInstance(value)) {
+                return "Type of parameter " + plan.slot(i) + " is " + value.getClass().getSimpleName() + " but should be " + plan.type(i).getSimpleName();
             }
         }
         return null;
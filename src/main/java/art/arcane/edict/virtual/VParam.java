@@ -3,12 +3,17 @@ package art.arcane.edict.virtual;
 import art.arcane.edict.Edict;
 import art.arcane.edict.api.Param;
 import art.arcane.edict.exception.ContextMissingException;
+import art.arcane.edict.exception.ParsingException;
+import art.arcane.edict.exception.WhichException;
 import art.arcane.edict.handler.ContextHandler;
 import art.arcane.edict.handler.ParameterHandler;
 import art.arcane.edict.message.CompoundMessage;
 import art.arcane.edict.message.HoverableClickableMessage;
 import art.arcane.edict.message.HoverableMessage;
+import art.arcane.edict.parser.Token;
 import art.arcane.edict.permission.Permission;
+import art.arcane.edict.suggestion.SuggestionRequest;
+import art.arcane.edict.suggestion.Suggestions;
 import art.arcane.edict.user.User;
 import org.apache.commons.lang3.NotImplementedException;
 import org.jetbrains.annotations.NotNull;
@@ -17,6 +22,7 @@ import org.jetbrains.annotations.Nullable;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.MissingResourceException;
 
@@ -24,8 +30,17 @@ import java.util.MissingResourceException;
  * Record for a virtual parameter.
  * @param param the parameter annotation
  * @param parameter the parameter itself
+ * @param parsedDefault the default value, parsed when the tree was built. {@code null} if there is no default,
+ *                      if the {@code parameterHandler} does not opt in to {@link ParameterHandler#cacheDefaults() caching defaults},
+ *                      or if the default could not be parsed without user input
  */
-public record VParam(@NotNull Param param, @NotNull Parameter parameter, @NotNull VMethod parent, @NotNull ParameterHandler<?> parameterHandler, @Nullable ContextHandler<?> contextHandler, @NotNull Edict system) implements VCommandable {
+public record VParam(@NotNull Param param, @NotNull Parameter parameter, @NotNull VMethod parent, @NotNull ParameterHandler<?> parameterHandler, @Nullable ContextHandler<?> contextHandler, @Nullable ParsedDefault parsedDefault, @NotNull Edict system) implements VCommandable {
+
+    /**
+     * Default value parsed ahead of time.
+     * @param value the parsed value
+     */
+    public record ParsedDefault(@Nullable Object value) {}
 
     /**
      * Create a list of parameters from a method.
@@ -43,12 +58,14 @@ public record VParam(@NotNull Param param, @NotNull Parameter parameter, @NotNul
                 throw new MissingResourceException("@Param annotation missing on provided parameter", parameter.getClass().getSimpleName(), "@Param");
             }
             Param annotation = parameter.getDeclaredAnnotation(Param.class);
+            ParameterHandler<?> handler = system.getParameterHandlers().getHandlerFor(parameter.getType());
             params.add(new VParam(
                     annotation,
                     parameter,
                     parent,
-                    system.getParameterHandlers().getHandlerFor(parameter.getType()),
+                    handler,
                     annotation.contextual() ? system.getContextHandlers().getHandlerFor(parameter.getType()) : null,
+                    parseDefault(annotation, handler, annotation.name().isBlank() ? parameter.getName() : annotation.name()),
                     system
             ));
         }
@@ -71,6 +88,34 @@ public record VParam(@NotNull Param param, @NotNull Parameter parameter, @NotNul
         return params;
     }
 
+    /**
+     * Copy this parameter to another method.
+     * @param parent the method
+     * @return the same parameter, with the method as its parent
+     */
+    @NotNull VParam withParent(@NotNull VMethod parent) {
+        return new VParam(param, parameter, parent, parameterHandler, contextHandler, parsedDefault, system);
+    }
+
+    /**
+     * Parse the default value of a parameter ahead of time.
+     * @param annotation the parameter annotation
+     * @param handler the parameter handler
+     * @param name the name of the parameter
+     * @return the parsed default, or {@code null} if there is none or it cannot be cached
+     */
+    private static @Nullable ParsedDefault parseDefault(@NotNull Param annotation, @NotNull ParameterHandler<?> handler, @NotNull String name) {
+        if (annotation.defaultValue().isBlank() || !handler.cacheDefaults()) {
+            return null;
+        }
+        try {
+            return new ParsedDefault(handler.parse(annotation.defaultValue(), name));
+        } catch (ParsingException | WhichException | RuntimeException e) {
+            // Parsed (and reported) on every run instead
+            return null;
+        }
+    }
+
     /**
      * Name of the commandable.
      *
@@ -193,23 +238,31 @@ public record VParam(@NotNull Param param, @NotNull Parameter parameter, @NotNul
     /**
      * Run this commandable. It is assumed that this is in fact the right commandable, and that the user has permission.
      *
-     * @param input the remaining input string to parse with
+     * @param input the remaining input tokens to parse with
      * @param user  the user that ran the command
      * @return true if a command leaf successfully ran,
      * or one of the branches sent help for a command (because the command ended there).
      */
     @Override
-    public boolean run(@NotNull List<String> input, @NotNull User user) {
+    public boolean run(@NotNull List<Token> input, @NotNull User user) {
         throw new NotImplementedException();
     }
 
     @Override
-    public @NotNull List<String> suggest(@NotNull List<String> input, @NotNull User user) {
-        List<String> suggestions = parameterHandler.getPossibilities(input.isEmpty() ? "" : input.get(0)).stream().map(parameterHandler::toStringForce).toList();
+    public @NotNull List<String> suggest(@NotNull List<Token> input, @NotNull User user, int limit) {
+        String typed = input.isEmpty() ? "" : input.get(0).value();
+        Suggestions suggestions = new Suggestions(typed, limit);
+        Iterator<?> possibilities = parameterHandler.streamPossibilities(typed).iterator();
+        for (int i = 0; possibilities.hasNext(); i++) {
+            if (i % 64 == 0) {
+                SuggestionRequest.checkCurrent();
+            }
+            suggestions.add(parameterHandler.toStringForce(possibilities.next()));
+        }
         if (suggestions.isEmpty()) {
             return allNames().stream().map(n -> n + "=").toList();
         } else {
-            return suggestions;
+            return suggestions.toList();
         }
     }
 
@@ -0,0 +1,81 @@
+package art.arcane.edict.virtual;
+
+import art.arcane.edict.util.BKTreeIndexer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Children of a {@link VClass} and their index, built once, when first needed.<br>
+ * Building takes a lock, so a subtree is built only once even if many threads need it at the same time.
+ * Once built, the children are published through a single volatile read, so reading them never locks.
+ */
+public final class VSubtree {
+
+    /**
+     * Lock held while building.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The built children, or {@code null} if they are not built yet.
+     */
+    private volatile @Nullable Contents contents;
+
+    /**
+     * Whether the children are built.
+     * @return true if they are built
+     */
+    public boolean isBuilt() {
+        return contents != null;
+    }
+
+    /**
+     * Get the children and their index, if they are built.
+     * @return the children and their index, or {@code null} if they are not built yet
+     */
+    public @Nullable Contents getIfBuilt() {
+        return contents;
+    }
+
+    /**
+     * Get the children and their index, building them if they are not built yet.
+     * If building throws, nothing is published and the next call tries again.
+     * @param builder builds the children
+     * @return the children and their index
+     * @throws IllegalStateException if the builder needs the children it is building
+     */
+    public @NotNull Contents get(@NotNull Supplier<List<VCommandable>> builder) throws IllegalStateException {
+        Contents built = contents;
+        if (built != null) {
+            return built;
+        }
+        if (lock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("Subtree needed while it is being built");
+        }
+        lock.lock();
+        try {
+            built = contents;
+            if (built == null) {
+                List<VCommandable> children = List.copyOf(builder.get());
+                BKTreeIndexer indexer = new BKTreeIndexer();
+                indexer.addAll(children);
+                built = new Contents(children, indexer);
+                contents = built;
+            }
+            return built;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Built children of a category.
+     * @param children the children, which cannot be modified
+     * @param indexer the index of the children
+     */
+    public record Contents(@NotNull List<VCommandable> children, @NotNull BKTreeIndexer indexer) {}
+}
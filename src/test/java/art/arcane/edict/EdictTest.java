@@ -1,12 +1,19 @@
 package art.arcane.edict;
 
 import art.arcane.edict.context.UserContext;
+import art.arcane.edict.handler.PossibilityIndex;
+import art.arcane.edict.suggestion.SuggestionRequest;
+import art.arcane.edict.suggestion.SuggestionSession;
 import art.arcane.edict.testconstruct.*;
+import art.arcane.edict.user.SystemUser;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -53,6 +60,50 @@ public class EdictTest {
         assertEquals("ran root command", TESTUSER.received.get(TESTUSER.received.size() - 1).string());
     }
 
+    @Test
+    void busy() {
+        Edict busy = Edict.builder(new TestCommandClass())
+                .executor(r -> { throw new RejectedExecutionException(); })
+                .build();
+        TESTUSER.received.clear();
+        busy.command("test command", TESTUSER);
+        assertEquals("The command system is busy. Please try again in a moment.", TESTUSER.received.get(0).string());
+        List<String> suggestions = new ArrayList<>();
+        busy.suggest("test", TESTUSER, suggestions::addAll, false);
+        assertEquals(List.of("<busy>"), suggestions);
+    }
+
+    @Test
+    void pickOption() {
+        Edict picking = Edict.builder(new TestPickCommandClass())
+                .parameterHandler(new TestCharacterParameterHandler())
+                .executor(Runnable::run)
+                .build();
+        TESTUSER.received.clear();
+        picking.command("pick character abc", TESTUSER, true);
+        assertTrue(TESTUSER.received.stream().noneMatch(m -> m.string().startsWith("picked")));
+        assertNotNull(picking.getCompletableCommandsRegistry().getCompletableFor(TESTUSER));
+        picking.command("1", TESTUSER, true);
+        assertEquals("picked b", TESTUSER.received.get(TESTUSER.received.size() - 1).string());
+        assertNull(picking.getCompletableCommandsRegistry().getCompletableFor(TESTUSER));
+    }
+
+    @Test
+    void pickOptionSuperseded() {
+        Edict picking = Edict.builder(new TestPickCommandClass())
+                .parameterHandler(new TestCharacterParameterHandler())
+                .executor(Runnable::run)
+                .build();
+        TESTUSER.received.clear();
+        picking.command("pick character abc", TESTUSER, true);
+        int prompted = TESTUSER.received.size();
+        CompletableFuture<String> other = new CompletableFuture<>();
+        picking.getCompletableCommandsRegistry().register(TESTUSER, other);
+        List<String> after = TESTUSER.received.subList(prompted, TESTUSER.received.size()).stream().map(m -> m.string()).toList();
+        assertTrue(after.stream().noneMatch(m -> m.startsWith("Please pick") || m.contains("timed out")));
+        assertSame(other, picking.getCompletableCommandsRegistry().getCompletableFor(TESTUSER));
+    }
+
     @Test
     void testSuggestionsSimple() {
         suggestionCheck("te", "test");
@@ -73,6 +124,109 @@ public class EdictTest {
         suggestionCheck("con", "context");
     }
 
+    @Test
+    void parallelBuild() {
+        List<String> serialOut = new ArrayList<>();
+        List<String> parallelOut = Collections.synchronizedList(new ArrayList<>());
+        Edict serial = buildWith(1, serialOut);
+        Edict parallel = buildWith(4, parallelOut);
+        assertEquals(serial.networkString(), parallel.networkString());
+        assertEquals(
+                serialOut.stream().filter(line -> !line.startsWith("Built ")).toList(),
+                parallelOut.stream().filter(line -> !line.startsWith("Built ")).toList()
+        );
+        assertTrue(parallelOut.stream().anyMatch(line -> line.contains("has no declared commands")));
+    }
+
+    @Test
+    void registerAndUnregister() {
+        Edict edict = Edict.builder(new TestCommandClass()).build();
+        TestUser user = new TestUser();
+        List<?> before = edict.getRootCommands();
+
+        TestCommandCategory category = new TestCommandCategory();
+        assertTrue(edict.register(category));
+        assertFalse(edict.register(category));
+        assertEquals(1, before.size());
+        assertEquals(2, edict.getRootCommands().size());
+        edict.command("rootcommand", user, true);
+        assertEquals("ran root command", user.received.get(user.received.size() - 1).string());
+
+        assertTrue(edict.unregister(category));
+        assertFalse(edict.unregister(category));
+        assertEquals(1, edict.getRootCommands().size());
+        edict.command("rootcommand", user, true);
+        assertTrue(user.received.get(user.received.size() - 1).string().startsWith("Failed to run any commands"));
+    }
+
+    @Test
+    void suggestionsSelectedForTypedValue() {
+        Edict items = Edict.builder(new TestItemCommandClass())
+                .parameterHandler(new TestItemParameterHandler())
+                .build();
+        // "zebra" comes after more possibilities than fit in the suggestions
+        assertTrue(new TestItemParameterHandler().getPossibilities().size() > items.getSettings().suggestionLimit);
+        List<String> suggestions = new ArrayList<>();
+        items.suggest("items give zeb", TESTUSER, suggestions::addAll, true);
+        assertEquals(List.of("zebra"), suggestions);
+        suggestions.clear();
+        items.suggest("items give item=zeb", TESTUSER, suggestions::addAll, true);
+        assertEquals(List.of("zebra"), suggestions);
+        suggestions.clear();
+        items.suggest("items give ", TESTUSER, suggestions::addAll, true);
+        assertEquals(items.getSettings().suggestionLimit, suggestions.size());
+    }
+
+    @Test
+    void suggestionsFilteredThroughIndex() {
+        TestIndexedItemParameterHandler handler = new TestIndexedItemParameterHandler();
+        Edict items = Edict.builder(new TestItemCommandClass())
+                .parameterHandler(handler)
+                .build();
+        List<String> suggestions = new ArrayList<>();
+        for (String typed : List.of("z", "ze", "zeb")) {
+            suggestions.clear();
+            items.suggest("items give " + typed, TESTUSER, suggestions::addAll, true);
+        }
+        assertEquals(List.of("zebra"), suggestions);
+        assertNotNull(PossibilityIndex.of(handler));
+        // The index is built once and filtered on every keystroke
+        assertEquals(1, handler.listed);
+
+        // And built again once the possibilities change
+        handler.version++;
+        items.suggest("items give zebr", TESTUSER, suggestions::addAll, true);
+        assertEquals(2, handler.listed);
+    }
+
+    @Test
+    void registerResetsSuggestionSessions() {
+        Edict edict = Edict.builder(new TestCommandClass()).build();
+        edict.suggest("test ", TESTUSER, suggestions -> {}, true);
+        SuggestionSession session = edict.getSuggestionSessions().get(TESTUSER);
+        assertEquals(1, session.getResolved());
+
+        // A request in flight while the tree changes is still cancelled by the next one
+        SuggestionRequest inFlight = new SuggestionRequest();
+        session.supersede(inFlight);
+        edict.register(new TestCommandCategory());
+        assertSame(session, edict.getSuggestionSessions().get(TESTUSER));
+        edict.suggest("test ", TESTUSER, suggestions -> {}, true);
+        assertTrue(inFlight.isCancelled());
+
+        // Resolved again for the new tree
+        assertEquals(2, session.getResolved());
+    }
+
+    private Edict buildWith(int parallelism, List<String> out) {
+        return Edict.builder(new TestCommandClass(), new TestEmptyCommandClass(), new TestCommandClassContext(), new TestCommandCategory())
+                .contextHandler(new TestContextValueContextHandler())
+                .parameterHandler(new TestContextValueParameterHandler())
+                .systemUser(new SystemUser(SystemUser.Level.DEBUG, out::add))
+                .buildParallelism(parallelism)
+                .build();
+    }
+
     private void suggestionCheck(String input, @NotNull String expected) {
         List<String> suggestions = new ArrayList<>();
         SUT.suggest(input, TESTUSER, suggestions::addAll, true);
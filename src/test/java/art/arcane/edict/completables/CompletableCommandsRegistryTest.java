@@ -1,8 +1,10 @@
 package art.arcane.edict.completables;
 
 import art.arcane.edict.testconstruct.TestUser;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -23,4 +25,59 @@ class CompletableCommandsRegistryTest {
         assertEquals("test", command.get(1, TimeUnit.SECONDS));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testRemovedOnComplete() {
+        TestUser user = new TestUser();
+        CompletableFuture<String> command = new CompletableFuture<>();
+        SUT.register(user, command);
+        command.complete("test");
+        assertNull(SUT.getCompletableFor(user));
+    }
+
+    @Test
+    public void testOverwriteCancels() {
+        TestUser user = new TestUser();
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        SUT.register(user, first);
+        SUT.register(user, second);
+        assertTrue(first.isCancelled());
+        assertSame(second, SUT.getCompletableFor(user));
+        assertEquals(1, SUT.getOutstanding());
+    }
+
+    @Test
+    public void testExpire() {
+        TestUser user = new TestUser();
+        CompletableFuture<String> command = new CompletableFuture<>();
+        SUT.register(user, command, Duration.ofMillis(10));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> command.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertNull(SUT.getCompletableFor(user));
+        assertEquals(0, SUT.getOutstanding());
+        assertEquals(1, SUT.getExpired());
+        assertEquals(0, SUT.getCompleted());
+    }
+
+    @Test
+    public void testStableId() {
+        CompletableFuture<String> command = new CompletableFuture<>();
+        SUT.register(new IdUser("a"), command);
+        assertSame(command, SUT.getCompletableFor(new IdUser("a")));
+        assertNull(SUT.getCompletableFor(new IdUser("b")));
+        assertEquals(1, SUT.getOutstanding());
+    }
+
+    private static class IdUser extends TestUser {
+        private final String id;
+
+        private IdUser(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public @NotNull Object id() {
+            return id;
+        }
+    }
+}
@@ -5,18 +5,18 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class BrainContextTest {
     Context<Brain> SUT = new Context<Brain>() {
 
-        private static final ConcurrentHashMap<@NotNull Thread, @Nullable Brain> map = new ConcurrentHashMap<>();
+        private static final ThreadLocal<@Nullable Brain> context = new ThreadLocal<>();
 
         @Override
-        public ConcurrentHashMap<@NotNull Thread, @Nullable Brain> context() {
-            return map;
+        public @NotNull ThreadLocal<@Nullable Brain> context() {
+            return context;
         }
     };
 
@@ -24,18 +24,17 @@ public class BrainContextTest {
     public void testBrain() throws InterruptedException {
         Brain brain = new Brain(50, "male");
         Brain brain2 = new Brain(30, "female");
+        AtomicReference<Brain> other = new AtomicReference<>();
         SUT.post(brain);
         Thread thread = new Thread(() -> {
-            SUT.post(brain2);
-            assertEquals(brain2, SUT.get());
-            SUT.clean();
+            try (Context.Scope ignored = SUT.bind(brain2)) {
+                other.set(SUT.get());
+            }
         });
         thread.start();
-        Thread.sleep(20);
-        assertEquals(SUT.get(), SUT.get());
-        SUT.clean();
-        assertNull(SUT.context().get(thread));
-        assertNotNull(SUT.get());
+        thread.join();
+        assertEquals(brain2, other.get());
+        assertEquals(brain, SUT.get());
         SUT.delete();
         assertNull(SUT.get());
     }
@@ -3,11 +3,8 @@ package art.arcane.edict.context;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Test;
-import org.opentest4j.AssertionFailedError;
 
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.ReentrantLock;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,10 +12,10 @@ class ContextTest {
 
     final Context<Integer> SUT = new Context<>() {
 
-        private static final ConcurrentHashMap<@NotNull Thread, @Nullable Integer> context = new ConcurrentHashMap<>();
+        private static final ThreadLocal<@Nullable Integer> context = new ThreadLocal<>();
 
         @Override
-        public ConcurrentHashMap<@NotNull Thread, @Nullable Integer> context() {
+        public @NotNull ThreadLocal<@Nullable Integer> context() {
             return context;
         }
     };
@@ -26,51 +23,46 @@ class ContextTest {
     @Test
     void post() {
         SUT.post(1);
+        SUT.delete();
     }
 
     @Test
-    void clean() {
-        Thread rr = Thread.currentThread();
-        AtomicReference<AssertionFailedError> e = new AtomicReference<>(null);
+    void threads() throws InterruptedException {
+        SUT.post(5);
+        AtomicReference<Integer> before = new AtomicReference<>(-1);
+        AtomicReference<Integer> after = new AtomicReference<>(-1);
         Thread t = new Thread(() -> {
-            try {
-                SUT.post(5);
-                assertEquals(5, SUT.context().get(Thread.currentThread()));
-                SUT.clean();
-                assertNotNull(SUT.context().get(rr));
-                assertNotNull(SUT.context().get(Thread.currentThread()));
-            } catch (AssertionFailedError ex) {
-                e.set(ex);
-                throw ex;
-            }
+            before.set(SUT.get());
+            SUT.post(6);
+            after.set(SUT.get());
         });
         t.start();
-        if (e.get() != null) {
-            throw e.get();
-        }
-        t.interrupt();
-        SUT.clean();
-        assertNull(SUT.context().get(t));
-        assertNotNull(SUT.context().get(Thread.currentThread()));
+        t.join();
+        assertNull(before.get());
+        assertEquals(6, after.get());
+        assertEquals(5, SUT.get());
+        SUT.delete();
     }
 
     @Test
-    void getAndPost() throws InterruptedException {
-        ReentrantLock l = new ReentrantLock();
+    void getAndPost() {
         SUT.post(5);
-        Thread r = new Thread(() -> {
-            l.lock();
-            SUT.post(6);
-            l.unlock();
-        });
-        r.start();
-        Thread.sleep(2);
-        l.lock();
-        l.unlock();
         assertEquals(5, SUT.get());
-        assertEquals(6, SUT.context().get(r));
         SUT.post(1);
         assertEquals(1, SUT.get());
+        SUT.delete();
+    }
+
+    @Test
+    void bind() {
+        try (Context.Scope ignored = SUT.bind(5)) {
+            assertEquals(5, SUT.get());
+            try (Context.Scope ignoredToo = SUT.bind(6)) {
+                assertEquals(6, SUT.get());
+            }
+            assertEquals(5, SUT.get());
+        }
+        assertNull(SUT.get());
     }
 
     @Test
@@ -79,4 +71,4 @@ class ContextTest {
         SUT.delete();
         assertNull(SUT.get());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package art.arcane.edict.descriptor;
+
+import art.arcane.edict.api.Command;
+import art.arcane.edict.testconstruct.TestCommandClass;
+import art.arcane.edict.testconstruct.TestCommandClassToo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DescriptorsTest {
+
+    @Test
+    void ofGenerated() {
+        CommandDescriptor<TestCommandClass> SUT = Descriptors.of(TestCommandClass.class);
+        assertNotNull(SUT);
+        assertEquals(TestCommandClass.class, SUT.type());
+        assertEquals(List.of("command", "methodName"), SUT.methods().stream().map(MethodDescriptor::name).toList());
+        assertEquals(List.of("x"), SUT.fields().stream().map(FieldDescriptor::name).toList());
+        assertSame(SUT, Descriptors.of(TestCommandClass.class));
+    }
+
+    @Test
+    void ofPrivateMembers() {
+        CommandDescriptor<TestCommandClass> SUT = Descriptors.of(TestCommandClass.class);
+        assertNotNull(SUT);
+        FieldDescriptor<TestCommandClass> field = SUT.fields().get(0);
+        assertNull(field.getter());
+        assertNotNull(field.constructor());
+        assertInstanceOf(TestCommandClassToo.class, field.constructor().get());
+    }
+
+    @Test
+    void ofMissing() {
+        assertNull(Descriptors.of(String.class));
+        assertNull(Descriptors.of(Hidden.class));
+    }
+
+    @Test
+    void directInvoker() throws Throwable {
+        CommandDescriptor<Counter> SUT = Descriptors.of(Counter.class);
+        assertNotNull(SUT);
+        Counter counter = new Counter();
+        MethodDescriptor<Counter> increment = SUT.methods().get(0);
+        assertArrayEquals(new Class<?>[]{int.class}, increment.parameterTypes());
+        assertNotNull(increment.invoker());
+        assertEquals(3, increment.invoker().apply(counter).invoke(new Object[]{3}));
+        assertEquals(5, increment.invoker().apply(counter).invoke(new Object[]{2}));
+        assertNull(SUT.methods().get(1).invoker());
+    }
+
+    @Test
+    void nameFor() {
+        assertEquals("a.b.Outer_Inner_EdictDescriptor", Descriptors.nameFor("a.b.Outer$Inner", "a.b"));
+        assertEquals("Outer_EdictDescriptor", Descriptors.nameFor("Outer", ""));
+    }
+
+    @SuppressWarnings("unused")
+    @Command(description = "counts")
+    static class Counter {
+
+        private int count = 0;
+
+        @Command(description = "increments")
+        public int increment(int by) {
+            return count += by;
+        }
+
+        @Command(description = "resets")
+        private void reset() {
+            count = 0;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    @Command(description = "not visible to generated code")
+    private static class Hidden {
+
+        @Command(description = "a command")
+        public void command() {}
+    }
+}
@@ -0,0 +1,58 @@
+package art.arcane.edict.handler;
+
+import art.arcane.edict.handler.handlers.IntegerHandler;
+import art.arcane.edict.handler.handlers.StringHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParameterHandlersTest {
+
+    final ParameterHandlers SUT = new ParameterHandlers(new ArrayList<>(List.of(new StringHandler())));
+
+    @Test
+    void getHandlerFor() {
+        assertInstanceOf(StringHandler.class, SUT.getHandlerFor(String.class));
+        assertThrowsExactly(NullPointerException.class, () -> SUT.getHandlerFor(Integer.class));
+    }
+
+    @Test
+    void invalidation() {
+        assertThrowsExactly(NullPointerException.class, () -> SUT.getHandlerFor(int.class));
+        IntegerHandler integerHandler = new IntegerHandler();
+        SUT.add(integerHandler);
+        assertEquals(integerHandler, SUT.getHandlerFor(int.class));
+        SUT.remove(integerHandler);
+        assertThrowsExactly(NullPointerException.class, () -> SUT.getHandlerFor(int.class));
+    }
+
+    @Test
+    void firstRegisteredWins() {
+        StringHandler second = new StringHandler();
+        SUT.add(second);
+        assertNotEquals(second, SUT.getHandlerFor(String.class));
+        SUT.set(0, second);
+        assertEquals(second, SUT.getHandlerFor(String.class));
+    }
+
+    @Test
+    void boxingAndSupertypes() {
+        SUT.add(new IntegerHandler() {
+            @Override
+            public boolean supports(Class<?> type) {
+                return type.equals(Integer.class);
+            }
+        });
+        assertNotNull(SUT.getHandlerFor(int.class));
+        SUT.add(new StringHandler() {
+            @Override
+            public boolean supports(Class<?> type) {
+                return type.equals(Number.class);
+            }
+        });
+        assertNotNull(SUT.getHandlerFor(Long.class));
+    }
+}
@@ -0,0 +1,111 @@
+package art.arcane.edict.handler;
+
+import art.arcane.edict.exception.ParsingException;
+import art.arcane.edict.exception.WhichException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PossibilityIndexTest {
+
+    final List<String> names = List.of("Stone", "Cobblestone", "Mossy Cobblestone", "stone ", "Dirt", "a", "Grass Block", "Diamond");
+
+    @Test
+    public void matching() {
+        PossibilityIndex<String> SUT = new PossibilityIndex<>(names, s -> s, 0);
+        assertEquals(List.of("Stone", "Cobblestone", "Mossy Cobblestone", "stone "), SUT.matching("STONE"));
+        assertEquals(List.of("Cobblestone", "Mossy Cobblestone"), SUT.matching("cobbles"));
+        assertEquals(List.of("Stone", "stone ", "a"), SUT.matching("stonea"));
+        assertEquals(List.of("Dirt", "Diamond"), SUT.matching("di"));
+        assertEquals(List.of(), SUT.matching("xyz"));
+        assertEquals(8, SUT.size());
+    }
+
+    @Test
+    public void matchesUnindexed() {
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            words.add(word(random));
+        }
+        NamesHandler unindexed = new NamesHandler(words, -1);
+        NamesHandler indexed = new NamesHandler(words, 0);
+        for (int i = 0; i < 200; i++) {
+            String input = word(random).substring(0, 1 + random.nextInt(3));
+            assertEquals(unindexed.getPossibilities(input), indexed.getPossibilities(input));
+        }
+        assertNull(unindexed.possibilityIndex());
+        assertNotNull(indexed.possibilityIndex());
+    }
+
+    @Test
+    public void rebuildsOnNewVersion() {
+        NamesHandler handler = new NamesHandler(new ArrayList<>(names), 0);
+        PossibilityIndex<String> index = handler.possibilityIndex();
+        assertSame(index, handler.possibilityIndex());
+        assertEquals(List.of("Dirt"), handler.getPossibilities("dirt"));
+
+        handler.names.add("Dirt Path");
+        assertEquals(List.of("Dirt"), handler.getPossibilities("dirt"));
+        handler.version++;
+        assertEquals(List.of("Dirt", "Dirt Path"), handler.getPossibilities("dirt"));
+        assertNotSame(index, handler.possibilityIndex());
+        assertEquals(1, handler.possibilityIndex().getVersion());
+    }
+
+    private static String word(Random random) {
+        char[] chars = new char[3 + random.nextInt(8)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ((random.nextBoolean() ? 'a' : 'A') + random.nextInt(6));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Handler with a list of names as its possibilities.
+     */
+    private static class NamesHandler implements ParameterHandler<String> {
+
+        private final List<String> names;
+        private long version;
+
+        private NamesHandler(List<String> names, long version) {
+            this.names = names;
+            this.version = version;
+        }
+
+        @Override
+        public String getRandomDefault() {
+            return names.get(0);
+        }
+
+        @Override
+        public boolean supports(Class<?> type) {
+            return type == String.class;
+        }
+
+        @Override
+        public String toString(String s) {
+            return s;
+        }
+
+        @Override
+        public String parse(String in, boolean force, String parameterName) throws ParsingException, WhichException {
+            return in;
+        }
+
+        @Override
+        public List<String> getPossibilities() {
+            return names;
+        }
+
+        @Override
+        public long possibilitiesVersion() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package art.arcane.edict.jfr;
+
+import art.arcane.edict.Edict;
+import art.arcane.edict.testconstruct.TestCommandClass;
+import art.arcane.edict.testconstruct.TestUser;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventsTest {
+
+    final Edict SUT = Edict.builder(new TestCommandClass()).build();
+    final TestUser TESTUSER = new TestUser();
+
+    /**
+     * Record the events of this package while running something.
+     * @param runnable what to run
+     * @return the recorded events
+     */
+    private List<RecordedEvent> record(Runnable runnable) throws IOException {
+        Path file = Files.createTempFile("edict", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("Command", "Search", "Parse", "Invoke", "Suggest", "OptionPick")) {
+                recording.enable("art.arcane.edict." + name).withoutThreshold();
+            }
+            recording.start();
+            runnable.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream().filter(e -> e.getEventType().getName().equals("art.arcane.edict." + name)).toList();
+        assertEquals(1, matching.size(), name + " events: " + matching);
+        return matching.get(0);
+    }
+
+    @Test
+    void command() throws IOException {
+        List<RecordedEvent> events = record(() -> SUT.command("test command", TESTUSER, true));
+        RecordedEvent command = only(events, "Command");
+        assertEquals("test command", command.getString("path"));
+        assertEquals(2, command.getInt("tokens"));
+        assertEquals("handled", command.getString("outcome"));
+        assertEquals(TESTUSER.name(), command.getString("user"));
+        assertEquals("parsed", only(events, "Parse").getString("outcome"));
+        assertEquals("invoked", only(events, "Invoke").getString("outcome"));
+        assertEquals(2, events.stream().filter(e -> e.getEventType().getName().equals("art.arcane.edict.Search")).count());
+    }
+
+    @Test
+    void notFound() throws IOException {
+        RecordedEvent command = only(record(() -> SUT.command("nothing", TESTUSER, true)), "Command");
+        assertEquals("not found", command.getString("outcome"));
+        assertNull(command.getString("path"));
+    }
+
+    @Test
+    void commandReleasedWhenRecordingStops() {
+        CommandEvent event;
+        try (Recording recording = new Recording()) {
+            recording.enable("art.arcane.edict.Command").withoutThreshold();
+            recording.start();
+            event = CommandEvent.start();
+            assertSame(event, CommandEvent.CURRENT.get());
+            recording.stop();
+        }
+        event.finish(TESTUSER, "test command", 2, "handled");
+        assertNull(CommandEvent.CURRENT.get());
+    }
+
+    @Test
+    void suggest() throws IOException {
+        RecordedEvent suggest = only(record(() -> SUT.suggest("test ", TESTUSER, s -> {}, true)), "Suggest");
+        assertEquals("done", suggest.getString("outcome"));
+        assertTrue(suggest.getInt("suggestions") > 0);
+    }
+}
@@ -0,0 +1,71 @@
+package art.arcane.edict.metrics;
+
+import art.arcane.edict.Edict;
+import art.arcane.edict.permission.Permission;
+import art.arcane.edict.testconstruct.TestCommandClass;
+import art.arcane.edict.testconstruct.TestUser;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramMetricsTest {
+
+    final HistogramMetrics METRICS = new HistogramMetrics();
+    final Edict SUT = Edict.builder(new TestCommandClass()).metrics(METRICS).build();
+    final TestUser TESTUSER = new TestUser();
+
+    @Test
+    void command() {
+        SUT.command("test command", TESTUSER, true);
+        assertEquals(1, METRICS.getHistogram(Stage.TOKENIZE, "").getCount());
+        assertEquals(1, METRICS.getHistogram(Stage.ROOT_SEARCH, "").getCount());
+        assertEquals(1, METRICS.getHistogram(Stage.CLASS_SEARCH, "test").getCount());
+        assertEquals(1, METRICS.getHistogram(Stage.PARSE_INPUTS, "test command").getCount());
+        assertEquals(1, METRICS.getHistogram(Stage.INVOKE, "test command").getCount());
+        assertNull(METRICS.getHistogram(Stage.PICK_OPTIONS, "test command"));
+        assertNull(METRICS.getHistogram(Stage.SYNC_WAIT, "test command"));
+    }
+
+    @Test
+    void notFound() {
+        SUT.command("nothing", TESTUSER, true);
+        assertEquals(1, METRICS.getCount(Counter.NOT_FOUND, ""));
+        assertEquals(0, METRICS.getCount(Counter.NOT_FOUND, "test command"));
+    }
+
+    @Test
+    void permissionDeniedOncePerAttempt() {
+        TestUser denied = new TestUser() {
+            @Override
+            public boolean hasPermission(@NotNull Permission permission) {
+                return false;
+            }
+        };
+        SUT.command("test command", denied, true);
+        SUT.command("tes", denied, true);
+        assertEquals(2, METRICS.getPaths().stream().mapToLong(path -> METRICS.getCount(Counter.PERMISSION_DENIED, path)).sum());
+        assertEquals(2, METRICS.getCount(Counter.PERMISSION_DENIED, "test"));
+    }
+
+    @Test
+    void permittedNotCountedAsDenied() {
+        SUT.command("test command", TESTUSER, true);
+        assertEquals(0, METRICS.getPaths().stream().mapToLong(path -> METRICS.getCount(Counter.PERMISSION_DENIED, path)).sum());
+    }
+
+    @Test
+    void suggestionsNotRecorded() {
+        SUT.suggest("test command ", TESTUSER, s -> {}, true);
+        assertNull(METRICS.getHistogram(Stage.ASSIGN_TOKENS, "test command"));
+    }
+
+    @Test
+    void clear() {
+        SUT.command("test command", TESTUSER, true);
+        assertFalse(METRICS.getPaths().isEmpty());
+        assertTrue(METRICS.report().contains("INVOKE"));
+        METRICS.clear();
+        assertTrue(METRICS.getPaths().isEmpty());
+    }
+}
@@ -0,0 +1,49 @@
+package art.arcane.edict.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramTest {
+
+    final Histogram SUT = new Histogram();
+
+    @Test
+    void empty() {
+        assertEquals(0, SUT.getCount());
+        assertEquals(0, SUT.getMax());
+        assertEquals(0, SUT.percentile(50));
+    }
+
+    @Test
+    void small() {
+        IntStream.range(0, 8).forEach(SUT::record);
+        assertEquals(8, SUT.getCount());
+        assertEquals(28, SUT.getSum());
+        assertEquals(3, SUT.percentile(50));
+        assertEquals(7, SUT.percentile(100));
+    }
+
+    @Test
+    void percentiles() {
+        for (int i = 1; i <= 1000; i++) {
+            SUT.record(i * 1000L);
+        }
+        assertEquals(1_000_000, SUT.getMax());
+        assertEquals(500_000, SUT.percentile(50), 500_000 / 8.0);
+        assertEquals(990_000, SUT.percentile(99), 990_000 / 8.0);
+        assertEquals(1_000_000, SUT.percentile(100));
+    }
+
+    @Test
+    void clamped() {
+        SUT.record(-5);
+        SUT.record(Long.MAX_VALUE);
+        assertEquals(2, SUT.getCount());
+        assertEquals(Long.MAX_VALUE, SUT.getMax());
+        assertEquals(0, SUT.percentile(50));
+        assertEquals(Long.MAX_VALUE, SUT.percentile(100));
+    }
+}
@@ -0,0 +1,158 @@
+package art.arcane.edict.parser;
+
+import art.arcane.edict.Edict;
+import art.arcane.edict.EdictTest;
+import art.arcane.edict.api.Command;
+import art.arcane.edict.api.Param;
+import art.arcane.edict.handler.ParameterHandler;
+import art.arcane.edict.testconstruct.TestContextValue;
+import art.arcane.edict.virtual.VMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BindingPlanTest {
+
+    final Edict SYSTEM = EdictTest.SUT;
+    final BindingPlan SUT = plan();
+
+    @Command(name = "add", description = "adds an amount")
+    @SuppressWarnings("unused")
+    public void add(
+            @Param(name = "amount", aliases = "count") int amount,
+            @Param(name = "target", defaultValue = "self") String target,
+            @Param(name = "loud", defaultValue = "false") boolean loud
+    ) {}
+
+    @Command(name = "mark", description = "marks a value")
+    @SuppressWarnings("unused")
+    public void mark(@Param(name = "value", defaultValue = "here") TestContextValue value) {}
+
+    @Command(name = "locate", description = "locates a place")
+    @SuppressWarnings("unused")
+    public void locate(@Param(name = "place", defaultValue = "home") Place place) {}
+
+    /**
+     * Type whose handler needs a user to parse.
+     */
+    public record Place() {}
+
+    private BindingPlan plan() {
+        try {
+            return ((VMethod) VMethod.fromInstance(BindingPlanTest.class.getDeclaredMethod("add", int.class, String.class, boolean.class), this, SYSTEM)).plan();
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private int slotOf(String key) {
+        return SUT.slot(SUT.match(key, new boolean[SUT.size()], false));
+    }
+
+    @Test
+    void match() {
+        assertEquals(0, slotOf("amount"));
+        assertEquals(0, slotOf("count"));
+        assertEquals(1, slotOf("tar"));
+        assertEquals(2, slotOf("loudly"));
+        assertEquals(-1, SUT.match("nothing", new boolean[SUT.size()], false));
+    }
+
+    @Test
+    void matchSkipsAssigned() {
+        boolean[] assigned = new boolean[SUT.size()];
+        int amount = SUT.match("amount", assigned, false);
+        assigned[amount] = true;
+        assertEquals(-1, SUT.match("count", assigned, false));
+    }
+
+    @Test
+    void matchFlag() {
+        assertEquals(2, SUT.slot(SUT.match("loud", new boolean[SUT.size()], true)));
+        assertEquals(-1, SUT.match("amount", new boolean[SUT.size()], true));
+    }
+
+    @Test
+    void types() {
+        for (int i = 0; i < SUT.size(); i++) {
+            assertFalse(SUT.type(i).isPrimitive());
+        }
+        assertEquals(Integer.class, SUT.type(SUT.match("amount", new boolean[SUT.size()], false)));
+    }
+
+    @Test
+    void required() {
+        assertEquals(1, SUT.required(true));
+        assertEquals(1, SUT.required(false));
+        assertEquals("self", SUT.defaultValue(SUT.match("target", new boolean[SUT.size()], false)));
+    }
+
+    @Test
+    void parsedDefaults() {
+        assertNull(SUT.parsedDefault(SUT.match("amount", new boolean[SUT.size()], false)));
+        assertNotNull(SUT.parsedDefault(SUT.match("loud", new boolean[SUT.size()], false)));
+        assertEquals(false, SUT.parsedDefault(SUT.match("loud", new boolean[SUT.size()], false)).value());
+        assertEquals("self", SUT.parsedDefault(SUT.match("target", new boolean[SUT.size()], false)).value());
+    }
+
+    @Test
+    void paramsReferToTheirMethod() throws NoSuchMethodException {
+        VMethod method = (VMethod) VMethod.fromInstance(BindingPlanTest.class.getDeclaredMethod("add", int.class, String.class, boolean.class), this, SYSTEM);
+        assertEquals(method.plan().size(), method.params().size());
+        method.params().forEach(param -> assertSame(method, param.parent()));
+        assertThrows(UnsupportedOperationException.class, () -> method.params().clear());
+    }
+
+    @Test
+    void defaultsNotCachedUnlessOptedIn() throws NoSuchMethodException {
+        BindingPlan plan = ((VMethod) VMethod.fromInstance(BindingPlanTest.class.getDeclaredMethod("mark", TestContextValue.class), this, SYSTEM)).plan();
+        assertEquals("here", plan.defaultValue(0));
+        assertNull(plan.parsedDefault(0));
+    }
+
+    @Test
+    void defaultsThrowingAtBuildTimeParsedOnEveryRun() throws NoSuchMethodException {
+        Edict system = Edict.builder(null).parameterHandler(new PlaceHandler()).build();
+        BindingPlan plan = ((VMethod) VMethod.fromInstance(BindingPlanTest.class.getDeclaredMethod("locate", Place.class), this, system)).plan();
+        assertEquals("home", plan.defaultValue(0));
+        assertNull(plan.parsedDefault(0));
+    }
+
+    /**
+     * Handler that opts in to caching defaults, but cannot parse without a user.
+     */
+    private static class PlaceHandler implements ParameterHandler<Place> {
+
+        @Override
+        public String getRandomDefault() {
+            return "home";
+        }
+
+        @Override
+        public boolean supports(Class<?> type) {
+            return type == Place.class;
+        }
+
+        @Override
+        public String toString(Place place) {
+            return "home";
+        }
+
+        @Override
+        public Place parse(String in, boolean force, String parameterName) {
+            throw new IllegalStateException("No user to locate");
+        }
+
+        @Override
+        public boolean cacheDefaults() {
+            return true;
+        }
+
+        @Override
+        public List<Place> getPossibilities() {
+            return null;
+        }
+    }
+}
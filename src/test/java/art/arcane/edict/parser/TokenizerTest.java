@@ -0,0 +1,75 @@
+package art.arcane.edict.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenizerTest {
+
+    private static List<String> texts(String input) {
+        return Arrays.stream(Tokenizer.tokenize(input)).map(Token::text).toList();
+    }
+
+    @Test
+    void cleaning() {
+        assertEquals(List.of("test", "command"), texts("  test   command "));
+        assertEquals(List.of("key=value"), texts("key == value"));
+        assertEquals(List.of("key=value", "-flag"), texts("key =value --flag"));
+        assertTrue(texts("   ").isEmpty());
+    }
+
+    @Test
+    void types() {
+        Token[] tokens = Tokenizer.tokenize("name key=value -flag");
+        assertEquals(Token.Type.KEYLESS, tokens[0].type());
+        assertEquals(Token.Type.KEYED, tokens[1].type());
+        assertEquals("key", tokens[1].key());
+        assertEquals("value", tokens[1].value());
+        assertEquals(Token.Type.FLAG, tokens[2].type());
+        assertEquals("flag", tokens[2].key());
+        assertEquals(5, tokens[1].start());
+        assertEquals(14, tokens[1].end());
+    }
+
+    @Test
+    void quotesAndEscapes() {
+        Token[] tokens = Tokenizer.tokenize("message=\"hello world\" \\-5 a\\=b \"-x=y\"");
+        assertEquals("hello world", tokens[0].value());
+        assertEquals(Token.Type.KEYLESS, tokens[1].type());
+        assertEquals("-5", tokens[1].value());
+        assertEquals(Token.Type.KEYLESS, tokens[2].type());
+        assertEquals("a=b", tokens[2].value());
+        assertEquals("-x=y", tokens[3].value());
+        assertNull(Tokenizer.tokenize("key=\"\"")[0].error());
+    }
+
+    @Test
+    void errors() {
+        assertNotNull(Tokenizer.tokenize("key=")[0].error());
+        assertNotNull(Tokenizer.tokenize("=value")[0].error());
+        assertNotNull(Tokenizer.tokenize("a=b=c")[0].error());
+        assertNotNull(Tokenizer.tokenize("-")[0].error());
+    }
+
+    @Test
+    void unterminatedQuote() {
+        Token[] tokens = Tokenizer.tokenize("say \"hello world");
+        assertEquals(2, tokens.length);
+        assertEquals("hello world", tokens[1].value());
+        assertEquals("Unterminated quote", tokens[1].error());
+        assertEquals("Unterminated quote", Tokenizer.tokenize("key=\"value")[0].error());
+        assertEquals("Unterminated quote", Tokenizer.tokenize("-\"flag")[0].error());
+        assertNull(Tokenizer.tokenize("say \"hello world\"")[1].error());
+    }
+
+    @Test
+    void trailing() {
+        assertEquals(1, Tokenizer.tokenize("test ").length);
+        assertEquals(2, Tokenizer.tokenize("test ", true).length);
+        assertEquals("", Tokenizer.tokenize("test ", true)[1].value());
+        assertEquals(0, Tokenizer.tokenize(" ", true).length);
+    }
+}
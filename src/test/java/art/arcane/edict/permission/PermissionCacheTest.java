@@ -0,0 +1,81 @@
+package art.arcane.edict.permission;
+
+import art.arcane.edict.testconstruct.TestUser;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermissionCacheTest {
+
+    final PermissionCache SUT = new PermissionCache(() -> 4, () -> Duration.ofMinutes(1));
+    final Permission ROOT = new PermissionNode(null, "edict");
+    final Permission CHILD = new PermissionNode(ROOT, "child");
+    final CountingUser USER = new CountingUser();
+
+    static class CountingUser extends TestUser {
+        final Set<Permission> granted = new HashSet<>();
+        int checks = 0;
+
+        @Override
+        public boolean hasPermission(@NotNull Permission permission) {
+            checks++;
+            return granted.contains(permission);
+        }
+    }
+
+    @Test
+    void cached() {
+        USER.granted.add(ROOT);
+        assertTrue(SUT.check(USER, ROOT));
+        assertTrue(SUT.check(USER, ROOT));
+        assertFalse(SUT.check(USER, CHILD));
+        assertFalse(SUT.check(USER, CHILD));
+        assertEquals(2, USER.checks);
+    }
+
+    @Test
+    void stableIdentity() {
+        SUT.check(USER, CHILD);
+        assertFalse(SUT.check(USER, new PermissionNode(new PermissionNode(null, "edict"), "child")));
+        assertEquals(1, USER.checks);
+    }
+
+    @Test
+    void invalidate() {
+        assertFalse(SUT.check(USER, ROOT));
+        USER.granted.add(ROOT);
+        assertFalse(SUT.check(USER, ROOT));
+        SUT.invalidate(USER);
+        assertTrue(SUT.check(USER, ROOT));
+        USER.granted.clear();
+        SUT.invalidateAll();
+        assertFalse(SUT.check(USER, ROOT));
+        assertEquals(3, USER.checks);
+    }
+
+    @Test
+    void bounded() {
+        for (int i = 0; i < 100; i++) {
+            SUT.check(USER, new PermissionNode(ROOT, "p" + i));
+        }
+        assertEquals(100, USER.checks);
+        SUT.check(USER, new PermissionNode(ROOT, "p99"));
+        assertEquals(100, USER.checks);
+        SUT.check(USER, new PermissionNode(ROOT, "p0"));
+        assertEquals(101, USER.checks);
+    }
+
+    @Test
+    void disabled() {
+        PermissionCache disabled = new PermissionCache(() -> 0, () -> Duration.ofMinutes(1));
+        disabled.check(USER, ROOT);
+        disabled.check(USER, ROOT);
+        assertEquals(2, USER.checks);
+        assertEquals(0, disabled.size());
+    }
+}
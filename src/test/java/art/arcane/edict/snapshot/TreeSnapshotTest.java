@@ -0,0 +1,182 @@
+package art.arcane.edict.snapshot;
+
+import art.arcane.edict.Edict;
+import art.arcane.edict.api.Command;
+import art.arcane.edict.testconstruct.*;
+import art.arcane.edict.user.SystemUser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeSnapshotTest {
+
+    @TempDir
+    Path DIRECTORY;
+
+    final List<String> OUT = new ArrayList<>();
+
+    @Test
+    void writeAndRestore() {
+        Edict built = build();
+        Path file = TreeSnapshot.fileFor(DIRECTORY, List.of(new TestCommandClass(), new TestEmptyCommandClass(), new TestCommandClassContext(), new TestCommandCategory()));
+        assertTrue(Files.exists(file));
+        assertTrue(OUT.stream().anyMatch(line -> line.startsWith("Wrote command tree snapshot")));
+
+        OUT.clear();
+        Edict restored = build();
+        assertTrue(OUT.stream().anyMatch(line -> line.startsWith("Restored the command tree")));
+        assertEquals(built.networkString(), restored.networkString());
+
+        // Restored commands run
+        TestUser user = new TestContextUser();
+        restored.command("test command", user, true);
+        assertEquals("command ran", user.received.get(user.received.size() - 1).string());
+        restored.command("context test", user, true);
+        assertEquals(TestContextValue.value, user.received.get(user.received.size() - 1).string());
+    }
+
+    @Test
+    void readWrite() throws IOException {
+        build();
+        Path file = onlyFile();
+        TreeSnapshot SUT = TreeSnapshot.read(file);
+        assertEquals(4, SUT.getRoots().size());
+        assertEquals(TestCommandClass.class.getName(), SUT.getRoots().get(0).className());
+        assertEquals(TreeSnapshot.Kind.CATEGORY, SUT.getRoots().get(0).kind());
+        assertEquals(TreeSnapshot.Kind.MISSING, SUT.getRoots().get(1).kind());
+        assertTrue(SUT.getRoots().get(0).entries().contains(new TreeSnapshot.FieldEntry("x", new TreeSnapshot.Node(
+                TestCommandClassToo.class.getName(),
+                TreeSnapshot.Kind.CATEGORY,
+                List.of(new TreeSnapshot.CommandEntry("method", List.of(), List.of()))
+        ))));
+
+        Path copy = DIRECTORY.resolve("copy.snapshot");
+        SUT.write(copy);
+        TreeSnapshot read = TreeSnapshot.read(copy);
+        assertEquals(SUT.getRoots(), read.getRoots());
+        assertEquals(SUT.getKey(), read.getKey());
+    }
+
+    @Test
+    void outdated() throws IOException {
+        build();
+        Path file = onlyFile();
+        TreeSnapshot snapshot = TreeSnapshot.read(file);
+        new TreeSnapshot(snapshot.getRoots(), snapshot.getKey() + 1).write(file);
+
+        OUT.clear();
+        build();
+        assertTrue(OUT.stream().anyMatch(line -> line.endsWith("is outdated")));
+        assertTrue(OUT.stream().noneMatch(line -> line.startsWith("Restored the command tree")));
+
+        // Rewritten with the right key
+        assertEquals(snapshot.getKey(), TreeSnapshot.read(file).getKey());
+    }
+
+    @Test
+    void damaged() throws IOException {
+        build();
+        Path file = onlyFile();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        OUT.clear();
+        Edict rebuilt = build();
+        assertTrue(OUT.stream().anyMatch(line -> line.startsWith("Could not read command tree snapshot")));
+        assertFalse(rebuilt.getRootCommands().isEmpty());
+        assertArrayEquals(bytes, Files.readAllBytes(file));
+    }
+
+    @Test
+    void damagedLength() throws IOException {
+        build();
+        Path file = onlyFile();
+        byte[] bytes = Files.readAllBytes(file);
+
+        // The length of the class name of the first root, after the magic number, version, key and root count
+        for (int length : new int[]{-1, Integer.MAX_VALUE}) {
+            byte[] damaged = bytes.clone();
+            ByteBuffer.wrap(damaged).putInt(20, length);
+            Files.write(file, damaged);
+            assertThrows(IllegalStateException.class, () -> TreeSnapshot.read(file));
+
+            OUT.clear();
+            Edict rebuilt = build();
+            assertTrue(OUT.stream().anyMatch(line -> line.startsWith("Could not read command tree snapshot")));
+            assertFalse(rebuilt.getRootCommands().isEmpty());
+            assertArrayEquals(bytes, Files.readAllBytes(file));
+        }
+    }
+
+    @Test
+    void fieldsOfSameType() throws IOException {
+        Edict built = buildPair();
+        TreeSnapshot snapshot = TreeSnapshot.read(onlyFile());
+        assertEquals(List.of("second"), snapshot.getRoots().get(0).entries().stream()
+                .map(entry -> ((TreeSnapshot.FieldEntry) entry).field())
+                .toList());
+
+        OUT.clear();
+        Edict restored = buildPair();
+        assertTrue(OUT.stream().anyMatch(line -> line.startsWith("Restored the command tree")));
+        assertEquals(built.networkString(), restored.networkString());
+    }
+
+    private Edict buildPair() {
+        return Edict.builder(new Pair())
+                .systemUser(new SystemUser(SystemUser.Level.DEBUG, OUT::add))
+                .snapshotDirectory(DIRECTORY)
+                .build();
+    }
+
+    private Edict build() {
+        return Edict.builder(new TestCommandClass(), new TestEmptyCommandClass(), new TestCommandClassContext(), new TestCommandCategory())
+                .contextHandler(new TestContextValueContextHandler())
+                .parameterHandler(new TestContextValueParameterHandler())
+                .systemUser(new SystemUser(SystemUser.Level.DEBUG, OUT::add))
+                .snapshotDirectory(DIRECTORY)
+                .build();
+    }
+
+    private Path onlyFile() throws IOException {
+        try (var files = Files.list(DIRECTORY)) {
+            List<Path> all = files.toList();
+            assertEquals(1, all.size());
+            return all.get(0);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    @Command(name = "pair", description = "two subcategories of the same type, of which the first cannot be instantiated")
+    public static class Pair {
+
+        private final Named first = null;
+
+        private final Named second = new Named("second");
+    }
+
+    @SuppressWarnings("unused")
+    @Command(name = "named", description = "a subcategory without a default constructor")
+    public static class Named {
+
+        private final String name;
+
+        public Named(String name) {
+            this.name = name;
+        }
+
+        @Command(description = "get the name")
+        public String name() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package art.arcane.edict.suggestion;
+
+import art.arcane.edict.Edict;
+import art.arcane.edict.testconstruct.TestCommandClass;
+import art.arcane.edict.testconstruct.TestUser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestionRequestTest {
+
+    final List<Runnable> queued = new ArrayList<>();
+    final Edict SYSTEM = Edict.builder(new TestCommandClass()).executor(queued::add).build();
+
+    @Test
+    void supersede() {
+        TestUser user = new TestUser();
+        List<List<String>> outputs = new ArrayList<>();
+        SuggestionRequest first = SYSTEM.suggest("te", user, outputs::add, false);
+        SuggestionRequest second = SYSTEM.suggest("test ", user, outputs::add, false);
+        queued.forEach(Runnable::run);
+        assertTrue(first.isCancelled());
+        assertTrue(second.isDone());
+        assertEquals(1, outputs.size());
+        assertTrue(outputs.get(0).contains("command"));
+    }
+
+    @Test
+    void cancel() {
+        List<List<String>> outputs = new ArrayList<>();
+        SuggestionRequest request = SYSTEM.suggest("te", new TestUser(), outputs::add, false);
+        assertTrue(request.cancel());
+        queued.forEach(Runnable::run);
+        assertTrue(outputs.isEmpty());
+        assertFalse(request.isDone());
+    }
+
+    @Test
+    void cancelDone() {
+        SuggestionRequest request = new SuggestionRequest();
+        assertTrue(request.complete());
+        assertFalse(request.cancel());
+        assertFalse(request.complete());
+    }
+}
@@ -0,0 +1,99 @@
+package art.arcane.edict.suggestion;
+
+import art.arcane.edict.Edict;
+import art.arcane.edict.parser.Token;
+import art.arcane.edict.parser.Tokenizer;
+import art.arcane.edict.permission.Permission;
+import art.arcane.edict.testconstruct.TestCommandClass;
+import art.arcane.edict.testconstruct.TestUser;
+import art.arcane.edict.util.BKTreeIndexer;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestionSessionTest {
+
+    final Edict SYSTEM = Edict.builder(new TestCommandClass()).build();
+
+    private List<String> suggest(String command, TestUser user) {
+        List<String> suggestions = new ArrayList<>();
+        SYSTEM.suggest(command, user, suggestions::addAll, true);
+        return suggestions;
+    }
+
+    @Test
+    void incremental() {
+        String command = "test subcategory me";
+        TestUser user = new TestUser();
+        List<String> last = null;
+        for (int i = 1; i <= command.length(); i++) {
+            last = suggest(command.substring(0, i), user);
+        }
+        assertEquals(suggest(command, new TestUser()), last);
+        // Each keystroke of the first word, and then "subcategory" once
+        assertEquals(5, SYSTEM.getSuggestionSessions().get(user).getResolved());
+    }
+
+    @Test
+    void backspace() {
+        TestUser user = new TestUser();
+        suggest("test subcategory me", user);
+        List<String> children = suggest("test ", user);
+        assertEquals(suggest("test ", new TestUser()), children);
+        // "test" and "subcategory" once, nothing new when going back
+        assertEquals(2, SYSTEM.getSuggestionSessions().get(user).getResolved());
+    }
+
+    @Test
+    void permissionRevoked() {
+        RevocableUser user = new RevocableUser();
+        assertEquals(suggest("test subcategory ", new TestUser()), suggest("test subcategory ", user));
+        user.revoked = true;
+        SYSTEM.getPermissionCache().invalidate(user);
+        assertEquals(List.of("<invalid>"), suggest("test subcategory ", user));
+        assertEquals(4, SYSTEM.getSuggestionSessions().get(user).getResolved());
+    }
+
+    @Test
+    void rootsReplaced() {
+        TestUser user = new TestUser();
+        SuggestionSession SUT = new SuggestionSession();
+        List<Token> input = List.of(Tokenizer.tokenize("test subcategory ", true));
+        BKTreeIndexer before = new BKTreeIndexer();
+        before.addAll(SYSTEM.getRootCommands());
+        assertFalse(SUT.resolve(input, before, text -> before.search(text, 0.6, c -> true), user, SYSTEM.getPermissionCache()).isEmpty());
+
+        // A session made for the old roots is not reused for the new ones
+        BKTreeIndexer after = new BKTreeIndexer();
+        assertTrue(SUT.resolve(input, after, text -> after.search(text, 0.6, c -> true), user, SYSTEM.getPermissionCache()).isEmpty());
+        assertEquals(4, SUT.getResolved());
+    }
+
+    /**
+     * User that loses all permissions.
+     */
+    static class RevocableUser extends TestUser {
+        boolean revoked = false;
+
+        @Override
+        public boolean hasPermission(@NotNull Permission permission) {
+            return !revoked;
+        }
+    }
+
+    @Test
+    void evict() throws InterruptedException {
+        SuggestionSessions sessions = new SuggestionSessions(() -> Duration.ofMillis(10));
+        sessions.get(new TestUser());
+        assertEquals(1, sessions.size());
+        for (int i = 0; i < 100 && sessions.size() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, sessions.size());
+    }
+}
@@ -0,0 +1,39 @@
+package art.arcane.edict.suggestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestionsTest {
+
+    @Test
+    void ranked() {
+        Suggestions SUT = new Suggestions("com", 10);
+        SUT.addAll(List.of("welcome", "xyz", "commandTwo", "command", "con"));
+        assertEquals(List.of("command", "commandTwo", "welcome", "con", "xyz"), SUT.toList());
+    }
+
+    @Test
+    void limit() {
+        Suggestions SUT = new Suggestions("a", 2);
+        SUT.addAll(List.of("zeta", "beta", "alpha", "apple", "avocado"));
+        assertEquals(List.of("alpha", "apple"), SUT.toList());
+    }
+
+    @Test
+    void blank() {
+        Suggestions SUT = new Suggestions("", 3);
+        SUT.addAll(List.of("c", "a", "d", "b"));
+        assertEquals(List.of("a", "b", "c"), SUT.toList());
+    }
+
+    @Test
+    void duplicates() {
+        Suggestions SUT = new Suggestions("", 3);
+        assertTrue(SUT.add("a"));
+        assertFalse(SUT.add("a"));
+        assertEquals(List.of("a"), SUT.toList());
+    }
+}
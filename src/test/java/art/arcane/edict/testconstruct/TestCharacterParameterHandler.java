@@ -0,0 +1,44 @@
+package art.arcane.edict.testconstruct;
+
+import art.arcane.edict.exception.ParsingException;
+import art.arcane.edict.exception.WhichException;
+import art.arcane.edict.handler.ParameterHandler;
+
+import java.util.List;
+
+/**
+ * Parses a single character. Longer input makes the user pick one of its characters.
+ */
+public class TestCharacterParameterHandler implements ParameterHandler<Character> {
+
+    @Override
+    public String getRandomDefault() {
+        return "a";
+    }
+
+    @Override
+    public boolean supports(Class<?> type) {
+        return Character.class.equals(type) || char.class.equals(type);
+    }
+
+    @Override
+    public String toString(Character character) {
+        return String.valueOf(character);
+    }
+
+    @Override
+    public Character parse(String in, boolean force, String parameterName) throws ParsingException, WhichException {
+        if (in.isEmpty()) {
+            throw new ParsingException(Character.class, parameterName, in, "Empty input");
+        }
+        if (in.length() > 1 && !force) {
+            throw new WhichException(Character.class, in, in.chars().mapToObj(c -> (char) c).toList());
+        }
+        return in.charAt(0);
+    }
+
+    @Override
+    public List<Character> getPossibilities() {
+        return null;
+    }
+}
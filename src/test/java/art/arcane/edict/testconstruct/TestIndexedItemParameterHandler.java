@@ -0,0 +1,31 @@
+package art.arcane.edict.testconstruct;
+
+import java.util.List;
+
+/**
+ * {@link TestItemParameterHandler} with versioned possibilities, so they are filtered through an index.
+ * Counts how often the possibilities are listed.
+ */
+public class TestIndexedItemParameterHandler extends TestItemParameterHandler {
+
+    /**
+     * The version of the possibilities.
+     */
+    public long version = 0;
+
+    /**
+     * The number of times the possibilities were listed.
+     */
+    public int listed = 0;
+
+    @Override
+    public long possibilitiesVersion() {
+        return version;
+    }
+
+    @Override
+    public List<TestItem> getPossibilities() {
+        listed++;
+        return super.getPossibilities();
+    }
+}
@@ -0,0 +1,7 @@
+package art.arcane.edict.testconstruct;
+
+/**
+ * Item with an id, of which there are many.
+ * @param id the id of the item
+ */
+public record TestItem(String id) {}
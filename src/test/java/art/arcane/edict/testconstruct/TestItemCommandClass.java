@@ -0,0 +1,17 @@
+package art.arcane.edict.testconstruct;
+
+import art.arcane.edict.api.Command;
+import art.arcane.edict.api.Edicted;
+import art.arcane.edict.api.Param;
+import art.arcane.edict.message.StringMessage;
+
+@Command(name = "items", description = "commands with many possible inputs")
+public class TestItemCommandClass implements Edicted {
+
+    @Command(name = "give", description = "gives an item")
+    public void give(
+            @Param(description = "the item") TestItem item
+    ) {
+        user().send(new StringMessage("gave " + item.id()));
+    }
+}
@@ -0,0 +1,51 @@
+package art.arcane.edict.testconstruct;
+
+import art.arcane.edict.exception.ParsingException;
+import art.arcane.edict.handler.ParameterHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses {@link TestItem}s, of which there are more than fit in the suggestions. The last one is {@code zebra}.
+ */
+public class TestItemParameterHandler implements ParameterHandler<TestItem> {
+
+    /**
+     * All items, {@code item0} to {@code item499} and then {@code zebra}.
+     */
+    private final List<TestItem> items = new ArrayList<>();
+
+    public TestItemParameterHandler() {
+        for (int i = 0; i < 500; i++) {
+            items.add(new TestItem("item" + i));
+        }
+        items.add(new TestItem("zebra"));
+    }
+
+    @Override
+    public String getRandomDefault() {
+        return "item0";
+    }
+
+    @Override
+    public boolean supports(Class<?> type) {
+        return TestItem.class.equals(type);
+    }
+
+    @Override
+    public String toString(TestItem item) {
+        return item.id();
+    }
+
+    @Override
+    public TestItem parse(String in, boolean force, String parameterName) throws ParsingException {
+        return items.stream().filter(item -> item.id().equals(in)).findFirst()
+                .orElseThrow(() -> new ParsingException(TestItem.class, parameterName, in, "No such item"));
+    }
+
+    @Override
+    public List<TestItem> getPossibilities() {
+        return items;
+    }
+}
@@ -0,0 +1,17 @@
+package art.arcane.edict.testconstruct;
+
+import art.arcane.edict.api.Command;
+import art.arcane.edict.api.Edicted;
+import art.arcane.edict.api.Param;
+import art.arcane.edict.message.StringMessage;
+
+@Command(name = "pick", description = "commands with ambiguous input")
+public class TestPickCommandClass implements Edicted {
+
+    @Command(name = "character", description = "picks a character")
+    public void character(
+            @Param(description = "the character") char character
+    ) {
+        user().send(new StringMessage("picked " + character));
+    }
+}
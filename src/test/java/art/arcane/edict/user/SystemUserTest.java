@@ -0,0 +1,47 @@
+package art.arcane.edict.user;
+
+import art.arcane.edict.message.StringMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SystemUserTest {
+
+    final List<String> OUTPUT = new ArrayList<>();
+    final SystemUser SUT = new SystemUser(SystemUser.Level.INFO, OUTPUT::add);
+
+    @Test
+    void levels() {
+        SUT.d(new StringMessage("debug"));
+        SUT.i(new StringMessage("info"));
+        SUT.w(new StringMessage("warning"));
+        assertEquals(List.of("info", "warning"), OUTPUT);
+        SUT.setLevel(SystemUser.Level.DEBUG);
+        SUT.d(new StringMessage("debug"));
+        assertEquals("debug", OUTPUT.get(2));
+    }
+
+    @Test
+    void off() {
+        SUT.setLevel(SystemUser.Level.OFF);
+        SUT.w(new StringMessage("warning"));
+        assertTrue(OUTPUT.isEmpty());
+        assertFalse(SUT.isEnabled(SystemUser.Level.OFF));
+    }
+
+    @Test
+    void lazy() {
+        AtomicInteger built = new AtomicInteger();
+        SUT.d(() -> {
+            built.incrementAndGet();
+            return new StringMessage("debug");
+        });
+        SUT.i(() -> new StringMessage("info"));
+        assertEquals(0, built.get());
+        assertEquals(List.of("info"), OUTPUT);
+    }
+}
@@ -0,0 +1,39 @@
+package art.arcane.edict.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncAppenderTest {
+
+    final ByteArrayOutputStream OUT = new ByteArrayOutputStream();
+
+    @Test
+    void write() {
+        try (AsyncAppender SUT = new AsyncAppender(new PrintStream(OUT, true))) {
+            for (int i = 0; i < 1000; i++) {
+                SUT.accept("line " + i);
+            }
+            assertTrue(SUT.flush(5, TimeUnit.SECONDS));
+            String[] lines = OUT.toString().split(System.lineSeparator());
+            assertEquals(1000, lines.length);
+            assertEquals("line 0", lines[0]);
+            assertEquals("line 999", lines[999]);
+            assertEquals(0, SUT.getDropped());
+        }
+    }
+
+    @Test
+    void close() {
+        AsyncAppender SUT = new AsyncAppender(new PrintStream(OUT, true));
+        SUT.accept("before");
+        SUT.close();
+        SUT.accept("after");
+        assertEquals("before" + System.lineSeparator(), OUT.toString());
+        assertEquals(1, SUT.getDropped());
+    }
+}
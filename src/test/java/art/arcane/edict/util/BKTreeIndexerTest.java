@@ -37,6 +37,14 @@ class BKTreeIndexerTest extends BKTreeIndexer {
         assertEquals(3, DAMERAU_LEVENSHTEIN_DISTANCE.distance("adda", "bbb"));
     }
 
+    @Test
+    public void testDLDBounded() {
+        assertEquals(3, damerauLevenshtein("adda", "bbb", 3));
+        assertEquals(2, damerauLevenshtein("adda", "bbb", 1));
+        assertEquals(1, damerauLevenshtein("abcdefgh", "ahgfedcb", 0));
+        assertEquals(1, damerauLevenshtein("abdc", "abcd", 1));
+    }
+
     @Test
     public void testDLDAdapter() {
         assertEquals(0, DLD_EDICT_ADAPTER.distance(t("aaa"), t("aaa")));
@@ -54,6 +62,27 @@ class BKTreeIndexerTest extends BKTreeIndexer {
         assertEquals("ccc", search("xtc", 0, (a) -> true).get(0).name());
     }
 
+    @Test
+    public void testExactAndPrefix() {
+        VCommandable alias = t("ddd", "aab");
+        addAll(List.of(alias));
+        assertEquals(List.of(alias), search("aab", 0.6, (a) -> true));
+        assertEquals(List.of(alias), search("dd", 0.6, (a) -> true));
+        assertTrue(search("aab", 0.6, (a) -> a != alias).stream().map(VCommandable::name).toList().contains("aaa"));
+        assertEquals(2, search("aa", 0.6, (a) -> true).size());
+    }
+
+    @Test
+    public void testExactAndPrefixTies() {
+        VCommandable test = t("test"), xest = t("xest"), set = t("set"), get = t("get");
+        addAll(List.of(test, xest, set, get));
+        // The first characters are not compared, so "xest" ties with the exact match
+        assertEquals(List.of(test, xest), search("test", 0.6, (a) -> true));
+        // "get" is as close to "se" as the prefix match is
+        assertEquals(List.of(set, get), search("se", 0.6, (a) -> true));
+        assertEquals(List.of(get), search("se", 0.6, (a) -> a != set));
+    }
+
     @Test
     public void voidTestTreeEmpty() {
         assertEquals(0, search("a", 1, (a) -> true).size());
@@ -0,0 +1,83 @@
+package art.arcane.edict.util;
+
+import art.arcane.edict.message.StringMessage;
+import art.arcane.edict.user.SystemUser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuildLogTest {
+
+    final List<String> OUT = new ArrayList<>();
+    final SystemUser USER = new SystemUser(SystemUser.Level.DEBUG, OUT::add);
+    final BuildLog SUT = new BuildLog();
+
+    @Test
+    void replayInOrder() {
+        SUT.add(SystemUser.Level.INFO, new StringMessage("1"));
+        BuildLog first = SUT.child();
+        SUT.add(SystemUser.Level.WARNING, new StringMessage("4"));
+        BuildLog second = SUT.child();
+
+        // Added out of order, as parallel tasks would
+        second.add(SystemUser.Level.DEBUG, new StringMessage("5"));
+        first.child().add(SystemUser.Level.INFO, new StringMessage("3"));
+        first.add(SystemUser.Level.INFO, new StringMessage("2"));
+
+        SUT.replay(USER);
+        assertEquals(List.of("1", "3", "2", "4", "5"), OUT);
+    }
+
+    @Test
+    void replayFiltersLevels() {
+        SUT.add(SystemUser.Level.DEBUG, new StringMessage("debug"));
+        SUT.add(SystemUser.Level.WARNING, new StringMessage("warning"));
+        USER.setLevel(SystemUser.Level.WARNING);
+        SUT.replay(USER);
+        assertEquals(List.of("warning"), OUT);
+    }
+
+    @Test
+    void current() {
+        assertNull(BuildLog.current());
+        BuildLog child = SUT.child();
+        assertSame(child, SUT.run(() -> child.run(BuildLog::current)));
+        assertSame(SUT, SUT.run(() -> {
+            child.run(BuildLog::current);
+            return BuildLog.current();
+        }));
+        assertNull(BuildLog.current());
+    }
+
+    @Test
+    void parallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            pool.invoke(ForkJoinTask.adapt(() -> SUT.run(() -> {
+                List<ForkJoinTask<?>> tasks = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    BuildLog child = BuildLog.current().child();
+                    int fI = i;
+                    tasks.add(ForkJoinTask.adapt(() -> child.run(() -> {
+                        child.add(SystemUser.Level.INFO, new StringMessage(String.valueOf(fI)));
+                        return null;
+                    })).fork());
+                }
+                tasks.forEach(ForkJoinTask::join);
+                return null;
+            })));
+        } finally {
+            pool.shutdown();
+        }
+        SUT.replay(USER);
+        assertEquals(100, OUT.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(String.valueOf(i), OUT.get(i));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package art.arcane.edict.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixTrieTest {
+
+    final PrefixTrie<String> SUT = new PrefixTrie<>();
+
+    @Test
+    void withPrefix() {
+        SUT.put("command", "a");
+        SUT.put("com", "a");
+        SUT.put("context", "b");
+        assertEquals(List.of("a", "b"), SUT.withPrefix("co"));
+        assertEquals(List.of("a"), SUT.withPrefix("com"));
+        assertEquals(List.of("b"), SUT.withPrefix("context"));
+        assertTrue(SUT.withPrefix("contexts").isEmpty());
+        assertTrue(SUT.withPrefix("x").isEmpty());
+    }
+}
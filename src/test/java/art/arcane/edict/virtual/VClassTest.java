@@ -2,6 +2,7 @@ package art.arcane.edict.virtual;
 
 import art.arcane.edict.Edict;
 import art.arcane.edict.EdictTest;
+import art.arcane.edict.api.Command;
 import art.arcane.edict.testconstruct.TestCommandClass;
 import art.arcane.edict.testconstruct.TestUser;
 import org.junit.jupiter.api.Test;
@@ -47,4 +48,26 @@ class VClassTest {
         assert SUT != null;
         assertTrue(SUT.getAliases().contains("alias"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void fromClassWithoutDescriptor() throws Throwable {
+        VClass hidden = (VClass) VClass.fromInstance(new Hidden(), null, SYSTEM);
+        assertNotNull(hidden);
+        VMethod ping = (VMethod) hidden.children().stream().filter(c -> c.name().equals("ping")).findFirst().orElseThrow();
+        assertEquals(2, hidden.children().size());
+        assertEquals("pong", ping.invoker().invoke(new Object[0]));
+    }
+
+    @SuppressWarnings("unused")
+    @Command(name = "hidden", description = "a class without a generated descriptor")
+    private static class Hidden {
+
+        @Command(description = "a command")
+        public String ping() {
+            return "pong";
+        }
+
+        @Command(description = "another command")
+        public void other() {}
+    }
+}
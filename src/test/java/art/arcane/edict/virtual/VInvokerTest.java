@@ -0,0 +1,41 @@
+package art.arcane.edict.virtual;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VInvokerTest {
+
+    private int calls = 0;
+
+    private void none() {
+        calls++;
+    }
+
+    private String two(String a, int b) {
+        return a + b;
+    }
+
+    private static int six(int a, int b, int c, int d, int e, int f) {
+        return a + b + c + d + e + f;
+    }
+
+    private static Method method(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        Method method = VInvokerTest.class.getDeclaredMethod(name, parameterTypes);
+        method.setAccessible(true);
+        return method;
+    }
+
+    @Test
+    void invoke() throws Throwable {
+        VInvoker none = VInvoker.of(method("none"), this);
+        assertNull(none.invoke(new Object[0]));
+        assertEquals(1, calls);
+        VInvoker two = VInvoker.of(method("two", String.class, int.class), this);
+        assertEquals("a1", two.invoke(new Object[]{"a", 1}));
+        VInvoker six = VInvoker.of(method("six", int.class, int.class, int.class, int.class, int.class, int.class), null);
+        assertEquals(21, six.invoke(new Object[]{1, 2, 3, 4, 5, 6}));
+    }
+}
@@ -0,0 +1,110 @@
+package art.arcane.edict.virtual;
+
+import art.arcane.edict.Edict;
+import art.arcane.edict.testconstruct.TestCommandClass;
+import art.arcane.edict.testconstruct.TestItemCommandClass;
+import art.arcane.edict.testconstruct.TestUser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VSubtreeTest {
+
+    final VSubtree SUT = new VSubtree();
+
+    @Test
+    void buildsOnce() throws InterruptedException {
+        AtomicInteger builds = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<VSubtree.Contents> seen = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                VSubtree.Contents contents = SUT.get(() -> {
+                    builds.incrementAndGet();
+                    return List.of();
+                });
+                synchronized (seen) {
+                    seen.add(contents);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        assertFalse(SUT.isBuilt());
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        assertTrue(SUT.isBuilt());
+        assertEquals(1, builds.get());
+        assertEquals(8, seen.size());
+        assertTrue(seen.stream().allMatch(contents -> contents == SUT.getIfBuilt()));
+    }
+
+    @Test
+    void retriesAfterFailure() {
+        assertThrows(NullPointerException.class, () -> SUT.get(() -> {
+            throw new NullPointerException("missing handler");
+        }));
+        assertFalse(SUT.isBuilt());
+        assertNull(SUT.getIfBuilt());
+        assertTrue(SUT.get(List::of).children().isEmpty());
+        assertTrue(SUT.isBuilt());
+    }
+
+    @Test
+    void reentrant() {
+        assertThrows(IllegalStateException.class, () -> SUT.get(() -> SUT.get(List::of).children()));
+    }
+
+    @Test
+    void lazyCategory() {
+        Edict lazy = Edict.builder(new TestCommandClass()).lazy(true).build();
+        assertTrue(lazy.isLazy());
+        VClass root = (VClass) lazy.getRootCommands().get(0);
+        assertFalse(root.subtree().isBuilt());
+        assertTrue(lazy.networkString().contains("(not built)"));
+
+        // Running a command builds only the categories on its path
+        TestUser user = new TestUser();
+        lazy.command("test command", user, true);
+        assertTrue(root.subtree().isBuilt());
+        VClass subcategory = (VClass) root.children().stream().filter(c -> c.name().equals("subcategory")).findFirst().orElseThrow();
+        assertFalse(subcategory.subtree().isBuilt());
+    }
+
+    @Test
+    void lazyCategoryMissingHandler() {
+        Edict lazy = Edict.builder(new TestItemCommandClass()).lazy(true).build();
+
+        // The handler of the item is only found missing when the category is first used
+        TestUser user = new TestUser();
+        lazy.command("items give zebra", user, true);
+        assertEquals("Something went wrong while running your command. Please contact an administrator.", user.received.get(user.received.size() - 1).string());
+
+        List<String> suggestions = new ArrayList<>();
+        lazy.suggest("items give ", user, suggestions::addAll, true);
+        assertEquals(List.of("<error>"), suggestions);
+    }
+
+    @Test
+    void prewarm() throws Exception {
+        Edict lazy = Edict.builder(new TestCommandClass()).lazy(true).build();
+        assertEquals(2, lazy.prewarm().get(5, TimeUnit.SECONDS));
+        VClass root = (VClass) lazy.getRootCommands().get(0);
+        assertTrue(root.children().stream().filter(c -> c instanceof VClass).allMatch(c -> ((VClass) c).subtree().isBuilt()));
+        assertEquals(0, lazy.prewarm().get(5, TimeUnit.SECONDS));
+    }
+}